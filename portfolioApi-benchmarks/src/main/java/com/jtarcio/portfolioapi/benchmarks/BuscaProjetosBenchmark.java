@@ -0,0 +1,114 @@
+package com.jtarcio.portfolioapi.benchmarks;
+
+import com.jtarcio.portfolioapi.service.IndiceInvertido;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca textual do índice em memória (portfolio.busca.motor=MEMORIA) com 100k e 1M projetos: palavra
+ * comum, duas palavras, prefixo da última palavra (autocompletar) e palavra com erro de digitação.
+ * Nomes e descrições sorteiam palavras do domínio (frequentes) e palavras sintéticas (vocabulário longo e raro).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BuscaProjetosBenchmark {
+
+    private static final String[] PALAVRAS_DOMINIO = {
+            "gestão", "contratos", "financeiro", "migração", "portal", "cliente", "sistema", "controle",
+            "fornecedores", "atendimento", "integração", "relatórios", "infraestrutura", "segurança", "dados",
+            "aplicativo", "modernização", "automação", "cadastro", "pagamentos", "logística", "estoque",
+            "compras", "vendas", "auditoria", "indicadores", "nuvem", "rede", "treinamento", "qualidade"
+    };
+    private static final String[] SILABAS = {
+            "ba", "ce", "di", "fo", "gu", "la", "me", "ni", "po", "ru", "sa", "te", "vi", "xo", "za", "tra", "pre", "cli"
+    };
+
+    @Param({"100000", "1000000"})
+    private int quantidadeProjetos;
+
+    private IndiceInvertido indice;
+    private long proximoId;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(PortfolioSintetico.SEMENTE);
+        String[] sinteticas = palavrasSinteticas(aleatorio, 20000);
+
+        indice = new IndiceInvertido();
+        List<IndiceInvertido.Documento> lote = new ArrayList<>(10000);
+        for (long id = 1; id <= quantidadeProjetos; id++) {
+            lote.add(new IndiceInvertido.Documento(id,
+                    texto(aleatorio, sinteticas, 3), texto(aleatorio, sinteticas, 8)));
+            if (lote.size() == 10000) {
+                indice.indexar(lote);
+                lote.clear();
+            }
+        }
+        indice.indexar(lote);
+        proximoId = quantidadeProjetos;
+    }
+
+    @Benchmark
+    public IndiceInvertido.Resultado palavraComum() {
+        return indice.buscar("financeiro", 0, 10);
+    }
+
+    @Benchmark
+    public IndiceInvertido.Resultado duasPalavras() {
+        return indice.buscar("gestão contratos", 0, 10);
+    }
+
+    @Benchmark
+    public IndiceInvertido.Resultado prefixo() {
+        return indice.buscar("integ", 0, 10);
+    }
+
+    @Benchmark
+    public IndiceInvertido.Resultado erroDeDigitacao() {
+        return indice.buscar("fornecdores", 0, 10);
+    }
+
+    //projeto novo entrando no índice (ids crescentes, como as sequências do banco)
+    @Benchmark
+    public void indexacao() {
+        indice.indexar(++proximoId, "Portal de compras", "Integração do cadastro de fornecedores");
+    }
+
+    //metade das palavras do domínio, metade sintéticas com frequência decrescente (poucas comuns, muitas raras)
+    private static String texto(Random aleatorio, String[] sinteticas, int palavras) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            if (i > 0) {
+                texto.append(' ');
+            }
+            if (aleatorio.nextBoolean()) {
+                texto.append(PALAVRAS_DOMINIO[aleatorio.nextInt(PALAVRAS_DOMINIO.length)]);
+            } else {
+                double u = aleatorio.nextDouble();
+                texto.append(sinteticas[(int) (u * u * u * sinteticas.length)]);
+            }
+        }
+        return texto.toString();
+    }
+
+    private static String[] palavrasSinteticas(Random aleatorio, int quantidade) {
+        String[] palavras = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            StringBuilder palavra = new StringBuilder();
+            int silabas = 2 + aleatorio.nextInt(3);
+            for (int s = 0; s < silabas; s++) {
+                palavra.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            }
+            palavras[i] = palavra.toString();
+        }
+        return palavras;
+    }
+}
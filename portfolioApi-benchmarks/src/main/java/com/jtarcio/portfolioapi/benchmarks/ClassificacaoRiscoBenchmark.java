@@ -0,0 +1,58 @@
+package com.jtarcio.portfolioapi.benchmarks;
+
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+import com.jtarcio.portfolioapi.service.ClassificadorRisco;
+import com.jtarcio.portfolioapi.service.ProjetoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//custo de uma classificação e de reclassificar um lote inteiro
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassificacaoRiscoBenchmark {
+
+    private static final int TAMANHO_AMOSTRA = 1024;
+
+    private Projeto[] amostra;
+    private int proximo;
+    private ClassificadorRisco classificador;
+    private ProjetoService projetoService;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<Projeto> projetos = PortfolioSintetico.projetos(TAMANHO_AMOSTRA, PortfolioSintetico.membros(100));
+        amostra = projetos.toArray(new Projeto[0]);
+        classificador = new ClassificadorRisco(ClassificadorRisco.REGRAS_PADRAO);
+        //a classificação não usa repositório, membros, agregador nem eventos
+        projetoService = new ProjetoService(null, null, null, null, classificador, null, null, null);
+    }
+
+    @Benchmark
+    public ClassificacaoRiscoEnum classificarUm() {
+        Projeto projeto = amostra[proximo];
+        proximo = (proximo + 1) & (TAMANHO_AMOSTRA - 1);
+        return projetoService.calcularClassificacaoRisco(projeto);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_AMOSTRA)
+    public void classificarLote(Blackhole blackhole) {
+        for (Projeto projeto : amostra) {
+            blackhole.consume(projetoService.calcularClassificacaoRisco(projeto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_AMOSTRA)
+    public int classificarLoteNoClassificador() {
+        return classificador.classificarLote(List.of(amostra));
+    }
+}
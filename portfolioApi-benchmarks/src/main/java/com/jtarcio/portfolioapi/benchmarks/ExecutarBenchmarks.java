@@ -0,0 +1,48 @@
+package com.jtarcio.portfolioapi.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+/**
+ * Ponto de entrada do benchmarks.jar. Aceita as mesmas opções do JMH
+ * (ex.: {@code java -jar target/benchmarks.jar Relatorio -p quantidadeProjetos=1000}),
+ * mas sempre liga o profiler de GC (taxa de alocação por operação) e grava o resultado em JSON
+ * para comparar execuções: target/jmh-result.json, ao lado do jar, quando -rff não é informado.
+ */
+public final class ExecutarBenchmarks {
+
+    private ExecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+
+        Options opcoes = new OptionsBuilder()
+                .parent(linhaDeComando)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(linhaDeComando.getResult().orElseGet(ExecutarBenchmarks::resultadoPadrao))
+                .build();
+
+        new Runner(opcoes).run();
+    }
+
+    //pasta do jar (ou de target/classes): o JSON fica em target/, não no diretório de onde o jar foi chamado
+    private static String resultadoPadrao() {
+        try {
+            Path origem = Path.of(ExecutarBenchmarks.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return origem.resolveSibling("jmh-result.json").toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Local do benchmarks.jar inválido", e);
+        }
+    }
+}
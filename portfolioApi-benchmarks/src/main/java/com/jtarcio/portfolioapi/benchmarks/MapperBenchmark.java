@@ -0,0 +1,62 @@
+package com.jtarcio.portfolioapi.benchmarks;
+
+import com.jtarcio.portfolioapi.dto.response.MembroResponseDTO;
+import com.jtarcio.portfolioapi.dto.response.ProjetoResponseDTO;
+import com.jtarcio.portfolioapi.mapper.MembroMapper;
+import com.jtarcio.portfolioapi.mapper.ProjetoMapper;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//conversão entidade → DTO feita em toda resposta de projeto e membro
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    //tamanho de página comum e exportação grande
+    @Param({"10", "1000", "100000"})
+    private int quantidadeProjetos;
+
+    private List<Projeto> projetos;
+    private Projeto projeto;
+    private List<Membro> membros;
+    private ProjetoMapper projetoMapper;
+    private MembroMapper membroMapper;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        membros = PortfolioSintetico.membros(1000);
+        projetos = PortfolioSintetico.projetos(quantidadeProjetos, membros);
+        projeto = projetos.get(0);
+        membroMapper = new MembroMapper();
+        //toResponseDTO não consulta o MembroService
+        projetoMapper = new ProjetoMapper(null, membroMapper);
+    }
+
+    @Benchmark
+    public ProjetoResponseDTO projetoToResponseDTO() {
+        return projetoMapper.toResponseDTO(projeto);
+    }
+
+    @Benchmark
+    public List<ProjetoResponseDTO> projetoToResponseDTOList() {
+        return projetoMapper.toResponseDTOList(projetos);
+    }
+
+    @Benchmark
+    public MembroResponseDTO membroToResponseDTO() {
+        return membroMapper.toResponseDTO(projeto.getGerente());
+    }
+
+    @Benchmark
+    public List<MembroResponseDTO> membroToResponseDTOList() {
+        return membroMapper.toResponseDTOList(membros);
+    }
+}
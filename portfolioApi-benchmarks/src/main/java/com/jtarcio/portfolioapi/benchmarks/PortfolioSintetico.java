@@ -0,0 +1,102 @@
+package com.jtarcio.portfolioapi.benchmarks;
+
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import com.jtarcio.portfolioapi.repository.projection.DuracaoProjetosProjection;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Portfólios sintéticos e determinísticos (mesma semente, mesmos dados) para os benchmarks.
+ * A distribuição imita a produção: orçamentos de 10k a 1M, prazos de 1 a 12 meses,
+ * 1 a 10 membros por projeto sorteados de um conjunto fixo de membros.
+ */
+public final class PortfolioSintetico {
+
+    static final long SEMENTE = 20250101L;
+
+    private static final StatusProjetoEnum[] STATUS = StatusProjetoEnum.values();
+    private static final LocalDate INICIO_BASE = LocalDate.of(2020, 1, 1);
+
+    private PortfolioSintetico() {
+    }
+
+    public static List<Membro> membros(int quantidade) {
+        List<Membro> membros = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            membros.add(Membro.builder()
+                    .id((long) i)
+                    .nome("Membro " + i)
+                    .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                    .build());
+        }
+        return membros;
+    }
+
+    public static List<Projeto> projetos(int quantidade, List<Membro> membros) {
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        List<Projeto> projetos = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            LocalDate inicio = INICIO_BASE.plusDays(random.nextInt(1500));
+            LocalDate previsaoFim = inicio.plusMonths(1 + random.nextInt(12)).plusDays(random.nextInt(28));
+            StatusProjetoEnum status = STATUS[random.nextInt(STATUS.length)];
+
+            int quantidadeMembros = 1 + random.nextInt(10);
+            List<Membro> alocados = new ArrayList<>(quantidadeMembros);
+            for (int m = 0; m < quantidadeMembros; m++) {
+                alocados.add(membros.get(random.nextInt(membros.size())));
+            }
+
+            projetos.add(Projeto.builder()
+                    .id((long) i)
+                    .nome("Projeto " + i)
+                    .dataInicio(inicio)
+                    .previsaoFim(previsaoFim)
+                    .dataFim(status == StatusProjetoEnum.ENCERRADO ? previsaoFim.plusDays(random.nextInt(60)) : null)
+                    .orcamentoTotal(BigDecimal.valueOf(10_000L + random.nextLong(990_000L), 0).setScale(2))
+                    .descricao("Projeto sintético " + i)
+                    .gerente(alocados.get(0))
+                    .status(status)
+                    .versao(0L)
+                    .membros(alocados)
+                    .build());
+        }
+        return projetos;
+    }
+
+    //repositório que responde às consultas agregadas com um banco vazio (para inicializar o agregador)
+    static ProjetoRepository repositorioVazio() {
+        DuracaoProjetosProjection duracaoVazia = new DuracaoProjetosProjection() {
+            @Override
+            public Long getSomaDias() {
+                return null;
+            }
+
+            @Override
+            public Long getQuantidade() {
+                return 0L;
+            }
+        };
+
+        return (ProjetoRepository) Proxy.newProxyInstance(
+                ProjetoRepository.class.getClassLoader(),
+                new Class<?>[]{ProjetoRepository.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "totalizarPorStatus", "contarAlocacoesPorMembro" -> List.of();
+                    case "totalizarDuracao" -> duracaoVazia;
+                    case "contarMembrosUnicos" -> 0L;
+                    case "toString" -> "ProjetoRepository vazio";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == argumentos[0];
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+}
@@ -0,0 +1,126 @@
+package com.jtarcio.portfolioapi.benchmarks;
+
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.service.ClassificadorRisco;
+import com.jtarcio.portfolioapi.service.ProjetoService;
+import com.jtarcio.portfolioapi.service.RelatorioPortfolioAgregador;
+import com.jtarcio.portfolioapi.service.RelatorioPortfolioAgregador.ContribuicaoProjeto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Relatório do portfólio: totais mantidos pelo agregador contra a varredura completa em memória
+ * (os pipelines de stream que o gerarRelatorioPortfolio usava antes do agregador), de 1k a 1M projetos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RelatorioPortfolioBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int quantidadeProjetos;
+
+    private List<Projeto> projetos;
+    private ProjetoService projetoService;
+    private RelatorioPortfolioAgregador agregador;
+    private Projeto alterado;
+    private ContribuicaoProjeto contribuicaoAlterado;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        projetos = PortfolioSintetico.projetos(quantidadeProjetos, PortfolioSintetico.membros(5000));
+        agregador = agregadorCom(projetos);
+        projetoService = new ProjetoService(null, null, agregador, evento -> {
+        }, new ClassificadorRisco(ClassificadorRisco.REGRAS_PADRAO), null, null, null);
+
+        alterado = projetos.get(0);
+        contribuicaoAlterado = ContribuicaoProjeto.de(alterado);
+    }
+
+    //leitura do relatório com os totais já mantidos
+    @Benchmark
+    public Map<String, Object> relatorioPeloAgregador() {
+        return projetoService.gerarRelatorioPortfolio();
+    }
+
+    //escrita: retirar e somar de volta a contribuição de um projeto
+    @Benchmark
+    public RelatorioPortfolioAgregador.Totais alteracaoNoAgregador() {
+        agregador.registrarAlteracao(contribuicaoAlterado, alterado);
+        return agregador.totais();
+    }
+
+    //recuperação: montar os totais do zero a partir de todos os projetos
+    @Benchmark
+    public RelatorioPortfolioAgregador.Totais reconstrucaoEmMemoria() {
+        return agregadorCom(projetos).totais();
+    }
+
+    //linha de base: varredura de todos os projetos a cada relatório
+    @Benchmark
+    public Map<String, Object> relatorioPorVarredura() {
+        return varreduraCompleta(projetos);
+    }
+
+    private static RelatorioPortfolioAgregador agregadorCom(List<Projeto> projetos) {
+        RelatorioPortfolioAgregador agregador = new RelatorioPortfolioAgregador(PortfolioSintetico.repositorioVazio(), Runnable::run, null);
+        agregador.reconstruir();
+        //sem transação ativa as inclusões são aplicadas na hora
+        projetos.forEach(agregador::registrarInclusao);
+        return agregador;
+    }
+
+    private static Map<String, Object> varreduraCompleta(List<Projeto> todosProjetos) {
+        Map<String, Object> relatorio = new HashMap<>();
+
+        Map<StatusProjetoEnum, Long> projetosPorStatus = todosProjetos
+                .stream()
+                .collect(Collectors.groupingBy(Projeto::getStatus, Collectors.counting()));
+        relatorio.put("Quantidade por Status", projetosPorStatus);
+
+        Map<StatusProjetoEnum, BigDecimal> orcamentoPorStatus = todosProjetos
+                .stream()
+                .collect(Collectors.groupingBy(Projeto::getStatus, Collectors.reducing(
+                        BigDecimal.ZERO,
+                        Projeto::getOrcamentoTotal,
+                        BigDecimal::add
+                )));
+        relatorio.put("Total orçado por status", orcamentoPorStatus);
+
+        List<Projeto> projetosEncerrados = todosProjetos
+                .stream()
+                .filter(p -> p.getStatus() == StatusProjetoEnum.ENCERRADO && p.getDataFim() != null)
+                .toList();
+        if (!projetosEncerrados.isEmpty()) {
+            double mediaDias = projetosEncerrados
+                    .stream()
+                    .mapToLong(p -> ChronoUnit.DAYS.between(p.getDataInicio(), p.getDataFim()))
+                    .average()
+                    .orElse(0.00);
+            relatorio.put("Media da duracao dos projetos finalizados", Math.round(mediaDias) + " dias");
+        } else {
+            relatorio.put("Media duracao projetos finalziado", "Nenhum projeto finalizado");
+        }
+
+        Set<Membro> membrosUnicos = todosProjetos
+                .stream()
+                .flatMap(p -> p.getMembros().stream())
+                .collect(Collectors.toSet());
+        relatorio.put("Total de membros únicos é:", membrosUnicos.size());
+
+        return relatorio;
+    }
+}
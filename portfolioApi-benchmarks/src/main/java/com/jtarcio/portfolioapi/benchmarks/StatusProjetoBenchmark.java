@@ -0,0 +1,46 @@
+package com.jtarcio.portfolioapi.benchmarks;
+
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//consultas da máquina de estados usadas a cada transição de status
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusProjetoBenchmark {
+
+    private static final StatusProjetoEnum[] AVANCAVEIS = {
+            StatusProjetoEnum.EM_ANALISE,
+            StatusProjetoEnum.ANALISE_REALIZADA,
+            StatusProjetoEnum.ANALISE_APROVADA,
+            StatusProjetoEnum.INICIADO,
+            StatusProjetoEnum.PLANEJADO,
+            StatusProjetoEnum.EM_ANDAMENTO
+    };
+
+    private int codigo;
+    private int indice;
+
+    @Benchmark
+    public StatusProjetoEnum codigo() {
+        codigo = (codigo + 1) & 7;
+        return StatusProjetoEnum.codigo(codigo);
+    }
+
+    @Benchmark
+    public StatusProjetoEnum proximoStatus() {
+        indice = indice == AVANCAVEIS.length - 1 ? 0 : indice + 1;
+        return AVANCAVEIS[indice].proximoStatus();
+    }
+
+    @Benchmark
+    public boolean possoMudarStatus() {
+        indice = indice == AVANCAVEIS.length - 1 ? 0 : indice + 1;
+        return AVANCAVEIS[indice].possoMudarStatus(StatusProjetoEnum.PLANEJADO);
+    }
+}
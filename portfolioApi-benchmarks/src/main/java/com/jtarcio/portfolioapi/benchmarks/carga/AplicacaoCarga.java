@@ -0,0 +1,80 @@
+package com.jtarcio.portfolioapi.benchmarks.carga;
+
+import com.jtarcio.portfolioapi.PortfolioApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * O que as cargas deste pacote têm em comum: opções chave=valor da linha de comando e a aplicação
+ * subida no próprio processo, em porta livre, com H2 em memória ou com o banco de jdbc-url/usuario/senha
+ * (tabelas recriadas a cada execução). Com replica-url as transações somente leitura vão para essa
+ * réplica; replica=true usa o próprio banco como réplica (mede o roteamento sem replicação).
+ */
+final class AplicacaoCarga {
+
+    private AplicacaoCarga() {
+    }
+
+    static Map<String, String> opcoes(String[] args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            int separador = arg.indexOf('=');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Opção inválida (use chave=valor): " + arg);
+            }
+            opcoes.put(arg.substring(0, separador), arg.substring(separador + 1));
+        }
+        return opcoes;
+    }
+
+    //durações no formato curto das opções: 30s, 2m, 1h
+    static Duration duracao(Map<String, String> opcoes, String chave, String padrao) {
+        return Duration.parse("PT" + opcoes.getOrDefault(chave, padrao));
+    }
+
+    static ConfigurableApplicationContext subir(String nomeBanco, boolean threadsVirtuais, Map<String, String> opcoes) {
+        Map<String, Object> propriedades = new HashMap<>();
+        propriedades.put("server.port", 0);
+        propriedades.put("management.server.port", 0);
+        propriedades.put("spring.datasource.url",
+                opcoes.getOrDefault("jdbc-url", "jdbc:h2:mem:" + nomeBanco + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+        propriedades.put("spring.datasource.username", opcoes.getOrDefault("usuario", "sa"));
+        propriedades.put("spring.datasource.password", opcoes.getOrDefault("senha", ""));
+        propriedades.put("spring.datasource.hikari.maximum-pool-size", opcoes.getOrDefault("pool", "10"));
+        if (!opcoes.containsKey("jdbc-url")) {
+            propriedades.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            propriedades.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            //o H2 não tem tsvector nem pg_trgm
+            propriedades.put("portfolio.busca.motor", "MEMORIA");
+        }
+        String replica = opcoes.getOrDefault("replica-url",
+                Boolean.parseBoolean(opcoes.get("replica")) ? (String) propriedades.get("spring.datasource.url") : null);
+        if (replica != null) {
+            propriedades.put("portfolio.datasource.replica.url", replica);
+            propriedades.put("portfolio.datasource.replica.hikari.maximum-pool-size", opcoes.getOrDefault("pool", "10"));
+        }
+        //tabelas recriadas a cada execução: cargas comparadas medem o mesmo portfólio
+        propriedades.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        propriedades.put("spring.jpa.show-sql", false);
+        propriedades.put("spring.devtools.restart.enabled", false);
+        propriedades.put("logging.level.org.hibernate.SQL", "WARN");
+        propriedades.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        propriedades.put("logging.level.com.jtarcio.portfolioapi", "INFO");
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PortfolioApiApplication.class)
+                .properties(propriedades);
+        if (threadsVirtuais) {
+            builder.profiles("threads-virtuais");
+        }
+        return builder.run();
+    }
+
+    static int porta(ConfigurableApplicationContext contexto) {
+        return ((WebServerApplicationContext) contexto).getWebServer().getPort();
+    }
+}
@@ -0,0 +1,90 @@
+package com.jtarcio.portfolioapi.benchmarks.carga;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Carga em malha fechada: {@code concorrencia} clientes, cada um em uma thread virtual, enviam uma
+ * requisição, esperam a resposta e enviam a próxima até o fim do tempo. As latências medidas depois
+ * do aquecimento viram vazão e percentis (ver Medicoes). Recusas por sobrecarga (503) são contadas à parte dos erros.
+ */
+public final class CargaHttp {
+
+    private CargaHttp() {
+    }
+
+    /**
+     * @param roteiro monta a próxima requisição (recebe um número aleatório para sortear ids, páginas etc.)
+     */
+    public static Resultado executar(String nome, HttpClient cliente, Function<ThreadLocalRandom, HttpRequest> roteiro,
+                                     int concorrencia, Duration aquecimento, Duration duracao) throws InterruptedException {
+        long inicioMedicao = System.nanoTime() + aquecimento.toNanos();
+        long fim = inicioMedicao + duracao.toNanos();
+
+        List<Future<Medicoes>> clientes = new ArrayList<>(concorrencia);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concorrencia; i++) {
+                clientes.add(executor.submit(() -> medir(cliente, roteiro, inicioMedicao, fim)));
+            }
+        }
+
+        Medicoes total = new Medicoes();
+        for (Future<Medicoes> futuro : clientes) {
+            try {
+                total.somar(futuro.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Cliente de carga falhou", e.getCause());
+            }
+        }
+        return total.resultado(nome, duracao);
+    }
+
+    private static Medicoes medir(HttpClient cliente, Function<ThreadLocalRandom, HttpRequest> roteiro,
+                                  long inicioMedicao, long fim) throws InterruptedException {
+        Medicoes medicoes = new Medicoes();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long agora = System.nanoTime();
+        while (agora < fim) {
+            HttpRequest requisicao = roteiro.apply(random);
+            long inicio = agora;
+            int status;
+            try {
+                status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            agora = System.nanoTime();
+            if (inicio >= inicioMedicao && agora <= fim) {
+                medicoes.registrar(status, agora - inicio);
+            }
+        }
+        return medicoes;
+    }
+
+    //latências em nanossegundos; vazão só das respostas bem-sucedidas
+    public record Resultado(String nome, long sucessos, long rejeitadas, long erros, long recusadas, Duration duracao,
+                            long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maximoNanos) {
+
+        public double vazao() {
+            return sucessos / (duracao.toNanos() / 1e9);
+        }
+
+        public String linha() {
+            return String.format("%-12s %10.1f req/s  p50 %8.2f ms  p90 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  máx %8.2f ms"
+                            + "  rejeitadas(4xx) %d  erros %d  recusadas(503) %d",
+                    nome, vazao(), p50Nanos / 1e6, p90Nanos / 1e6, p99Nanos / 1e6, p999Nanos / 1e6, maximoNanos / 1e6,
+                    rejeitadas, erros, recusadas);
+        }
+    }
+}
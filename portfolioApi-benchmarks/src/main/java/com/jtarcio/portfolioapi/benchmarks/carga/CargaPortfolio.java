@@ -0,0 +1,312 @@
+package com.jtarcio.portfolioapi.benchmarks.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.dto.request.ProjetoRequestDTO;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.service.ClassificadorRisco;
+import com.jtarcio.portfolioapi.service.ProjetoService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carga em malha aberta contra as rotas reais: as requisições partem na taxa alvo (rps), respondidas
+ * ou não as anteriores, e a latência conta a partir do instante agendado. Assim um servidor lento
+ * aparece como latência alta, e não como menos requisições enviadas (omissão coordenada).
+ * Mistura: detalhe, listagem paginada, relatório, criação, avanço de status e alocação de membro;
+ * status e alocação usam de preferência os projetos criados pela própria carga.
+ *
+ * <p>Sem url-base, sobe a aplicação no processo (H2 em memória ou jdbc-url/usuario/senha, tabelas
+ * recriadas), popula com GeradorPortfolio e mede. Com url-base, mede uma aplicação já no ar; jdbc-url
+ * continua obrigatória para ler ids de projetos e membros (popule antes com GeradorPortfolio).
+ *
+ * <p>Opções chave=valor: rps (200), aquecimento (10s), duracao (60s), projetos (100000), membros,
+ * lote (1000), paginas (50, a listagem sorteia entre as primeiras), pendentes (10000, acima disso a carga
+ * descarta em vez de acumular), threads-virtuais (false), pool (10), url-base, jdbc-url, usuario, senha,
+ * replica-url ou replica (true: roteamento para o próprio banco).
+ */
+public final class CargaPortfolio {
+
+    private static final int TAMANHO_PAGINA = 20;
+    private static final int FUNCIONARIOS_CARGA = 2000;
+    private static final int PROJETOS_RECENTES = 4096;
+
+    enum Operacao {
+        DETALHE(35), LISTAGEM(25), RELATORIO(10), CRIACAO(12), STATUS(10), MEMBRO(8);
+
+        private final int peso;
+
+        Operacao(int peso) {
+            this.peso = peso;
+        }
+    }
+
+    private final HttpClient cliente;
+    private final String base;
+    private final long menorIdProjeto;
+    private final long maiorIdProjeto;
+    private final long[] funcionarios;
+    private final int paginas;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Operacao[] sorteioOperacao = new Operacao[100];
+
+    private final Map<Operacao, Medicoes> medicoes = new EnumMap<>(Operacao.class);
+    private final AtomicLongArray recentes = new AtomicLongArray(PROJETOS_RECENTES);
+    private final AtomicLong criados = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    CargaPortfolio(HttpClient cliente, String base, long[] intervaloProjetos, List<Long> funcionarios, int paginas) {
+        if (intervaloProjetos[1] == 0 || funcionarios.isEmpty()) {
+            throw new IllegalStateException("Banco sem projetos ou sem membros FUNCIONARIO alocáveis; popule com GeradorPortfolio");
+        }
+        this.cliente = cliente;
+        this.base = base;
+        this.menorIdProjeto = intervaloProjetos[0];
+        this.maiorIdProjeto = intervaloProjetos[1];
+        this.funcionarios = funcionarios.stream().mapToLong(Long::longValue).toArray();
+        this.paginas = paginas;
+
+        int posicao = 0;
+        for (Operacao operacao : Operacao.values()) {
+            for (int i = 0; i < operacao.peso; i++) {
+                sorteioOperacao[posicao++] = operacao;
+            }
+            medicoes.put(operacao, new Medicoes());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, SQLException {
+        Map<String, String> opcoes = AplicacaoCarga.opcoes(args);
+        int rps = Integer.parseInt(opcoes.getOrDefault("rps", "200"));
+        Duration aquecimento = AplicacaoCarga.duracao(opcoes, "aquecimento", "10s");
+        Duration duracao = AplicacaoCarga.duracao(opcoes, "duracao", "60s");
+        int paginas = Integer.parseInt(opcoes.getOrDefault("paginas", "50"));
+        int pendentes = Integer.parseInt(opcoes.getOrDefault("pendentes", "10000"));
+
+        try (HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            if (opcoes.containsKey("url-base")) {
+                String url = opcoes.get("jdbc-url");
+                if (url == null) {
+                    throw new IllegalArgumentException("Com url-base, informe também jdbc-url=... do banco da aplicação");
+                }
+                CargaPortfolio carga;
+                try (Connection conexao = DriverManager.getConnection(url,
+                        opcoes.getOrDefault("usuario", "sa"), opcoes.getOrDefault("senha", ""))) {
+                    carga = new CargaPortfolio(cliente, opcoes.get("url-base"), GeradorPortfolio.intervaloProjetos(conexao),
+                            GeradorPortfolio.funcionariosAlocaveis(conexao, FUNCIONARIOS_CARGA), paginas);
+                }
+                carga.imprimir(carga.executar(rps, aquecimento, duracao, pendentes), rps, duracao);
+                return;
+            }
+
+            boolean threadsVirtuais = Boolean.parseBoolean(opcoes.getOrDefault("threads-virtuais", "false"));
+            try (ConfigurableApplicationContext contexto = AplicacaoCarga.subir("carga-portfolio", threadsVirtuais, opcoes)) {
+                CargaPortfolio carga = popular(contexto, opcoes, cliente, paginas);
+                carga.imprimir(carga.executar(rps, aquecimento, duracao, pendentes), rps, duracao);
+            }
+        }
+    }
+
+    private static CargaPortfolio popular(ConfigurableApplicationContext contexto, Map<String, String> opcoes,
+                                          HttpClient cliente, int paginas) throws SQLException {
+        int projetos = Integer.parseInt(opcoes.getOrDefault("projetos", "100000"));
+        int membros = Integer.parseInt(opcoes.getOrDefault("membros", String.valueOf(GeradorPortfolio.membrosPadrao(projetos))));
+        int lote = Integer.parseInt(opcoes.getOrDefault("lote", "1000"));
+
+        try (Connection conexao = contexto.getBean(DataSource.class).getConnection()) {
+            GeradorPortfolio.Resumo resumo = new GeradorPortfolio(conexao, contexto.getBean(ClassificadorRisco.class), lote,
+                    Long.parseLong(opcoes.getOrDefault("semente", "20250101"))).gerar(membros, projetos);
+            System.out.println(resumo.linha());
+            //o agregador do relatório foi inicializado com o banco vazio
+            contexto.getBean(ProjetoService.class).reconstruirRelatorioPortfolio();
+
+            return new CargaPortfolio(cliente, "http://localhost:" + AplicacaoCarga.porta(contexto),
+                    GeradorPortfolio.intervaloProjetos(conexao),
+                    GeradorPortfolio.funcionariosAlocaveis(conexao, FUNCIONARIOS_CARGA), paginas);
+        }
+    }
+
+    /**
+     * Agenda uma requisição a cada 1/rps segundos até o fim do aquecimento mais a duração. Só as agendadas
+     * depois do aquecimento são medidas, inclusive as que terminam depois do fim (a execução espera por elas).
+     */
+    Map<Operacao, CargaHttp.Resultado> executar(int rps, Duration aquecimento, Duration duracao, int maximoPendentes)
+            throws InterruptedException {
+        long intervalo = 1_000_000_000L / rps;
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + aquecimento.toNanos();
+        long fim = inicioMedicao + duracao.toNanos();
+        Semaphore pendentes = new Semaphore(maximoPendentes);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; ; n++) {
+                long agendado = inicio + n * intervalo;
+                if (agendado >= fim) {
+                    break;
+                }
+                esperarAte(agendado);
+                boolean medir = agendado >= inicioMedicao;
+                if (!pendentes.tryAcquire()) {
+                    if (medir) {
+                        descartadas.incrementAndGet();
+                    }
+                    continue;
+                }
+                Operacao operacao = sorteioOperacao[ThreadLocalRandom.current().nextInt(sorteioOperacao.length)];
+                executor.submit(() -> {
+                    try {
+                        enviar(operacao, agendado, medir);
+                    } finally {
+                        pendentes.release();
+                    }
+                });
+            }
+        }
+
+        Map<Operacao, CargaHttp.Resultado> resultados = new EnumMap<>(Operacao.class);
+        medicoes.forEach((operacao, medicao) -> resultados.put(operacao, medicao.resultado(operacao.name().toLowerCase(), duracao)));
+        return resultados;
+    }
+
+    private void enviar(Operacao operacao, long agendado, boolean medir) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int status;
+        try {
+            HttpRequest requisicao = requisicao(operacao, random);
+            if (operacao == Operacao.CRIACAO) {
+                HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+                status = resposta.statusCode();
+                if (status == 201) {
+                    registrarCriado(resposta.body());
+                }
+            } else {
+                status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+            }
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        long latencia = System.nanoTime() - agendado;
+        if (medir) {
+            Medicoes medicao = medicoes.get(operacao);
+            synchronized (medicao) {
+                medicao.registrar(status, latencia);
+            }
+        }
+    }
+
+    private HttpRequest requisicao(Operacao operacao, ThreadLocalRandom random) throws IOException {
+        String projetos = base + "/api/projetos";
+        return switch (operacao) {
+            case DETALHE -> get(projetos + "/" + random.nextLong(menorIdProjeto, maiorIdProjeto + 1));
+            case LISTAGEM -> get(projetos + "?page=" + random.nextInt(paginas) + "&size=" + TAMANHO_PAGINA);
+            case RELATORIO -> get(projetos + "/relatorio");
+            case CRIACAO -> HttpRequest.newBuilder(URI.create(projetos))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(novoProjeto(random))))
+                    .build();
+            case STATUS -> HttpRequest.newBuilder(URI.create(projetos + "/" + projetoRecente(random) + "/avancar-status"))
+                    .timeout(Duration.ofSeconds(30))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case MEMBRO -> HttpRequest.newBuilder(URI.create(projetos + "/" + projetoRecente(random) + "/membros/"
+                            + funcionarios[random.nextInt(funcionarios.length)]))
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    //1 a 3 membros: sobra espaço para as alocações da própria carga
+    private ProjetoRequestDTO novoProjeto(ThreadLocalRandom random) {
+        List<Long> equipe = new ArrayList<>(3);
+        int tamanho = 1 + random.nextInt(Math.min(3, funcionarios.length));
+        while (equipe.size() < tamanho) {
+            long id = funcionarios[random.nextInt(funcionarios.length)];
+            if (!equipe.contains(id)) {
+                equipe.add(id);
+            }
+        }
+        LocalDate inicio = LocalDate.now().plusDays(random.nextInt(30));
+        return ProjetoRequestDTO.builder()
+                .nome("Projeto carga " + random.nextLong(1_000_000_000L))
+                .dataInicio(inicio)
+                .previsaoFim(inicio.plusMonths(1 + random.nextInt(12)))
+                .orcamentoTotal(BigDecimal.valueOf(10_000L + random.nextLong(990_000L)))
+                .gerenteId(equipe.get(0))
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .membrosIds(equipe)
+                .build();
+    }
+
+    //antes da primeira criação, um projeto qualquer do portfólio (a regra de negócio pode recusar)
+    private long projetoRecente(ThreadLocalRandom random) {
+        long quantidade = criados.get();
+        if (quantidade == 0) {
+            return random.nextLong(menorIdProjeto, maiorIdProjeto + 1);
+        }
+        return recentes.get(random.nextInt((int) Math.min(quantidade, PROJETOS_RECENTES)));
+    }
+
+    private void registrarCriado(String corpo) throws IOException {
+        long id = objectMapper.readTree(corpo).path("id").asLong(0);
+        if (id > 0) {
+            recentes.set((int) (criados.getAndIncrement() % PROJETOS_RECENTES), id);
+        }
+    }
+
+    private static void esperarAte(long instante) {
+        long espera;
+        while ((espera = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(espera);
+        }
+    }
+
+    private void imprimir(Map<Operacao, CargaHttp.Resultado> resultados, int rps, Duration duracao) {
+        Medicoes total = new Medicoes();
+        medicoes.values().forEach(total::somar);
+
+        System.out.printf("%nalvo %d req/s, duração %s, projetos %d a %d%n", rps, duracao, menorIdProjeto, maiorIdProjeto);
+        resultados.values().forEach(r -> System.out.println(r.linha()));
+        System.out.println(total.resultado("total", duracao).linha());
+        if (descartadas.get() > 0) {
+            System.out.printf("descartadas pela carga (limite de pendentes): %d%n", descartadas.get());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.jtarcio.portfolioapi.benchmarks.carga;
+
+import com.jtarcio.portfolioapi.benchmarks.PortfolioSintetico;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.service.MembroService;
+import com.jtarcio.portfolioapi.service.ProjetoService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Sobe a aplicação duas vezes no mesmo processo, com o pool de threads do Tomcat e com o perfil
+ * threads-virtuais, popula o mesmo portfólio sintético e aplica a mesma carga (detalhe, listagem
+ * e relatório) nas duas, imprimindo vazão e p99 de cada modo.
+ *
+ * <p>Opções no formato chave=valor: concorrencia (1000), aquecimento (10s), duracao (30s),
+ * projetos (2000), membros (500), pool (10) e jdbc-url/usuario/senha para usar um PostgreSQL local
+ * em vez do H2 em memória. Com H2 o banco quase não bloqueia; a diferença entre os modos aparece
+ * de verdade com o PostgreSQL, onde as threads passam a maior parte do tempo esperando o banco.
+ */
+public final class ComparacaoThreadsVirtuais {
+
+    private static final int TAMANHO_LOTE_CARGA = 500;
+
+    private ComparacaoThreadsVirtuais() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> opcoes = AplicacaoCarga.opcoes(args);
+        int concorrencia = Integer.parseInt(opcoes.getOrDefault("concorrencia", "1000"));
+        Duration aquecimento = AplicacaoCarga.duracao(opcoes, "aquecimento", "10s");
+        Duration duracao = AplicacaoCarga.duracao(opcoes, "duracao", "30s");
+        int projetos = Integer.parseInt(opcoes.getOrDefault("projetos", "2000"));
+        int membros = Integer.parseInt(opcoes.getOrDefault("membros", "500"));
+
+        List<CargaHttp.Resultado> resultados = new ArrayList<>();
+        for (boolean threadsVirtuais : new boolean[]{false, true}) {
+            String modo = threadsVirtuais ? "virtual" : "plataforma";
+            try (ConfigurableApplicationContext contexto = AplicacaoCarga.subir("carga-" + modo, threadsVirtuais, opcoes)) {
+                popular(contexto, projetos, membros);
+                int porta = AplicacaoCarga.porta(contexto);
+
+                try (HttpClient cliente = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build()) {
+                    resultados.add(CargaHttp.executar(modo, cliente, roteiro(porta, projetos),
+                            concorrencia, aquecimento, duracao));
+                }
+            }
+        }
+
+        System.out.printf("%nconcorrência %d, duração %s, %d projetos%n", concorrencia, duracao, projetos);
+        resultados.forEach(r -> System.out.println(r.linha()));
+    }
+
+    private static void popular(ConfigurableApplicationContext contexto, int quantidadeProjetos, int quantidadeMembros) {
+        MembroService membroService = contexto.getBean(MembroService.class);
+        ProjetoService projetoService = contexto.getBean(ProjetoService.class);
+
+        List<Membro> salvos = new ArrayList<>(quantidadeMembros);
+        for (Membro membro : PortfolioSintetico.membros(quantidadeMembros)) {
+            salvos.add(membroService.save(membro.toBuilder().id(null).build()));
+        }
+
+        List<Projeto> lote = new ArrayList<>(TAMANHO_LOTE_CARGA);
+        for (Projeto projeto : PortfolioSintetico.projetos(quantidadeProjetos, salvos)) {
+            //os projetos sintéticos já vêm com id e versão; aqui o banco gera os dois
+            projeto.setId(null);
+            projeto.setVersao(null);
+            projeto.setMembros(new ArrayList<>(new LinkedHashSet<>(projeto.getMembros())));
+            projetoService.prepararParaCriacao(projeto);
+            lote.add(projeto);
+            if (lote.size() == TAMANHO_LOTE_CARGA) {
+                projetoService.createAll(lote);
+                lote = new ArrayList<>(TAMANHO_LOTE_CARGA);
+            }
+        }
+        if (!lote.isEmpty()) {
+            projetoService.createAll(lote);
+        }
+        projetoService.reconstruirRelatorioPortfolio();
+    }
+
+    //mistura de leitura: 60% detalhe, 30% listagem paginada, 10% relatório
+    private static Function<ThreadLocalRandom, HttpRequest> roteiro(int porta, int quantidadeProjetos) {
+        String base = "http://localhost:" + porta + "/api/projetos";
+        int paginas = Math.max(1, quantidadeProjetos / 20);
+        return random -> {
+            int sorteio = random.nextInt(10);
+            String caminho;
+            if (sorteio < 6) {
+                caminho = base + "/" + (1 + random.nextInt(quantidadeProjetos));
+            } else if (sorteio < 9) {
+                caminho = base + "?page=" + random.nextInt(paginas) + "&size=20";
+            } else {
+                caminho = base + "/relatorio";
+            }
+            return HttpRequest.newBuilder(URI.create(caminho))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        };
+    }
+}
@@ -0,0 +1,398 @@
+package com.jtarcio.portfolioapi.benchmarks.carga;
+
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.service.ClassificadorRisco;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Popula tb_membros, tb_projetos e projeto_membros direto por JDBC, em lotes (addBatch) com um
+ * commit por lote, para dimensionar a aplicação com milhões de linhas. Os dados respeitam as regras
+ * do domínio: só membros FUNCIONARIO ativos são alocados, no máximo 10 membros por projeto e no máximo
+ * 3 projetos ativos (fora ENCERRADO e CANCELADO) por membro. A classificação de risco é gravada
+ * já calculada, como o ProjetoService faria. Mesma semente, mesmos dados.
+ *
+ * <p>As tabelas precisam existir (a aplicação cria com ddl-auto). Os ids continuam depois do maior id
+ * de cada tabela e, no fim, as sequências são avançadas como em AjusteSequenciasConfig; com a aplicação
+ * no ar, reinicie-a (ou chame POST /api/projetos/relatorio/reconstruir) para o relatório enxergar as linhas novas.
+ *
+ * <p>Opções chave=valor: jdbc-url (obrigatória), usuario, senha, projetos (1000000), membros (2 por projeto),
+ * lote (1000) e semente. Em PostgreSQL, reWriteBatchedInserts=true na URL junta cada lote em poucos INSERTs.
+ */
+public final class GeradorPortfolio {
+
+    static final int MAXIMO_MEMBROS_POR_PROJETO = 10;
+    static final int MAXIMO_PROJETOS_ATIVOS_POR_MEMBRO = 3;
+
+    private static final long SEMENTE_PADRAO = 20250101L;
+    private static final LocalDate REFERENCIA = LocalDate.of(2025, 6, 30);
+
+    //mesmo allocationSize dos @SequenceGenerator de Projeto e Membro
+    private static final long TAMANHO_ALOCACAO = 50;
+
+    //distribuição dos status (em %, somando 100): a maior parte do portfólio em andamento ou encerrada
+    private static final Map<StatusProjetoEnum, Integer> PESOS_STATUS = new EnumMap<>(Map.of(
+            StatusProjetoEnum.EM_ANALISE, 8,
+            StatusProjetoEnum.ANALISE_REALIZADA, 5,
+            StatusProjetoEnum.ANALISE_APROVADA, 5,
+            StatusProjetoEnum.INICIADO, 6,
+            StatusProjetoEnum.PLANEJADO, 8,
+            StatusProjetoEnum.EM_ANDAMENTO, 30,
+            StatusProjetoEnum.ENCERRADO, 30,
+            StatusProjetoEnum.CANCELADO, 8));
+
+    private static final String INSERT_MEMBRO = "insert into tb_membros "
+            + "(id, nome, atribuicao_enum, id_externo, hash_conteudo, ativo, versao) values (?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_PROJETO = "insert into tb_projetos "
+            + "(id, nome, data_inicio, previsao_fim, data_fim, orcamento_total, descricao, gerente_id, status, "
+            + "classificacao_risco, versao, atualizado_em) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final String INSERT_ALOCACAO = "insert into projeto_membros (projeto_id, membro_id) values (?, ?)";
+
+    private final Connection conexao;
+    private final ClassificadorRisco classificadorRisco;
+    private final int tamanhoLote;
+    private final SplittableRandom random;
+    private final StatusProjetoEnum[] sorteioStatus = new StatusProjetoEnum[100];
+
+    //ids dos membros FUNCIONARIO ativos e quantos projetos ativos cada um já tem (mesmo índice)
+    private long[] funcionarios;
+    private byte[] projetosAtivos;
+
+    //funcionários que ainda cabem em projeto ativo: as primeiras livres posições de disponiveis
+    //(posicaoDisponivel é o inverso, para tirar um membro da lista sem procurá-lo)
+    private int[] disponiveis;
+    private int[] posicaoDisponivel;
+    private int livres;
+
+    public GeradorPortfolio(Connection conexao, ClassificadorRisco classificadorRisco, int tamanhoLote, long semente) {
+        this.conexao = conexao;
+        this.classificadorRisco = classificadorRisco;
+        this.tamanhoLote = tamanhoLote;
+        this.random = new SplittableRandom(semente);
+        int posicao = 0;
+        for (Map.Entry<StatusProjetoEnum, Integer> peso : PESOS_STATUS.entrySet()) {
+            Arrays.fill(sorteioStatus, posicao, posicao + peso.getValue(), peso.getKey());
+            posicao += peso.getValue();
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> opcoes = AplicacaoCarga.opcoes(args);
+        String url = opcoes.get("jdbc-url");
+        if (url == null) {
+            throw new IllegalArgumentException("Informe jdbc-url=... (banco com as tabelas já criadas pela aplicação)");
+        }
+        int projetos = Integer.parseInt(opcoes.getOrDefault("projetos", "1000000"));
+        int membros = Integer.parseInt(opcoes.getOrDefault("membros", String.valueOf(membrosPadrao(projetos))));
+        int lote = Integer.parseInt(opcoes.getOrDefault("lote", "1000"));
+        long semente = Long.parseLong(opcoes.getOrDefault("semente", String.valueOf(SEMENTE_PADRAO)));
+
+        try (Connection conexao = DriverManager.getConnection(url,
+                opcoes.getOrDefault("usuario", "sa"), opcoes.getOrDefault("senha", ""))) {
+            Resumo resumo = new GeradorPortfolio(conexao, new ClassificadorRisco(ClassificadorRisco.REGRAS_PADRAO), lote, semente)
+                    .gerar(membros, projetos);
+            System.out.println(resumo.linha());
+        }
+    }
+
+    //com ~62% dos projetos ativos e 5,5 membros em média, 2 membros por projeto deixam folga no limite de 3 ativos
+    static int membrosPadrao(int projetos) {
+        return Math.max(100, projetos * 2);
+    }
+
+    public Resumo gerar(int quantidadeMembros, int quantidadeProjetos) throws SQLException {
+        long inicio = System.nanoTime();
+        boolean autoCommit = conexao.getAutoCommit();
+        conexao.setAutoCommit(false);
+        try {
+            long primeiroMembro = maiorId("tb_membros") + 1;
+            long primeiroProjeto = maiorId("tb_projetos") + 1;
+
+            inserirMembros(primeiroMembro, quantidadeMembros);
+            Map<StatusProjetoEnum, Integer> porStatus = new EnumMap<>(StatusProjetoEnum.class);
+            long alocacoes = inserirProjetos(primeiroProjeto, quantidadeProjetos, porStatus);
+
+            ajustarSequencia("tb_membros_seq", primeiroMembro + quantidadeMembros - 1);
+            ajustarSequencia("tb_projetos_seq", primeiroProjeto + quantidadeProjetos - 1);
+            conexao.commit();
+
+            return new Resumo(quantidadeMembros, funcionarios.length, quantidadeProjetos, alocacoes, porStatus,
+                    Duration.ofNanos(System.nanoTime() - inicio));
+        } catch (SQLException | RuntimeException e) {
+            conexao.rollback();
+            throw e;
+        } finally {
+            conexao.setAutoCommit(autoCommit);
+        }
+    }
+
+    //85% FUNCIONARIO, 10% TERCERIZADO, 5% ACIONISTA; 2% inativos (removidos da fonte externa)
+    private void inserirMembros(long primeiroId, int quantidade) throws SQLException {
+        long[] ids = new long[quantidade];
+        int quantidadeFuncionarios = 0;
+
+        try (PreparedStatement insert = conexao.prepareStatement(INSERT_MEMBRO)) {
+            for (int i = 0; i < quantidade; i++) {
+                long id = primeiroId + i;
+                int sorteio = random.nextInt(100);
+                AtribuicaoEnum atribuicao = sorteio < 85 ? AtribuicaoEnum.FUNCIONARIO
+                        : sorteio < 95 ? AtribuicaoEnum.TERCERIZADO : AtribuicaoEnum.ACIONISTA;
+                boolean ativo = random.nextInt(100) >= 2;
+                //um terço veio da fonte externa
+                boolean externo = random.nextInt(3) == 0;
+
+                insert.setLong(1, id);
+                insert.setString(2, "Membro " + id);
+                insert.setString(3, atribuicao.name());
+                insert.setString(4, externo ? "ext-" + id : null);
+                insert.setString(5, null);
+                insert.setBoolean(6, ativo);
+                insert.addBatch();
+                if ((i + 1) % tamanhoLote == 0) {
+                    insert.executeBatch();
+                    conexao.commit();
+                }
+
+                if (ativo && atribuicao == AtribuicaoEnum.FUNCIONARIO) {
+                    ids[quantidadeFuncionarios++] = id;
+                }
+            }
+            insert.executeBatch();
+            conexao.commit();
+        }
+
+        funcionarios = Arrays.copyOf(ids, quantidadeFuncionarios);
+        projetosAtivos = new byte[quantidadeFuncionarios];
+        disponiveis = new int[quantidadeFuncionarios];
+        posicaoDisponivel = new int[quantidadeFuncionarios];
+        for (int i = 0; i < quantidadeFuncionarios; i++) {
+            disponiveis[i] = i;
+            posicaoDisponivel[i] = i;
+        }
+        livres = quantidadeFuncionarios;
+        if (livres == 0) {
+            throw new IllegalStateException("Nenhum membro FUNCIONARIO ativo gerado; aumente membros");
+        }
+    }
+
+    private long inserirProjetos(long primeiroId, int quantidade, Map<StatusProjetoEnum, Integer> porStatus)
+            throws SQLException {
+        OffsetDateTime agora = OffsetDateTime.now(ZoneOffset.UTC);
+        long alocacoes = 0;
+        long[] equipe = new long[MAXIMO_MEMBROS_POR_PROJETO];
+
+        try (PreparedStatement insertProjeto = conexao.prepareStatement(INSERT_PROJETO);
+             PreparedStatement insertAlocacao = conexao.prepareStatement(INSERT_ALOCACAO)) {
+            for (int i = 0; i < quantidade; i++) {
+                long id = primeiroId + i;
+                StatusProjetoEnum status = sorteioStatus[random.nextInt(sorteioStatus.length)];
+                porStatus.merge(status, 1, Integer::sum);
+
+                LocalDate inicio = dataInicio(status);
+                LocalDate previsaoFim = inicio.plusMonths(1 + random.nextInt(12)).plusDays(random.nextInt(28));
+                LocalDate dataFim = dataFim(status, inicio, previsaoFim);
+                BigDecimal orcamento = orcamento();
+                ClassificacaoRiscoEnum risco = classificadorRisco.classificar(orcamento, inicio, previsaoFim);
+                int tamanhoEquipe = montarEquipe(equipe, !status.isStatusFinalizado());
+
+                insertProjeto.setLong(1, id);
+                insertProjeto.setString(2, "Projeto " + id);
+                insertProjeto.setObject(3, inicio);
+                insertProjeto.setObject(4, previsaoFim);
+                if (dataFim == null) {
+                    insertProjeto.setNull(5, Types.DATE);
+                } else {
+                    insertProjeto.setObject(5, dataFim);
+                }
+                insertProjeto.setBigDecimal(6, orcamento);
+                insertProjeto.setString(7, "Projeto sintético " + id);
+                insertProjeto.setLong(8, equipe[0]);
+                insertProjeto.setInt(9, status.ordinal());
+                insertProjeto.setString(10, risco.name());
+                insertProjeto.setObject(11, agora);
+                insertProjeto.addBatch();
+
+                for (int m = 0; m < tamanhoEquipe; m++) {
+                    insertAlocacao.setLong(1, id);
+                    insertAlocacao.setLong(2, equipe[m]);
+                    insertAlocacao.addBatch();
+                }
+                alocacoes += tamanhoEquipe;
+
+                //projetos antes das alocações: a chave estrangeira precisa do projeto gravado
+                if ((i + 1) % tamanhoLote == 0) {
+                    insertProjeto.executeBatch();
+                    insertAlocacao.executeBatch();
+                    conexao.commit();
+                }
+            }
+            insertProjeto.executeBatch();
+            insertAlocacao.executeBatch();
+            conexao.commit();
+        }
+        return alocacoes;
+    }
+
+    /**
+     * Sorteia de 1 a 10 membros distintos (média 5,5) e devolve quantos entraram; o primeiro é o gerente.
+     * Projetos ativos só recebem quem ainda tem menos de 3 projetos ativos, e cada alocação conta para o membro.
+     */
+    private int montarEquipe(long[] equipe, boolean ativo) {
+        int desejado = 1 + (random.nextInt(MAXIMO_MEMBROS_POR_PROJETO) + random.nextInt(MAXIMO_MEMBROS_POR_PROJETO)) / 2;
+        int[] escolhidos = new int[desejado];
+        int tamanho = 0;
+
+        //poucas tentativas por vaga: com a equipe pequena, repetição é rara
+        for (int tentativa = 0; tamanho < desejado && tentativa < desejado * 4; tentativa++) {
+            int limite = ativo ? livres : funcionarios.length;
+            if (limite == 0) {
+                break;
+            }
+            int indice = ativo ? disponiveis[random.nextInt(limite)] : random.nextInt(limite);
+            if (contem(escolhidos, tamanho, indice)) {
+                continue;
+            }
+            escolhidos[tamanho++] = indice;
+        }
+        if (tamanho == 0) {
+            throw new IllegalStateException("Todos os membros FUNCIONARIO já estão em " + MAXIMO_PROJETOS_ATIVOS_POR_MEMBRO
+                    + " projetos ativos; aumente membros");
+        }
+
+        for (int m = 0; m < tamanho; m++) {
+            equipe[m] = funcionarios[escolhidos[m]];
+            if (ativo) {
+                alocarEmProjetoAtivo(escolhidos[m]);
+            }
+        }
+        return tamanho;
+    }
+
+    //ao chegar a 3 projetos ativos o membro sai dos disponíveis (troca com o último livre)
+    private void alocarEmProjetoAtivo(int indice) {
+        if (++projetosAtivos[indice] < MAXIMO_PROJETOS_ATIVOS_POR_MEMBRO) {
+            return;
+        }
+        int posicao = posicaoDisponivel[indice];
+        int ultimo = disponiveis[--livres];
+        disponiveis[posicao] = ultimo;
+        posicaoDisponivel[ultimo] = posicao;
+    }
+
+    private static boolean contem(int[] valores, int tamanho, int valor) {
+        for (int i = 0; i < tamanho; i++) {
+            if (valores[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //projetos em análise começam perto da data de referência; encerrados e cancelados, até 5 anos antes
+    private LocalDate dataInicio(StatusProjetoEnum status) {
+        int diasAtras = switch (status) {
+            case EM_ANALISE, ANALISE_REALIZADA, ANALISE_APROVADA -> random.nextInt(90);
+            case INICIADO, PLANEJADO -> 30 + random.nextInt(150);
+            case EM_ANDAMENTO -> 60 + random.nextInt(400);
+            case ENCERRADO, CANCELADO -> 180 + random.nextInt(1650);
+        };
+        return REFERENCIA.minusDays(diasAtras);
+    }
+
+    private LocalDate dataFim(StatusProjetoEnum status, LocalDate inicio, LocalDate previsaoFim) {
+        if (status == StatusProjetoEnum.ENCERRADO) {
+            //metade atrasa até 2 meses, o resto termina até 2 semanas antes do previsto
+            LocalDate fim = random.nextBoolean() ? previsaoFim.plusDays(random.nextInt(60)) : previsaoFim.minusDays(random.nextInt(14));
+            return fim.isBefore(inicio) ? previsaoFim : fim;
+        }
+        if (status == StatusProjetoEnum.CANCELADO) {
+            long dias = Math.max(1, previsaoFim.toEpochDay() - inicio.toEpochDay());
+            return inicio.plusDays(random.nextLong(dias));
+        }
+        return null;
+    }
+
+    //de R$ 10 mil a R$ 1 milhão, concentrado nos menores (mediana perto de R$ 32 mil)
+    private BigDecimal orcamento() {
+        double u = random.nextDouble();
+        long centavos = (long) (1_000_000L * Math.pow(100, u * u));
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    private long maiorId(String tabela) throws SQLException {
+        try (Statement consulta = conexao.createStatement();
+             ResultSet resultado = consulta.executeQuery("select coalesce(max(id), 0) from " + tabela)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    //o otimizador pooled usa os ids (valor - alocação + 1) até valor: o próximo valor precisa passar do maior id + alocação
+    private void ajustarSequencia(String sequencia, long maiorId) throws SQLException {
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("alter sequence " + sequencia + " restart with " + (maiorId + TAMANHO_ALOCACAO + 1));
+        }
+    }
+
+    /**
+     * Ids FUNCIONARIO ativos com menos de 3 projetos ativos, dos mais recentes para os mais antigos:
+     * membros que ainda podem ser alocados pela API sem esbarrar nas regras.
+     */
+    static List<Long> funcionariosAlocaveis(Connection conexao, int limite) throws SQLException {
+        String sql = "select m.id from tb_membros m where m.atribuicao_enum = 'FUNCIONARIO' and m.ativo = true "
+                + "and (select count(*) from projeto_membros pm join tb_projetos p on p.id = pm.projeto_id "
+                + "where pm.membro_id = m.id and p.status not in (?, ?)) < ? order by m.id desc limit ?";
+        List<Long> ids = new ArrayList<>(limite);
+        try (PreparedStatement consulta = conexao.prepareStatement(sql)) {
+            consulta.setInt(1, StatusProjetoEnum.ENCERRADO.ordinal());
+            consulta.setInt(2, StatusProjetoEnum.CANCELADO.ordinal());
+            consulta.setInt(3, MAXIMO_PROJETOS_ATIVOS_POR_MEMBRO);
+            consulta.setInt(4, limite);
+            try (ResultSet resultado = consulta.executeQuery()) {
+                while (resultado.next()) {
+                    ids.add(resultado.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    //menor e maior id de projeto: a carga sorteia ids nesse intervalo
+    static long[] intervaloProjetos(Connection conexao) throws SQLException {
+        try (Statement consulta = conexao.createStatement();
+             ResultSet resultado = consulta.executeQuery("select coalesce(min(id), 0), coalesce(max(id), 0) from tb_projetos")) {
+            resultado.next();
+            return new long[]{resultado.getLong(1), resultado.getLong(2)};
+        }
+    }
+
+    public record Resumo(int membros, int funcionariosAlocaveis, int projetos, long alocacoes,
+                         Map<StatusProjetoEnum, Integer> porStatus, Duration duracao) {
+
+        public String linha() {
+            double segundos = Math.max(1, duracao.toMillis()) / 1000.0;
+            return String.format("%d membros (%d FUNCIONARIO ativos), %d projetos, %d alocações em %.1f s (%.0f linhas/s)%nstatus: %s",
+                    membros, funcionariosAlocaveis, projetos, alocacoes, segundos,
+                    (membros + projetos + alocacoes) / segundos, porStatus);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.jtarcio.portfolioapi.benchmarks.carga;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latências e contagens de respostas de uma carga. Sem sincronização: quem escreve de várias
+ * threads (CargaPortfolio) sincroniza por fora; CargaHttp mantém uma instância por cliente e soma no fim.
+ * Só as respostas bem-sucedidas entram nos percentis; recusas por sobrecarga (503), regras de negócio
+ * (demais 4xx) e erros (5xx e falhas de conexão) são contados à parte.
+ */
+final class Medicoes {
+
+    private long[] latenciasNanos = new long[1024];
+    private int quantidade;
+    private long rejeitadas;
+    private long erros;
+    private long recusadas;
+
+    //status -1: a requisição nem chegou a uma resposta (conexão recusada, timeout)
+    void registrar(int status, long latenciaNanos) {
+        if (status == 503) {
+            recusadas++;
+            return;
+        }
+        if (status >= 400 && status < 500) {
+            rejeitadas++;
+            return;
+        }
+        if (status < 200 || status >= 400) {
+            erros++;
+            return;
+        }
+        if (quantidade == latenciasNanos.length) {
+            latenciasNanos = Arrays.copyOf(latenciasNanos, quantidade * 2);
+        }
+        latenciasNanos[quantidade++] = latenciaNanos;
+    }
+
+    void somar(Medicoes outras) {
+        if (quantidade + outras.quantidade > latenciasNanos.length) {
+            latenciasNanos = Arrays.copyOf(latenciasNanos, quantidade + outras.quantidade);
+        }
+        System.arraycopy(outras.latenciasNanos, 0, latenciasNanos, quantidade, outras.quantidade);
+        quantidade += outras.quantidade;
+        rejeitadas += outras.rejeitadas;
+        erros += outras.erros;
+        recusadas += outras.recusadas;
+    }
+
+    CargaHttp.Resultado resultado(String nome, Duration duracao) {
+        long[] ordenadas = Arrays.copyOf(latenciasNanos, quantidade);
+        Arrays.sort(ordenadas);
+        return new CargaHttp.Resultado(nome, quantidade, rejeitadas, erros, recusadas, duracao,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.90), percentil(ordenadas, 0.99),
+                percentil(ordenadas, 0.999), quantidade == 0 ? 0 : ordenadas[quantidade - 1]);
+    }
+
+    private static long percentil(long[] ordenadas, double fracao) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(fracao * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+}
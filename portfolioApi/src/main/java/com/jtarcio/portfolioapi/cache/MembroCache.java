@@ -0,0 +1,96 @@
+package com.jtarcio.portfolioapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jtarcio.portfolioapi.config.ConsistenciaLeitura;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cache limitado (tamanho e TTL) de membros na frente do MembroRepository.
+ * Quem lê recebe sempre uma cópia, nunca a instância guardada no cache,
+ * e a coleção de projetos (lazy) não é copiada.
+ */
+@Component
+public class MembroCache implements MeterBinder {
+
+    private final Cache<Long, Membro> cache;
+
+    public MembroCache(@Value("${portfolio.cache.membros.tamanho-maximo:10000}") long tamanhoMaximo,
+                       @Value("${portfolio.cache.membros.expiracao:10m}") Duration expiracao) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    //retorna null quando o carregador não encontra o membro (nada é guardado);
+    //carregadores leem do primário: o que entra aqui fica até a expiração e não pode vir atrasado da réplica
+    public Membro get(Long id, Function<Long, Membro> carregador) {
+        return copiar(cache.get(id, chave -> {
+            try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+                return carregador.apply(chave);
+            }
+        }));
+    }
+
+    //busca vários ids; os ausentes no cache são carregados juntos em uma única chamada
+    public Map<Long, Membro> getAll(Collection<Long> ids,
+                                    Function<Set<? extends Long>, Map<Long, Membro>> carregador) {
+        Map<Long, Membro> encontrados = cache.getAll(ids, faltantes -> {
+            try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+                return carregador.apply(faltantes);
+            }
+        });
+
+        Map<Long, Membro> copias = new LinkedHashMap<>();
+        encontrados.forEach((id, membro) -> copias.put(id, copiar(membro)));
+        return copias;
+    }
+
+    public void invalidar(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    //cache.gets (hit/miss), cache.evictions e cache.size com a tag cache=membros
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "membros");
+    }
+
+    public void invalidarTodos() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> estatisticas() {
+        CacheStats stats = cache.stats();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("tamanho", cache.estimatedSize());
+        estatisticas.put("acertos", stats.hitCount());
+        estatisticas.put("falhas", stats.missCount());
+        estatisticas.put("taxaAcerto", stats.hitRate());
+        estatisticas.put("remocoes", stats.evictionCount());
+        estatisticas.put("carregamentos", stats.loadCount());
+        return estatisticas;
+    }
+
+    private Membro copiar(Membro membro) {
+        return membro == null ? null : membro.toBuilder().projetos(null).build();
+    }
+}
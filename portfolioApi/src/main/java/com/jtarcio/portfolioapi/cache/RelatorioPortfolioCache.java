@@ -0,0 +1,148 @@
+package com.jtarcio.portfolioapi.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.service.ProjetoAlteradoEvent;
+import com.jtarcio.portfolioapi.service.ProjetoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relatório do portfólio já serializado em JSON, servido sem tocar no banco.
+ * Escritas em projetos (ProjetoAlteradoEvent, após o commit) marcam o relatório como desatualizado
+ * e disparam uma única atualização em segundo plano; enquanto ela roda, os leitores
+ * continuam recebendo o relatório anterior. Só a primeira leitura espera o cálculo.
+ * Os eventos só cobrem as escritas desta instância: passada a idade máxima, a atualização reconstrói
+ * os totais a partir do banco (escritas de outras instâncias ou feitas direto no banco).
+ */
+@Slf4j
+@Component
+public class RelatorioPortfolioCache {
+
+    private final ProjetoService projetoService;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Duration idadeMaxima;
+
+    //ReentrantLock e não synchronized: a primeira carga vai ao banco e não deve prender a thread portadora (threads virtuais)
+    private final ReentrantLock travaPrimeiraCarga = new ReentrantLock();
+    private final AtomicBoolean desatualizado = new AtomicBoolean();
+    private final AtomicBoolean atualizando = new AtomicBoolean();
+    private final AtomicBoolean releituraDoBanco = new AtomicBoolean();
+    private volatile Snapshot atual;
+
+    public RelatorioPortfolioCache(ProjetoService projetoService, ObjectMapper objectMapper,
+                                   @Qualifier("applicationTaskExecutor") Executor executor,
+                                   //idade a partir da qual o relatório é refeito a partir do banco, e não dos totais em memória
+                                   @Value("${portfolio.cache.relatorio.idade-maxima:60s}") Duration idadeMaxima) {
+        this.projetoService = projetoService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.idadeMaxima = idadeMaxima;
+    }
+
+    public byte[] obter() {
+        Snapshot snapshot = atual;
+        if (snapshot == null) {
+            return carregarPrimeiraVez().json();
+        }
+        if (snapshot.geradoEm().plus(idadeMaxima).isBefore(Instant.now())) {
+            releituraDoBanco.set(true);
+            atualizarEmSegundoPlano();
+        } else if (desatualizado.get()) {
+            atualizarEmSegundoPlano();
+        }
+        return snapshot.json();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarProjeto(ProjetoAlteradoEvent evento) {
+        desatualizado.set(true);
+        //sem leitor ainda não há o que manter quente
+        if (atual != null) {
+            atualizarEmSegundoPlano();
+        }
+    }
+
+    public boolean isDesatualizado() {
+        return desatualizado.get();
+    }
+
+    //leitores simultâneos na primeira carga esperam um único cálculo
+    private Snapshot carregarPrimeiraVez() {
+        travaPrimeiraCarga.lock();
+        try {
+            if (atual == null) {
+                desatualizado.set(false);
+                atual = gerar();
+            }
+            return atual;
+        } finally {
+            travaPrimeiraCarga.unlock();
+        }
+    }
+
+    private void atualizarEmSegundoPlano() {
+        if (!atualizando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::atualizar);
+        } catch (TaskRejectedException e) {
+            atualizando.set(false);
+            log.warn("Atualização do relatório recusada pelo executor: {}", e.getMessage());
+        }
+    }
+
+    private void atualizar() {
+        try {
+            //eventos que chegam durante o cálculo pedem mais uma volta
+            do {
+                desatualizado.set(false);
+                atual = releituraDoBanco.getAndSet(false) ? gerarDoBanco() : gerar();
+            } while (desatualizado.get());
+        } catch (RuntimeException e) {
+            desatualizado.set(true);
+            log.warn("Falha ao atualizar o relatório do portfólio; mantendo o anterior", e);
+            return;
+        } finally {
+            atualizando.set(false);
+        }
+        //evento entre o fim do laço e a liberação da trava
+        if (desatualizado.get()) {
+            atualizarEmSegundoPlano();
+        }
+    }
+
+    private Snapshot gerar() {
+        return serializar(projetoService.gerarRelatorioPortfolio());
+    }
+
+    private Snapshot gerarDoBanco() {
+        return serializar(projetoService.gerarRelatorioPortfolioDoBanco());
+    }
+
+    private Snapshot serializar(Map<String, Object> relatorio) {
+        try {
+            return new Snapshot(objectMapper.writeValueAsBytes(relatorio), Instant.now());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Snapshot(byte[] json, Instant geradoEm) {
+    }
+}
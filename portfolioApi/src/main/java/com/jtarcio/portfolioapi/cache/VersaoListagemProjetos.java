@@ -0,0 +1,58 @@
+package com.jtarcio.portfolioapi.cache;
+
+import com.jtarcio.portfolioapi.model.entity.VersaoListagem;
+import com.jtarcio.portfolioapi.repository.VersaoListagemRepository;
+import com.jtarcio.portfolioapi.service.ProjetoAlteradoEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versão das listagens de projetos (base do ETag): um contador em tb_versoes_listagem, incrementado na própria
+ * transação de cada ProjetoAlteradoEvent, logo antes do commit. Por estar no banco, vale igual em todas as
+ * instâncias e muda junto com a escrita; a leitura é uma busca pela chave numa tabela de uma linha. A linha
+ * fica travada só durante o commit, e o incremento usa a mesma conexão da escrita (nada de segunda conexão
+ * do pool por escrita).
+ */
+@Slf4j
+@Component
+public class VersaoListagemProjetos {
+
+    static final String PROJETOS = "projetos";
+
+    private final VersaoListagemRepository versaoListagemRepository;
+
+    public VersaoListagemProjetos(VersaoListagemRepository versaoListagemRepository) {
+        this.versaoListagemRepository = versaoListagemRepository;
+    }
+
+    public String atual() {
+        return String.valueOf(versaoListagemRepository.buscarVersao(PROJETOS).orElse(0L));
+    }
+
+    //a linha nasce na subida, fora das escritas: duas escritas nunca disputam a criação dela
+    @EventListener(ApplicationReadyEvent.class)
+    public void criarLinha() {
+        if (versaoListagemRepository.existsById(PROJETOS)) {
+            return;
+        }
+        try {
+            versaoListagemRepository.saveAndFlush(VersaoListagem.builder().listagem(PROJETOS).versao(0L).build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Versão das listagens já criada por outra instância");
+        }
+    }
+
+    //sem transação (fallbackExecution) o incremento roda na transação do próprio repositório
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoAlterarProjeto(ProjetoAlteradoEvent evento) {
+        if (versaoListagemRepository.incrementar(PROJETOS) == 0) {
+            //linha apagada com a aplicação no ar
+            versaoListagemRepository.saveAndFlush(VersaoListagem.builder().listagem(PROJETOS).versao(1L).build());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.jtarcio.portfolioapi.client;
+
+import com.jtarcio.portfolioapi.dto.response.PaginaMembrosExternosDTO;
+import com.jtarcio.portfolioapi.exception.ServicoExternoIndisponivelException;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cliente da fonte externa de membros.
+ * - bulkhead: no máximo N chamadas simultâneas; as demais nem saem daqui
+ * - circuit breaker: com a fonte falhando ou lenta, para de chamá-la por um tempo
+ * - última lista boa: servida direto enquanto fresca e, com a fonte degradada, até a validade em falha
+ */
+@Slf4j
+@Component
+public class MembroExternoClient {
+
+    private static final ParameterizedTypeReference<List<Membro>> LISTA_MEMBROS = new ParameterizedTypeReference<>() {
+    };
+
+    private final RestTemplate restTemplate;
+    private final String url;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration validade;
+    private final Duration validadeEmFalha;
+    private final Supplier<List<Membro>> chamadaProtegida;
+
+    private volatile UltimaLista ultimaLista;
+
+    @Autowired
+    public MembroExternoClient(RestTemplate restTemplate,
+                               @Value("${portfolio.membros-externos.url:http://localhost:8080/mock/membros}") String url,
+                               @Value("${portfolio.membros-externos.cache.validade:30s}") Duration validade,
+                               @Value("${portfolio.membros-externos.cache.validade-em-falha:30m}") Duration validadeEmFalha,
+                               @Value("${portfolio.membros-externos.circuito.taxa-falha:50}") float taxaFalha,
+                               @Value("${portfolio.membros-externos.circuito.janela:20}") int janela,
+                               @Value("${portfolio.membros-externos.circuito.espera-aberto:30s}") Duration esperaAberto,
+                               @Value("${portfolio.membros-externos.circuito.chamada-lenta:2s}") Duration chamadaLenta,
+                               @Value("${portfolio.membros-externos.bulkhead.chamadas-simultaneas:10}") int chamadasSimultaneas) {
+        this(restTemplate, url, validade, validadeEmFalha,
+                CircuitBreaker.of("membros-externos", CircuitBreakerConfig.custom()
+                        .failureRateThreshold(taxaFalha)
+                        .slowCallRateThreshold(taxaFalha)
+                        .slowCallDurationThreshold(chamadaLenta)
+                        .slidingWindowSize(janela)
+                        .minimumNumberOfCalls(Math.max(1, janela / 2))
+                        .waitDurationInOpenState(esperaAberto)
+                        .permittedNumberOfCallsInHalfOpenState(3)
+                        .recordExceptions(RestClientException.class)
+                        .build()),
+                Bulkhead.of("membros-externos", BulkheadConfig.custom()
+                        .maxConcurrentCalls(chamadasSimultaneas)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()));
+    }
+
+    public MembroExternoClient(RestTemplate restTemplate, String url, Duration validade, Duration validadeEmFalha,
+                               CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+        this.validade = validade;
+        this.validadeEmFalha = validadeEmFalha;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        //o bulkhead fica por fora: chamadas recusadas por ele não contam como falha da fonte
+        this.chamadaProtegida = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, this::chamarFonte));
+    }
+
+    public List<Membro> buscarMembros() {
+        UltimaLista anterior = ultimaLista;
+        if (anterior != null && anterior.idade().compareTo(validade) < 0) {
+            return anterior.membros();
+        }
+
+        try {
+            List<Membro> membros = chamadaProtegida.get();
+            ultimaLista = new UltimaLista(membros, Instant.now());
+            return membros;
+        } catch (CallNotPermittedException | BulkheadFullException | RestClientException e) {
+            return servirAnterior(anterior, e);
+        }
+    }
+
+    //página do feed de alterações; sem lista anterior para servir, falha da fonte interrompe a sincronização
+    public PaginaMembrosExternosDTO buscarAlteracoes(Instant alteradoDesde, String aposId, int tamanho) {
+        URI uri = UriComponentsBuilder.fromUriString(url)
+                .pathSegment("alteracoes")
+                .queryParamIfPresent("alteradoDesde", Optional.ofNullable(alteradoDesde))
+                .queryParamIfPresent("aposId", Optional.ofNullable(aposId))
+                .queryParam("tamanho", tamanho)
+                .encode()
+                .build()
+                .toUri();
+
+        try {
+            PaginaMembrosExternosDTO pagina = Bulkhead.decorateSupplier(bulkhead,
+                    CircuitBreaker.decorateSupplier(circuitBreaker,
+                            () -> restTemplate.getForObject(uri, PaginaMembrosExternosDTO.class))).get();
+            return pagina == null ? PaginaMembrosExternosDTO.builder().itens(List.of()).build() : pagina;
+        } catch (CallNotPermittedException | BulkheadFullException | RestClientException e) {
+            throw new ServicoExternoIndisponivelException(
+                    "Feed de alterações de membros indisponível, tente novamente mais tarde", e);
+        }
+    }
+
+    //estado da proteção, para diagnóstico
+    public Map<String, Object> estado() {
+        CircuitBreaker.Metrics metricas = circuitBreaker.getMetrics();
+        UltimaLista anterior = ultimaLista;
+
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("url", url);
+        estado.put("circuito", circuitBreaker.getState().name());
+        estado.put("taxaFalha", metricas.getFailureRate());
+        estado.put("taxaChamadasLentas", metricas.getSlowCallRate());
+        estado.put("chamadasRecusadasPeloCircuito", metricas.getNumberOfNotPermittedCalls());
+        estado.put("chamadasSimultaneasDisponiveis", bulkhead.getMetrics().getAvailableConcurrentCalls());
+        estado.put("ultimaListaEm", anterior == null ? null : anterior.obtidaEm().toString());
+        return estado;
+    }
+
+    private List<Membro> chamarFonte() {
+        List<Membro> membros = restTemplate.exchange(url, HttpMethod.GET, null, LISTA_MEMBROS).getBody();
+        return membros == null ? List.of() : List.copyOf(membros);
+    }
+
+    private List<Membro> servirAnterior(UltimaLista anterior, RuntimeException causa) {
+        if (anterior != null && anterior.idade().compareTo(validadeEmFalha) < 0) {
+            log.warn("Fonte externa de membros indisponível ({}); servindo a lista obtida em {}",
+                    causa.getMessage(), anterior.obtidaEm());
+            return anterior.membros();
+        }
+        throw new ServicoExternoIndisponivelException(
+                "Fonte externa de membros indisponível, tente novamente mais tarde", causa);
+    }
+
+    private record UltimaLista(List<Membro> membros, Instant obtidaEm) {
+
+        Duration idade() {
+            return Duration.between(obtidaEm, Instant.now());
+        }
+    }
+}
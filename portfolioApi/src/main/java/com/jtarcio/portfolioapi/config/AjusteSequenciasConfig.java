@@ -0,0 +1,59 @@
+package com.jtarcio.portfolioapi.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Os ids passaram de IDENTITY para sequências com alocação em blocos (pooled),
+ * o que permite inserts em lote. Em bancos que já tinham linhas, a sequência
+ * recém-criada começaria em 1; aqui ela é avançada para depois do maior id
+ * existente antes de a aplicação aceitar requisições.
+ */
+@Slf4j
+@Component
+public class AjusteSequenciasConfig implements SmartInitializingSingleton {
+
+    //mesmo allocationSize dos @SequenceGenerator de Projeto e Membro
+    private static final long TAMANHO_ALOCACAO = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public AjusteSequenciasConfig(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+
+        ajustar(dialect, "tb_projetos", "tb_projetos_seq");
+        ajustar(dialect, "tb_membros", "tb_membros_seq");
+    }
+
+    private void ajustar(Dialect dialect, String tabela, String sequencia) {
+        try {
+            Long maiorId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + tabela, Long.class);
+            Long proximo = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(sequencia), Long.class);
+
+            //o otimizador pooled usa os ids (valor - alocação + 1) até valor
+            if (proximo != null && maiorId != null && proximo <= maiorId + TAMANHO_ALOCACAO) {
+                long reinicio = maiorId + TAMANHO_ALOCACAO + 1;
+                jdbcTemplate.execute("alter sequence " + sequencia + " restart with " + reinicio);
+                log.info("Sequência {} reiniciada em {} (maior id em {}: {})", sequencia, reinicio, tabela, maiorId);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível ajustar a sequência {}: {}", sequencia, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.jtarcio.portfolioapi.config;
+
+/**
+ * Marca, na thread atual, que as leituras precisam ir ao primário mesmo em transações readOnly
+ * (RoteamentoDataSource). Usado quando a réplica pode não ter uma escrita recente: logo depois de o
+ * cliente escrever (ConsistenciaLeituraFilter) e em quem mantém estado a partir dos eventos de commit.
+ * A escolha acontece na primeira consulta da transação; sem réplica configurada não tem efeito.
+ *
+ * <pre>
+ * try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class ConsistenciaLeitura {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private ConsistenciaLeitura() {
+    }
+
+    //escopos podem ser aninhados: o fechamento devolve o estado anterior
+    public static Escopo exigirPrimario() {
+        Escopo escopo = new Escopo(PRIMARIO.get());
+        PRIMARIO.set(Boolean.TRUE);
+        return escopo;
+    }
+
+    public static boolean primarioExigido() {
+        return PRIMARIO.get() != null;
+    }
+
+    public static final class Escopo implements AutoCloseable {
+
+        private final Boolean anterior;
+
+        private Escopo(Boolean anterior) {
+            this.anterior = anterior;
+        }
+
+        @Override
+        public void close() {
+            if (anterior == null) {
+                PRIMARIO.remove();
+            } else {
+                PRIMARIO.set(anterior);
+            }
+        }
+    }
+}
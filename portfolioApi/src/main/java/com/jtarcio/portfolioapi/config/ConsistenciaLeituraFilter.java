@@ -0,0 +1,109 @@
+package com.jtarcio.portfolioapi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leitura das próprias escritas com réplica: depois de uma escrita, as leituras do mesmo cliente vão
+ * ao primário durante portfolio.datasource.replica.janela-apos-escrita (atraso aceito da réplica).
+ * O cliente é, nessa ordem, o cabeçalho X-Cliente-Id, o usuário autenticado, a sessão ou o endereço de
+ * origem (o de X-Forwarded-For atrás de proxies internos, por server.forward-headers-strategy); clientes
+ * atrás do mesmo NAT sem nenhum dos três dividem a janela. A janela vale por instância: atrás de um
+ * balanceador sem afinidade, outra instância pode responder da réplica.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(prefix = "portfolio.datasource.replica", name = "url")
+public class ConsistenciaLeituraFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String PREFIXO_API = "/api/";
+    static final String CABECALHO_CLIENTE = "X-Cliente-Id";
+    private static final Set<String> METODOS_LEITURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<String, Boolean> escritasRecentes;
+    private final LongAdder leiturasNoPrimario = new LongAdder();
+
+    public ConsistenciaLeituraFilter(@Value("${portfolio.datasource.replica.janela-apos-escrita:5s}") Duration janela,
+                                     @Value("${portfolio.datasource.replica.clientes-maximo:100000}") long clientesMaximo) {
+        if (janela.isNegative() || janela.isZero()) {
+            throw new IllegalArgumentException("portfolio.datasource.replica.janela-apos-escrita deve ser maior que zero");
+        }
+        this.escritasRecentes = Caffeine.newBuilder()
+                .maximumSize(clientesMaximo)
+                .expireAfterWrite(janela)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIXO_API);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String cliente = cliente(request);
+        if (!METODOS_LEITURA.contains(request.getMethod())) {
+            //leituras feitas pela própria escrita (validações, resposta) também vão ao primário;
+            //a janela começa depois do commit, mesmo se a requisição falhar no meio
+            try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+                filterChain.doFilter(request, response);
+            } finally {
+                escritasRecentes.put(cliente, Boolean.TRUE);
+            }
+            return;
+        }
+        if (escritasRecentes.getIfPresent(cliente) == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        leiturasNoPrimario.increment();
+        try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    public boolean escreveuRecentemente(String cliente) {
+        return escritasRecentes.getIfPresent(cliente) != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("portfolio.datasource.leituras.primario", leiturasNoPrimario, LongAdder::sum)
+                .description("Leituras de /api enviadas ao primário por virem logo depois de uma escrita do cliente")
+                .register(registry);
+    }
+
+    //um identificador forjado só manda mais leituras ao primário, nunca uma leitura à réplica antes da hora
+    static String cliente(HttpServletRequest request) {
+        String token = request.getHeader(CABECALHO_CLIENTE);
+        if (token != null && !token.isBlank()) {
+            return token;
+        }
+        String usuario = request.getRemoteUser();
+        if (usuario != null) {
+            return usuario;
+        }
+        HttpSession sessao = request.getSession(false);
+        return sessao != null ? sessao.getId() : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,87 @@
+package com.jtarcio.portfolioapi.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Métrica portfolio.http.consultas: comandos SQL por requisição de /api/**, por método e rota.
+ * Um aumento aqui sem aumento de tráfego costuma ser N+1 introduzido em alguma rota.
+ * Com orçamento (portfolio.consultas.orcamento), requisições acima do máximo são registradas no
+ * log (LOG) ou interrompidas no comando que passou do limite (ESTRITO).
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+
+    private static final String PREFIXO_API = "/api/";
+
+    public enum Modo {
+        DESLIGADO, LOG, ESTRITO
+    }
+
+    private final ContadorConsultas contadorConsultas;
+    private final MeterRegistry meterRegistry;
+    private final Modo modo;
+    private final int maximo;
+
+    public ConsultasPorRequisicaoFilter(ContadorConsultas contadorConsultas, MeterRegistry meterRegistry,
+                                        @Value("${portfolio.consultas.orcamento.modo:LOG}") Modo modo,
+                                        @Value("${portfolio.consultas.orcamento.maximo:50}") int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("portfolio.consultas.orcamento.maximo deve ser maior que zero");
+        }
+        this.contadorConsultas = contadorConsultas;
+        this.meterRegistry = meterRegistry;
+        this.modo = modo;
+        this.maximo = maximo;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIXO_API);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        contadorConsultas.iniciar(modo == Modo.ESTRITO ? maximo : ContadorConsultas.SEM_LIMITE, false);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            //exportações em streaming: conta só o despacho inicial, o restante roda em outra thread
+            int consultas = contadorConsultas.encerrar();
+            DistributionSummary.builder("portfolio.http.consultas")
+                    .description("Comandos SQL por requisição")
+                    .baseUnit("consultas")
+                    .tag("method", request.getMethod())
+                    .tag("uri", rota(request))
+                    .serviceLevelObjectives(1, 2, 5, 10, 25, 50, 100)
+                    .register(meterRegistry)
+                    .record(consultas);
+            if (modo != Modo.DESLIGADO && consultas > maximo) {
+                log.warn("{} {} executou {} comandos SQL (orçamento: {})",
+                        request.getMethod(), request.getRequestURI(), consultas, maximo);
+            }
+        }
+    }
+
+    //padrão da rota (/api/projetos/{id}), nunca a URI com ids: mantém a cardinalidade baixa
+    private static String rota(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return padrao == null ? "UNKNOWN" : padrao.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.jtarcio.portfolioapi.config;
+
+import com.jtarcio.portfolioapi.exception.OrcamentoConsultasExcedidoException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread atual, entre iniciar() e encerrar().
+ * Registrado como StatementInspector em MetricasConfig; ConsultasPorRequisicaoFilter usa a contagem
+ * para medir consultas por requisição. Um lote JDBC (batch) conta como um comando.
+ * Escopos podem ser aninhados (teste > requisição): cada comando conta em todos os abertos.
+ */
+@Component
+public class ContadorConsultas implements StatementInspector {
+
+    public static final int SEM_LIMITE = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<Escopo> ESCOPO = new ThreadLocal<>();
+
+    public void iniciar() {
+        iniciar(SEM_LIMITE, false);
+    }
+
+    //acima do limite o comando é interrompido com OrcamentoConsultasExcedidoException
+    public void iniciar(int limite, boolean guardarComandos) {
+        ESCOPO.set(new Escopo(ESCOPO.get(), limite, guardarComandos ? new ArrayList<>() : null));
+    }
+
+    //fecha o escopo mais interno e devolve quantos comandos ele contou
+    public int encerrar() {
+        Escopo escopo = ESCOPO.get();
+        if (escopo == null) {
+            return 0;
+        }
+        if (escopo.anterior == null) {
+            ESCOPO.remove();
+        } else {
+            ESCOPO.set(escopo.anterior);
+        }
+        return escopo.quantidade;
+    }
+
+    public int atual() {
+        Escopo escopo = ESCOPO.get();
+        return escopo == null ? 0 : escopo.quantidade;
+    }
+
+    //comandos do escopo mais interno (só quando aberto com guardarComandos)
+    public List<String> comandos() {
+        Escopo escopo = ESCOPO.get();
+        return escopo == null || escopo.comandos == null ? List.of() : List.copyOf(escopo.comandos);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Escopo excedido = null;
+        for (Escopo escopo = ESCOPO.get(); escopo != null; escopo = escopo.anterior) {
+            escopo.quantidade++;
+            if (escopo.comandos != null) {
+                escopo.comandos.add(sql);
+            }
+            if (excedido == null && escopo.quantidade > escopo.limite) {
+                excedido = escopo;
+            }
+        }
+        if (excedido != null) {
+            throw new OrcamentoConsultasExcedidoException(excedido.limite, sql);
+        }
+        return sql;
+    }
+
+    //confinado à thread: campos simples, sem sincronização
+    private static final class Escopo {
+
+        private final Escopo anterior;
+        private final int limite;
+        private final List<String> comandos;
+        private int quantidade;
+
+        private Escopo(Escopo anterior, int limite, List<String> comandos) {
+            this.anterior = anterior;
+            this.limite = limite;
+            this.comandos = comandos;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.jtarcio.portfolioapi.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Um único cliente HTTP com pool de conexões para as chamadas externas: conexões mantidas
+     * vivas (keep-alive) são reaproveitadas entre requisições e as ociosas são fechadas em segundo plano.
+     * O cliente é bloqueante e funciona igual com threads de plataforma ou virtuais.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(@Value("${portfolio.http.conexoes-maximas:50}") int conexoesMaximas,
+                                          @Value("${portfolio.http.conexoes-por-destino:20}") int conexoesPorDestino,
+                                          @Value("${portfolio.http.tempo-conexao:2s}") Duration tempoConexao,
+                                          @Value("${portfolio.http.keep-alive:30s}") Duration keepAlive) {
+        TimeValue keepAliveMaximo = TimeValue.of(keepAlive);
+
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(conexoesMaximas)
+                .setMaxConnPerRoute(conexoesPorDestino)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(tempoConexao))
+                        //conexão parada há mais tempo que isso é testada antes de ser reaproveitada
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                //respeita o Keep-Alive do servidor, mas nunca além do limite configurado
+                .setKeepAliveStrategy((resposta, contexto) -> {
+                    TimeValue informado = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(resposta, contexto);
+                    return TimeValue.isPositive(informado) && informado.compareTo(keepAliveMaximo) < 0
+                            ? informado
+                            : keepAliveMaximo;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMaximo)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient,
+                                     @Value("${portfolio.http.tempo-leitura:3s}") Duration tempoLeitura,
+                                     @Value("${portfolio.http.espera-conexao-pool:1s}") Duration esperaConexaoPool) {
+        HttpComponentsClientHttpRequestFactory fabrica = new HttpComponentsClientHttpRequestFactory(httpClient);
+        fabrica.setReadTimeout(tempoLeitura);
+        //pool esgotado: falha rápido em vez de enfileirar a requisição
+        fabrica.setConnectionRequestTimeout(esperaConexaoPool);
+        return builder
+                .requestFactory(() -> fabrica)
+                .build();
+    }
+}
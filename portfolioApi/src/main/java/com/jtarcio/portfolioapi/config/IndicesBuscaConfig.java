@@ -0,0 +1,85 @@
+package com.jtarcio.portfolioapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índices da busca textual no PostgreSQL, que o ddl-auto não sabe criar: GIN sobre o tsvector de nome
+ * e descrição (mesma expressão de ProjetoRepository.VETOR_BUSCA) e GIN de trigramas sobre o nome.
+ * Os índices são criados com "concurrently", sem bloquear as escritas em tb_projetos enquanto a primeira
+ * criação demora; nas subidas seguintes o "if not exists" não faz nada. Se a extensão pg_trgm não puder
+ * ser instalada, a busca segue só pelo tsvector (trigramasDisponiveis()).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "portfolio.busca.motor", havingValue = "POSTGRESQL")
+public class IndicesBuscaConfig implements SmartInitializingSingleton {
+
+    private static final String INDICE_TEXTO = "idx_projetos_busca_texto";
+    private static final String INDICE_TRIGRAMA = "idx_projetos_nome_trigrama";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean trigramasDisponiveis;
+
+    public IndicesBuscaConfig(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        executar("create extension if not exists pg_trgm");
+        trigramasDisponiveis = extensaoInstalada();
+        if (!trigramasDisponiveis) {
+            log.warn("Extensão pg_trgm indisponível: a busca textual não vai tolerar erros de digitação no nome");
+        }
+        criarIndice(INDICE_TEXTO, "create index concurrently if not exists " + INDICE_TEXTO + " on tb_projetos using gin "
+                + "(to_tsvector('simple', coalesce(nome, '') || ' ' || coalesce(descricao, '')))");
+        if (trigramasDisponiveis) {
+            criarIndice(INDICE_TRIGRAMA, "create index concurrently if not exists " + INDICE_TRIGRAMA
+                    + " on tb_projetos using gin (nome gin_trgm_ops)");
+        }
+    }
+
+    public boolean trigramasDisponiveis() {
+        return trigramasDisponiveis;
+    }
+
+    private boolean extensaoInstalada() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "select exists (select 1 from pg_extension where extname = 'pg_trgm')", Boolean.class));
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível verificar a extensão pg_trgm: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    //um "create index concurrently" interrompido deixa o índice inválido, e o "if not exists" o daria por criado
+    private void criarIndice(String nome, String comando) {
+        try {
+            Boolean invalido = jdbcTemplate.queryForObject(
+                    "select exists (select 1 from pg_index i join pg_class c on c.oid = i.indexrelid "
+                            + "where c.relname = ? and not i.indisvalid)", Boolean.class, nome);
+            if (Boolean.TRUE.equals(invalido)) {
+                jdbcTemplate.execute("drop index concurrently if exists " + nome);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível verificar o índice {}: {}", nome, e.getMessage());
+        }
+        executar(comando);
+    }
+
+    //o jdbcTemplate roda fora de transação (autocommit), como o "concurrently" exige
+    private void executar(String comando) {
+        try {
+            jdbcTemplate.execute(comando);
+        } catch (DataAccessException e) {
+            //sem o índice a busca funciona, mas varre a tabela
+            log.warn("Não foi possível preparar a busca textual ({}): {}", comando, e.getMessage());
+        }
+    }
+}
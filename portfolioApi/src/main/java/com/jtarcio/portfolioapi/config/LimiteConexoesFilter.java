@@ -0,0 +1,140 @@
+package com.jtarcio.portfolioapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.exception.ErrorResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita as requisições de /api/** em andamento a um múltiplo do pool de conexões.
+ * Com threads virtuais não há mais o limite do pool de threads do Tomcat: sem este filtro,
+ * milhares de requisições disputariam as poucas conexões do Hikari e todas esperariam até o
+ * connection-timeout. Aqui o excesso espera um pouco por uma vaga e, se não houver, recebe 503
+ * com Retry-After em vez de ocupar memória numa fila sem fim.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "portfolio.admissao", name = "habilitado", havingValue = "true")
+public class LimiteConexoesFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String PREFIXO_API = "/api/";
+
+    private final ObjectMapper objectMapper;
+    private final Semaphore vagas;
+    private final int limite;
+    private final long esperaMaximaNanos;
+    private final long retryAfterSegundos;
+    private final LongAdder recusadas = new LongAdder();
+
+    public LimiteConexoesFilter(DataSource dataSource, ObjectMapper objectMapper,
+                                @Value("${portfolio.admissao.requisicoes-por-conexao:2}") int requisicoesPorConexao,
+                                @Value("${portfolio.admissao.espera-maxima:200ms}") Duration esperaMaxima) throws SQLException {
+        if (requisicoesPorConexao <= 0) {
+            throw new IllegalArgumentException("portfolio.admissao.requisicoes-por-conexao deve ser maior que zero");
+        }
+        this.objectMapper = objectMapper;
+        int conexoes = dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                : 10;
+        this.limite = conexoes * requisicoesPorConexao;
+        this.vagas = new Semaphore(limite, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.retryAfterSegundos = Math.max(1, esperaMaxima.toSeconds());
+        log.info("Admissão limitada a {} requisições simultâneas em {}** ({} conexões x {})",
+                limite, PREFIXO_API, conexoes, requisicoesPorConexao);
+    }
+
+    //só a API toca o banco; swagger e o mock externo (chamado pela própria API) ficam de fora
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIXO_API);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean admitida;
+        try {
+            admitida = vagas.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitida = false;
+        }
+        if (!admitida) {
+            recusar(request, response);
+            return;
+        }
+        //exportações em streaming liberam a vaga quando o despacho inicial termina; o restante roda assíncrono
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEmAndamento() {
+        return limite - vagas.availablePermits();
+    }
+
+    //junto com hikaricp.connections.pending mostra se a espera está no filtro ou no pool
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("portfolio.admissao.em.andamento", this, LimiteConexoesFilter::getEmAndamento)
+                .description("Requisições de /api admitidas e ainda em andamento")
+                .register(registry);
+        Gauge.builder("portfolio.admissao.limite", this, LimiteConexoesFilter::getLimite)
+                .description("Máximo de requisições de /api simultâneas")
+                .register(registry);
+        FunctionCounter.builder("portfolio.admissao.recusadas", recusadas, LongAdder::sum)
+                .description("Requisições recusadas com 503 por falta de vaga")
+                .register(registry);
+    }
+
+    private void recusar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        recusadas.increment();
+        log.debug("Requisição recusada: {} em andamento (limite {})", getEmAndamento(), limite);
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Servidor ocupado, tente novamente em instantes")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
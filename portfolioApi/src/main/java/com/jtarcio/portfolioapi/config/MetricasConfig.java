@@ -0,0 +1,28 @@
+package com.jtarcio.portfolioapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas além das que o actuator já registra (http.server.requests, hikaricp.*, hibernate.*, jvm.*):
+ * - @Timed nos serviços (precisa do TimedAspect)
+ * - contagem de comandos SQL por requisição (ContadorConsultas + ConsultasPorRequisicaoFilter)
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    //instância do Spring, não uma criada pelo Hibernate a partir do nome da classe
+    @Bean
+    public HibernatePropertiesCustomizer contadorConsultasCustomizer(ContadorConsultas contadorConsultas) {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, contadorConsultas);
+    }
+}
@@ -0,0 +1,66 @@
+package com.jtarcio.portfolioapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica de leitura (portfolio.datasource.replica.url): dois pools Hikari, "primario" com as
+ * propriedades spring.datasource e "replica" com as de portfolio.datasource.replica, atrás de um
+ * RoteamentoDataSource. JPA, JdbcTemplate e o filtro de admissão usam o DataSource @Primary (o roteamento);
+ * o actuator publica hikaricp.* de cada pool separadamente.
+ * Sem a url, nada daqui é criado e o Spring Boot monta o pool único de sempre.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "portfolio.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties propriedades) {
+        HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    //usuário, senha e driver do primário quando não informados; conexões somente leitura
+    @Bean
+    @ConfigurationProperties("portfolio.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties propriedades,
+                                              @Value("${portfolio.datasource.replica.url}") String url,
+                                              @Value("${portfolio.datasource.replica.username:}") String usuario,
+                                              @Value("${portfolio.datasource.replica.password:}") String senha) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(url);
+        replica.setUsername(usuario.isEmpty() ? propriedades.determineUsername() : usuario);
+        replica.setPassword(senha.isEmpty() ? propriedades.determinePassword() : senha);
+        replica.setDriverClassName(propriedades.determineDriverClassName());
+        replica.setReadOnly(true);
+        replica.setPoolName("replica");
+        log.info("Transações somente leitura vão para a réplica {}", url);
+        return replica;
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(@Qualifier("primarioDataSource") DataSource primario,
+                                                     @Qualifier("replicaDataSource") DataSource replica) {
+        return new RoteamentoDataSource(primario, replica);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+}
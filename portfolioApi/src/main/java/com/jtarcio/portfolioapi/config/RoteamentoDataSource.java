@@ -0,0 +1,64 @@
+package com.jtarcio.portfolioapi.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Envia transações readOnly para a réplica e todo o resto (escritas, leituras sem transação,
+ * leituras que exigem consistência) para o primário. Precisa ficar atrás de um
+ * LazyConnectionDataSourceProxy: o gerenciador de transações pede a conexão antes de marcar a
+ * transação como readOnly, e o proxy só escolhe o destino no primeiro comando.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private final LongAdder replica = new LongAdder();
+    private final LongAdder primarioPadrao = new LongAdder();
+    private final LongAdder primarioConsistencia = new LongAdder();
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica) {
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primarioPadrao.increment();
+            return Destino.PRIMARIO;
+        }
+        if (ConsistenciaLeitura.primarioExigido()) {
+            primarioConsistencia.increment();
+            return Destino.PRIMARIO;
+        }
+        replica.increment();
+        return Destino.REPLICA;
+    }
+
+    //os pools têm as métricas hikaricp.* próprias (pool=primario e pool=replica); aqui, por que cada conexão foi para onde foi:
+    //leitura (readOnly na réplica), padrao (escrita ou sem transação) e consistencia (readOnly mandada ao primário)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registrar(registry, replica, Destino.REPLICA, "leitura");
+        registrar(registry, primarioPadrao, Destino.PRIMARIO, "padrao");
+        registrar(registry, primarioConsistencia, Destino.PRIMARIO, "consistencia");
+    }
+
+    private static void registrar(MeterRegistry registry, LongAdder contador, Destino destino, String motivo) {
+        FunctionCounter.builder("portfolio.datasource.roteamento", contador, LongAdder::sum)
+                .description("Conexões obtidas por destino e motivo")
+                .tag("destino", destino.name().toLowerCase())
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+}
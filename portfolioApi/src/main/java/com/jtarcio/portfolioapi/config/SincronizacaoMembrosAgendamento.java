@@ -0,0 +1,49 @@
+package com.jtarcio.portfolioapi.config;
+
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.service.SincronizacaoMembrosService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Execuções agendadas da sincronização de membros: incremental a cada intervalo e
+ * uma completa por dia (a que encontra membros removidos da fonte sem aviso).
+ * Falhas só são registradas; a marca d'água garante que a próxima execução continue do ponto certo.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "portfolio.membros-externos.sincronizacao", name = "habilitada", havingValue = "true")
+public class SincronizacaoMembrosAgendamento {
+
+    private final SincronizacaoMembrosService sincronizacaoMembrosService;
+
+    public SincronizacaoMembrosAgendamento(SincronizacaoMembrosService sincronizacaoMembrosService) {
+        this.sincronizacaoMembrosService = sincronizacaoMembrosService;
+    }
+
+    @Scheduled(initialDelayString = "${portfolio.membros-externos.sincronizacao.atraso-inicial:PT1M}",
+            fixedDelayString = "${portfolio.membros-externos.sincronizacao.intervalo:PT5M}")
+    public void sincronizarAlteracoes() {
+        executar(false);
+    }
+
+    @Scheduled(cron = "${portfolio.membros-externos.sincronizacao.cron-completa:0 30 3 * * *}")
+    public void sincronizarCompleta() {
+        executar(true);
+    }
+
+    private void executar(boolean completa) {
+        try {
+            sincronizacaoMembrosService.sincronizar(completa);
+        } catch (PortfolioException e) {
+            //fonte indisponível ou outra execução em andamento
+            log.warn("Sincronização de membros {} não executada: {}", completa ? "completa" : "incremental", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Falha na sincronização de membros", e);
+        }
+    }
+}
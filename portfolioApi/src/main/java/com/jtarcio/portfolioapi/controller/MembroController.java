@@ -2,9 +2,11 @@ package com.jtarcio.portfolioapi.controller;
 
 import com.jtarcio.portfolioapi.dto.request.MembroRequestDTO;
 import com.jtarcio.portfolioapi.dto.response.MembroResponseDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoSincronizacaoDTO;
 import com.jtarcio.portfolioapi.mapper.MembroMapper;
 import com.jtarcio.portfolioapi.model.entity.Membro;
 import com.jtarcio.portfolioapi.service.MembroService;
+import com.jtarcio.portfolioapi.service.SincronizacaoMembrosService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -16,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/membros")
@@ -25,6 +28,7 @@ public class MembroController {
 
     private final MembroService membroService;
     private final MembroMapper membroMapper;
+    private final SincronizacaoMembrosService sincronizacaoMembrosService;
 
     /*
      * LISTAR TODOS OS MEMBROS
@@ -95,6 +99,8 @@ public class MembroController {
     })
     public ResponseEntity<MembroResponseDTO> alterar(@PathVariable Long id, @Valid @RequestBody MembroRequestDTO membroDto) {
 
+        //lê do banco, não de uma cópia em cache possivelmente desatualizada
+        membroService.invalidarCache(id);
         Membro membroJaExistente = membroService.findById(id);
         membroJaExistente.setNome(membroDto.getNome());
         membroJaExistente.setAtribuicaoEnum(membroDto.getAtribuicaoEnum());
@@ -105,6 +111,15 @@ public class MembroController {
         return ResponseEntity.ok(response);
     } //ok ok
 
+    /*
+    ESTATISTICAS DO CACHE DE MEMBROS
+     */
+    @GetMapping("/cache/estatisticas")
+    @Operation(summary = "Estatísticas do cache de membros", description = "acertos, falhas, remoções e tamanho atual")
+    public ResponseEntity<Map<String, Object>> estatisticasCache() {
+        return ResponseEntity.ok(membroService.estatisticasCache());
+    }
+
     /*
     LISTA MEMBROS MOCK
      */
@@ -115,4 +130,27 @@ public class MembroController {
         return ResponseEntity.ok(membros);
     }
 
+    /*
+    ESTADO DA FONTE EXTERNA DE MEMBROS
+     */
+    @GetMapping("/mock/estado")
+    @Operation(summary = "Estado da fonte externa de membros", description = "circuito, taxa de falha, vagas do bulkhead e idade da última lista")
+    public ResponseEntity<Map<String, Object>> estadoFonteExterna() {
+        return ResponseEntity.ok(membroService.estadoFonteExterna());
+    }
+
+    /*
+    SINCRONIZAR MEMBROS COM A FONTE EXTERNA
+     */
+    @PostMapping("/sincronizar")
+    @Operation(summary = "Sincronizar membros com a fonte externa",
+            description = "incremental a partir da marca d'água; completa=true relê a fonte inteira e desativa os membros removidos dela")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sincronização concluída"),
+            @ApiResponse(responseCode = "400", description = "Sincronização já em andamento"),
+            @ApiResponse(responseCode = "503", description = "Fonte externa indisponível")
+    })
+    public ResponseEntity<ResultadoSincronizacaoDTO> sincronizar(@RequestParam(defaultValue = "false") boolean completa) {
+        return ResponseEntity.ok(sincronizacaoMembrosService.sincronizar(completa));
+    }
 }
@@ -1,26 +1,56 @@
 package com.jtarcio.portfolioapi.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jtarcio.portfolioapi.cache.RelatorioPortfolioCache;
+import com.jtarcio.portfolioapi.cache.VersaoListagemProjetos;
+import com.jtarcio.portfolioapi.dto.request.FiltroProjetoDTO;
 import com.jtarcio.portfolioapi.dto.request.ProjetoRequestDTO;
+import com.jtarcio.portfolioapi.dto.request.RegrasRiscoRequestDTO;
+import com.jtarcio.portfolioapi.dto.request.StatusLoteRequestDTO;
+import com.jtarcio.portfolioapi.dto.response.PaginaCursorResponseDTO;
 import com.jtarcio.portfolioapi.dto.response.ProjetoResponseDTO;
+import com.jtarcio.portfolioapi.dto.response.RegrasRiscoResponseDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoImportacaoDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoStatusLoteDTO;
 import com.jtarcio.portfolioapi.mapper.ProjetoMapper;
 import com.jtarcio.portfolioapi.model.entity.Projeto;
 import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.projection.VersaoProjetoProjection;
+import com.jtarcio.portfolioapi.service.ClassificadorRisco.RegrasRisco;
+import com.jtarcio.portfolioapi.service.FiltrosProjeto;
+import com.jtarcio.portfolioapi.service.ImportacaoProjetoService;
 import com.jtarcio.portfolioapi.service.ProjetoService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/projetos")
@@ -28,30 +58,114 @@ import java.util.Map;
 @AllArgsConstructor
 public class ProjetoController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     private final ProjetoService projetoService;
+    private final ImportacaoProjetoService importacaoProjetoService;
+    private final RelatorioPortfolioCache relatorioPortfolioCache;
+    private final VersaoListagemProjetos versaoListagem;
     private final ProjetoMapper projetoMapper;
+    private final ObjectMapper objectMapper;
 
 
     /*
     LISTAR TOOS OS PROJETOS PAGINADOS
      */
     @GetMapping
-    @Operation(summary = "Listar projetos com paginação")
+    @Operation(summary = "Listar projetos com paginação",
+            description = "Filtros opcionais combináveis (status, gerenteId, membroId, dataInicioDe/Ate em yyyy-MM-dd, "
+                    + "orcamentoMin/Max, risco) e ordenação por vários campos (ex.: sort=-dataInicio,nome). "
+                    + "Sem gerenteId ou membroId, a primeira ordenação precisa ter índice com os filtros")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
+            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Lista não mudou desde o ETag informado"),
+            @ApiResponse(responseCode = "400", description = "Faixa inválida ou ordenação sem índice para os filtros")
     })
     public ResponseEntity<Page<ProjetoResponseDTO>> listarTodos(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Projeto> projetos = projetoService.findAll(pageable);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) List<String> sort,
+            @ParameterObject FiltroProjetoDTO filtro,
+            WebRequest webRequest) {
+
+        //combinação sem índice é recusada antes de qualquer consulta
+        Sort ordenacao = FiltrosProjeto.ordenacaoAceita(filtro, FiltrosProjeto.ordenacao(sort));
+
+        //If-None-Match: o 304 sai só com a versão das listagens (uma linha), antes de carregar a página
+        String etag = ProjetoEtag.lista(versaoListagem.atual(), page, size, ordenacao, filtro);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        Pageable pageable = PageRequest.of(page, size, ordenacao);
+        Page<Projeto> projetos = projetoService.findAll(pageable, filtro);
         Page<ProjetoResponseDTO> response = projetos.map(projetoMapper::toResponseDTO);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
     } //ok
 
 
+    /*
+    LISTAR PROJETOS POR CURSOR (SEM CONTAGEM TOTAL)
+     */
+    @GetMapping(params = "after")
+    @Operation(summary = "Listar projetos com paginação por cursor",
+            description = "Envie after vazio para a primeira página e depois o proximoCursor recebido. "
+                    + "Ordem fixa por id, sem filtros, sort nem page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido, size fora de 1 a 100 ou filtros, sort e page junto do after")
+    })
+    public ResponseEntity<PaginaCursorResponseDTO<ProjetoResponseDTO>> listarPorCursor(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) List<String> sort,
+            @RequestParam(required = false) Integer page,
+            @ParameterObject FiltroProjetoDTO filtro) {
+
+        //recebidos só para recusar: o cursor não filtra nem ordena
+        FiltrosProjeto.validarCursor(filtro, sort, page);
+        Long ultimoId = PaginaCursorResponseDTO.decodificarCursor(after);
+        Slice<Projeto> projetos = projetoService.findAllApos(ultimoId, size);
+        List<ProjetoResponseDTO> conteudo = projetoMapper.toResponseDTOList(projetos.getContent());
+
+        String proximoCursor = null;
+        if (projetos.hasNext()) {
+            Long ultimoDaPagina = projetos.getContent().get(projetos.getNumberOfElements() - 1).getId();
+            proximoCursor = PaginaCursorResponseDTO.codificarCursor(ultimoDaPagina);
+        }
+
+        PaginaCursorResponseDTO<ProjetoResponseDTO> response = PaginaCursorResponseDTO.<ProjetoResponseDTO>builder()
+                .conteudo(conteudo)
+                .tamanho(size)
+                .temProxima(projetos.hasNext())
+                .proximoCursor(proximoCursor)
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+
+    /*
+    BUSCAR PROJETOS POR NOME E DESCRIÇÃO
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Buscar projetos por nome e descrição",
+            description = "Resultados por relevância; a última palavra também vale como prefixo (autocompletar) e pequenos erros de digitação são tolerados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de resultados"),
+            @ApiResponse(responseCode = "400", description = "Texto vazio ou longo demais, ou página além dos resultados mais relevantes")
+    })
+    public ResponseEntity<Page<ProjetoResponseDTO>> buscar(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Page<Projeto> projetos = projetoService.buscar(q, PageRequest.of(page, size));
+        return ResponseEntity.ok(projetos.map(projetoMapper::toResponseDTO));
+    }
+
+
     /*
     LISTA TODOS OS PROJETOS SEM PAGINAÇÃO
      */
@@ -64,6 +178,57 @@ public class ProjetoController {
     } //ok
 
 
+    /*
+    EXPORTA TODOS OS PROJETOS EM NDJSON (UM PROJETO POR LINHA, SEM MONTAR A LISTA NA MEMÓRIA)
+     */
+    @GetMapping(value = "/all", produces = MEDIA_TYPE_NDJSON)
+    @Operation(summary = "Exportar todos os projetos em NDJSON (streaming)")
+    public ResponseEntity<StreamingResponseBody> exportarNdjson() {
+        StreamingResponseBody corpo = saida -> exportar(saida, false);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON)).body(corpo);
+    }
+
+
+    /*
+    EXPORTA TODOS OS PROJETOS COMO ARRAY JSON ESCRITO AOS POUCOS
+     */
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Exportar todos os projetos como array JSON (streaming)")
+    public ResponseEntity<StreamingResponseBody> exportarJson() {
+        StreamingResponseBody corpo = saida -> exportar(saida, true);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corpo);
+    }
+
+    private void exportar(OutputStream saida, boolean comoArray) throws IOException {
+        ObjectWriter escritor = objectMapper.writerFor(ProjetoResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            gerador.setRootValueSeparator(null);
+            if (comoArray) {
+                gerador.writeStartArray();
+            }
+
+            projetoService.exportarTodos(projeto -> {
+                try {
+                    escritor.writeValue(gerador, projetoMapper.toResponseDTO(projeto));
+                    if (!comoArray) {
+                        gerador.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (comoArray) {
+                gerador.writeEndArray();
+            }
+            gerador.flush();
+        }
+    }
+
+
     /*
     BUSCAR PROJETO POR ID
      */
@@ -71,14 +236,31 @@ public class ProjetoController {
     @Operation(summary = "Buscar projeto por ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Projeto encontrado"),
+            @ApiResponse(responseCode = "304", description = "Projeto não mudou desde o ETag informado"),
             @ApiResponse(responseCode = "404", description = "Projeto não encontrado")
     })
-    public ResponseEntity<ProjetoResponseDTO> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<ProjetoResponseDTO> buscarPorId(@PathVariable Long id, WebRequest webRequest) {
+        //GET condicional: compara só a versão, sem carregar nem mapear o projeto
+        Optional<VersaoProjetoProjection> versao = projetoService.buscarVersao(id);
+        if (versao.isPresent() && webRequest.checkNotModified(
+                ProjetoEtag.detalhe(id, versao.get().getVersao()),
+                ProjetoEtag.ultimaAlteracao(versao.get().getAtualizadoEm()))) {
+            return null;
+        }
+
         Projeto projeto = projetoService.findById(id);
         ProjetoResponseDTO response = projetoMapper.toResponseDTO(projeto);
-        return ResponseEntity.ok(response);
+        return comVersao(ResponseEntity.ok(), projeto).body(response);
     } //ok
 
+    private ResponseEntity.BodyBuilder comVersao(ResponseEntity.BodyBuilder resposta, Projeto projeto) {
+        resposta.eTag(ProjetoEtag.detalhe(projeto.getId(), projeto.getVersao()));
+        if (projeto.getAtualizadoEm() != null) {
+            resposta.lastModified(projeto.getAtualizadoEm());
+        }
+        return resposta;
+    }
+
 
     /*
     CRIAR NOVO PROJETO
@@ -98,6 +280,22 @@ public class ProjetoController {
     } //ok
 
 
+    /*
+    IMPORTAR PROJETOS EM LOTE (ARRAY JSON LIDO EM STREAMING)
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar projetos em lote",
+            description = "Recebe um array de projetos; cada item é validado e gravado de forma independente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação processada; veja o resultado de cada item"),
+            @ApiResponse(responseCode = "400", description = "Corpo não é um array JSON")
+    })
+    public ResponseEntity<ResultadoImportacaoDTO> importar(InputStream corpo) {
+        ResultadoImportacaoDTO resultado = importacaoProjetoService.importar(corpo);
+        return ResponseEntity.ok(resultado);
+    }
+
+
     /*
     ATUALIZAR PROJETO
      */
@@ -106,15 +304,20 @@ public class ProjetoController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Projeto atualizado com sucesso"),
             @ApiResponse(responseCode = "404", description = "Projeto não encontrado"),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos")
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "409", description = "Projeto alterado por outra operação durante a atualização"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
     })
-    public ResponseEntity<ProjetoResponseDTO> atualizar(@PathVariable Long id, @Valid @RequestBody ProjetoRequestDTO projetoRequestDTO) {
+    public ResponseEntity<ProjetoResponseDTO> atualizar(@PathVariable Long id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @Valid @RequestBody ProjetoRequestDTO projetoRequestDTO) {
 
+        Long versaoEsperada = ProjetoEtag.versaoEsperada(id, ifMatch);
         Projeto projetoExistente = projetoMapper.toEntity(projetoRequestDTO);
-        Projeto projetoAtualizado = projetoService.update(id, projetoExistente);
+        Projeto projetoAtualizado = projetoService.update(id, projetoExistente, versaoEsperada);
         ProjetoResponseDTO response = projetoMapper.toResponseDTO(projetoAtualizado);
 
-        return ResponseEntity.ok(response);
+        return comVersao(ResponseEntity.ok(), projetoAtualizado).body(response);
     } //ok
 
     /*
@@ -151,6 +354,23 @@ public class ProjetoController {
     } //ok
 
 
+    /*
+    ALTERAR STATUS DE VARIOS PROJETOS DE UMA VEZ
+     */
+    @PatchMapping("/status")
+    @Operation(summary = "Alterar status em lote",
+            description = "Por lista de ids e/ou por status atual; projetos que não puderem mudar voltam em rejeitados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transições aplicadas; veja os rejeitados"),
+            @ApiResponse(responseCode = "400", description = "Filtro ausente ou transição inválida para o status atual")
+    })
+    public ResponseEntity<ResultadoStatusLoteDTO> alterarStatusEmLote(@Valid @RequestBody StatusLoteRequestDTO requestDTO) {
+        ResultadoStatusLoteDTO resultado = projetoService.alterarStatusEmLote(
+                requestDTO.getIds(), requestDTO.getStatusAtual(), requestDTO.getNovoStatus());
+        return ResponseEntity.ok(resultado);
+    }
+
+
     /*
     AVANÇAR PARA O PROXIMO STATUS
      */
@@ -209,11 +429,65 @@ public class ProjetoController {
     @GetMapping("/relatorio")
     @Operation(summary = "Relatório do portfólio")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso")
+            @ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(type = "object")))
     })
-    public ResponseEntity<Map<String, Object>> gerarRelatorio() {
-        Map<String, Object> relatorio = projetoService.gerarRelatorioPortfolio();
-        return ResponseEntity.ok(relatorio);
+    public ResponseEntity<byte[]> gerarRelatorio() {
+        //JSON já serializado; pode estar alguns instantes atrás da última escrita enquanto é atualizado
+        byte[] relatorio = relatorioPortfolioCache.obter();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(relatorio);
     } //ok
+
+
+    /*
+    REGRAS DE CLASSIFICACAO DE RISCO
+     */
+    @GetMapping("/risco/regras")
+    @Operation(summary = "Limites atuais da classificação de risco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limites retornados com sucesso")
+    })
+    public ResponseEntity<RegrasRiscoResponseDTO> buscarRegrasRisco() {
+        return ResponseEntity.ok(toRegrasResponse(projetoService.regrasRisco(), null));
+    }
+
+    @PutMapping("/risco/regras")
+    @Operation(summary = "Alterar limites da classificação de risco",
+            description = "Troca os limites desta instância e reclassifica todos os projetos com eles")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limites alterados e portfólio reclassificado"),
+            @ApiResponse(responseCode = "400", description = "Limites inválidos")
+    })
+    public ResponseEntity<RegrasRiscoResponseDTO> alterarRegrasRisco(@Valid @RequestBody RegrasRiscoRequestDTO requestDTO) {
+        RegrasRisco regras = new RegrasRisco(requestDTO.getOrcamentoBaixo(), requestDTO.getOrcamentoAlto(),
+                requestDTO.getMesesBaixo(), requestDTO.getMesesAlto());
+        int reclassificados = projetoService.alterarRegrasRisco(regras);
+        return ResponseEntity.ok(toRegrasResponse(projetoService.regrasRisco(), reclassificados));
+    }
+
+    private static RegrasRiscoResponseDTO toRegrasResponse(RegrasRisco regras, Integer reclassificados) {
+        return RegrasRiscoResponseDTO.builder()
+                .orcamentoBaixo(regras.orcamentoBaixo())
+                .orcamentoAlto(regras.orcamentoAlto())
+                .mesesBaixo(regras.mesesBaixo())
+                .mesesAlto(regras.mesesAlto())
+                .projetosReclassificados(reclassificados)
+                .build();
+    }
+
+
+    /*
+    RECONSTRUIR TOTAIS DO RELATORIO
+     */
+    @PostMapping("/relatorio/reconstruir")
+    @Operation(summary = "Reconstruir totais do relatório a partir do banco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Totais reconstruídos com sucesso")
+    })
+    public ResponseEntity<Void> reconstruirRelatorio() {
+        projetoService.reconstruirRelatorioPortfolio();
+        return ResponseEntity.noContent().build();
+    }
 }
 //ok finalizado e conferido todos
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.jtarcio.portfolioapi.controller;
+
+import com.jtarcio.portfolioapi.exception.VersaoDesatualizadaException;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+//ETags fortes dos recursos de projeto
+final class ProjetoEtag {
+
+    private ProjetoEtag() {
+    }
+
+    //detalhe: muda a cada nova versão do projeto
+    static String detalhe(Long id, Long versao) {
+        return "\"" + id + "-" + versao + "\"";
+    }
+
+    //listagem: resumo das versões no banco mais os parâmetros da requisição
+    static String lista(String versaoListagem, Object... parametros) {
+        String base = versaoListagem + "|" + Arrays.toString(parametros);
+        return "\"l-" + DigestUtils.md5DigestAsHex(base.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static long ultimaAlteracao(Instant atualizadoEm) {
+        return atualizadoEm == null ? -1 : atualizadoEm.toEpochMilli();
+    }
+
+    /**
+     * Versão exigida pelo If-Match de uma escrita; null quando o cabeçalho não veio ou é "*".
+     * If-Match usa comparação forte, então ETags fracos (W/) nunca conferem.
+     */
+    static Long versaoEsperada(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String prefixo = id + "-";
+        for (String tag : ifMatch.split(",")) {
+            String valor = tag.trim();
+            if (valor.equals("*")) {
+                return null;
+            }
+            if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+                continue;
+            }
+            valor = valor.substring(1, valor.length() - 1);
+            if (valor.startsWith(prefixo)) {
+                try {
+                    return Long.parseLong(valor.substring(prefixo.length()));
+                } catch (NumberFormatException e) {
+                    //ETag que não é nosso: segue para o próximo
+                }
+            }
+        }
+        throw new VersaoDesatualizadaException("If-Match não corresponde a nenhuma versão do projeto " + id);
+    }
+}
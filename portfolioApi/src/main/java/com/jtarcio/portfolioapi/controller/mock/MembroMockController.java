@@ -1,29 +1,195 @@
 package com.jtarcio.portfolioapi.controller.mock;
 
+import com.jtarcio.portfolioapi.dto.response.MembroExternoDTO;
+import com.jtarcio.portfolioapi.dto.response.PaginaMembrosExternosDTO;
 import com.jtarcio.portfolioapi.model.entity.Membro;
 import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/mock/membros")
 @Tag(name = "Mock API", description = "Simulação de API externa de membros")
 public class MembroMockController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
+    private static final AtribuicaoEnum[] ATRIBUICOES = AtribuicaoEnum.values();
+
+    //membros da fonte por id e o mesmo conjunto ordenado por (alteradoEm, idExterno) para o feed
+    private final Map<String, MembroExternoDTO> porId = new ConcurrentHashMap<>();
+    private final NavigableMap<Posicao, MembroExternoDTO> porAlteracao = new ConcurrentSkipListMap<>();
+
+    //simulação de fonte degradada: atraso em cada resposta e fração de respostas com erro
+    private volatile long latenciaMs;
+    private volatile double taxaFalha;
+
+    public MembroMockController(@Value("${portfolio.mock.membros.latencia:0ms}") Duration latencia,
+                                @Value("${portfolio.mock.membros.taxa-falha:0}") double taxaFalha,
+                                @Value("${portfolio.mock.membros.sinteticos:0}") int sinteticos) {
+        simular(latencia.toMillis(), taxaFalha);
+
+        gravar(membro("1", "Josevan Oliveira", AtribuicaoEnum.FUNCIONARIO));
+        gravar(membro("2", "branca Oliveira", AtribuicaoEnum.FUNCIONARIO));
+        gravar(membro("3", "Bruno Felipe", AtribuicaoEnum.TERCERIZADO));
+        gravar(membro("4", "Rebeca Loren", AtribuicaoEnum.ACIONISTA));
+        //volume para testar a sincronização
+        for (int i = 5; i < 5 + sinteticos; i++) {
+            gravar(membro(String.valueOf(i), "Membro externo " + i, ATRIBUICOES[i % ATRIBUICOES.length]));
+        }
+    }
+
     @GetMapping
     @Operation(summary = "Listar membros mock", description = "Retorna lista simulada de membros")
-    public List<Membro> listarMembrosMock() {
-        List<Membro> membros = new ArrayList<>();
-        membros.add(new Membro(1L, "Josevan Oliveira", AtribuicaoEnum.FUNCIONARIO, new ArrayList<>()));
-        membros.add(new Membro(2L, "branca Oliveira", AtribuicaoEnum.FUNCIONARIO, new ArrayList<>()));
-        membros.add(new Membro(3L, "Bruno Felipe", AtribuicaoEnum.TERCERIZADO, new ArrayList<>()));
-        membros.add(new Membro(4L, "Rebeca Loren", AtribuicaoEnum.ACIONISTA, new ArrayList<>()));
-        return membros;
+    public ResponseEntity<List<Membro>> listarMembrosMock() throws InterruptedException {
+        if (degradar()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        List<Membro> membros = porAlteracao.values().stream()
+                .filter(MembroExternoDTO::isAtivo)
+                .sorted(Comparator.comparing(m -> Long.parseLong(m.getIdExterno())))
+                .map(m -> Membro.builder()
+                        .id(Long.parseLong(m.getIdExterno()))
+                        .nome(m.getNome())
+                        .atribuicaoEnum(m.getAtribuicaoEnum())
+                        .projetos(new ArrayList<>())
+                        .build())
+                .toList();
+        return ResponseEntity.ok(membros);
+    }
+
+    @GetMapping("/alteracoes")
+    @Operation(summary = "Feed de alterações", description = "Membros incluídos, alterados ou removidos (ativo=false) "
+            + "depois de (alteradoDesde, aposId), em ordem de alteração; sem alteradoDesde lista todos")
+    public ResponseEntity<PaginaMembrosExternosDTO> listarAlteracoes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant alteradoDesde,
+            @RequestParam(required = false) String aposId,
+            @RequestParam(defaultValue = "100") int tamanho) throws InterruptedException {
+        if (degradar()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+
+        NavigableMap<Posicao, MembroExternoDTO> restantes = alteradoDesde == null
+                ? porAlteracao
+                : porAlteracao.tailMap(new Posicao(alteradoDesde, aposId == null ? "" : aposId), false);
+
+        List<MembroExternoDTO> itens = new ArrayList<>(Math.min(tamanho, 64));
+        boolean temMais = false;
+        for (MembroExternoDTO membro : restantes.values()) {
+            if (itens.size() == tamanho) {
+                temMais = true;
+                break;
+            }
+            itens.add(membro);
+        }
+        return ResponseEntity.ok(PaginaMembrosExternosDTO.builder().itens(itens).temMais(temMais).build());
+    }
+
+    @PutMapping("/simulacao")
+    @Operation(summary = "Simular degradação", description = "Define atraso (ms) e fração de falhas (0 a 1) das próximas respostas")
+    public ResponseEntity<Map<String, Object>> alterarSimulacao(@RequestParam(defaultValue = "0") long latenciaMs,
+                                                                @RequestParam(defaultValue = "0") double taxaFalha) {
+        simular(latenciaMs, taxaFalha);
+
+        Map<String, Object> simulacao = new LinkedHashMap<>();
+        simulacao.put("latenciaMs", this.latenciaMs);
+        simulacao.put("taxaFalha", this.taxaFalha);
+        return ResponseEntity.ok(simulacao);
+    }
+
+    @PostMapping("/simulacao/alteracoes")
+    @Operation(summary = "Simular alterações na fonte", description = "Renomeia, inclui e remove membros sorteados")
+    public ResponseEntity<Map<String, Object>> simularAlteracoes(@RequestParam(defaultValue = "0") int alterados,
+                                                                 @RequestParam(defaultValue = "0") int incluidos,
+                                                                 @RequestParam(defaultValue = "0") int removidos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> ids = new ArrayList<>(porId.keySet());
+
+        for (int i = 0; i < alterados && !ids.isEmpty(); i++) {
+            MembroExternoDTO atual = porId.get(ids.get(random.nextInt(ids.size())));
+            gravar(atual.toBuilder().nome(atual.getNome().replaceAll(" \\(\\d+\\)$", "") + " (" + random.nextInt(1000) + ")")
+                    .ativo(true).build());
+        }
+        for (int i = 0; i < removidos && !ids.isEmpty(); i++) {
+            MembroExternoDTO atual = porId.get(ids.get(random.nextInt(ids.size())));
+            gravar(atual.toBuilder().ativo(false).build());
+        }
+        int proximoId = ids.stream().mapToInt(Integer::parseInt).max().orElse(0) + 1;
+        for (int i = 0; i < incluidos; i++) {
+            String id = String.valueOf(proximoId + i);
+            gravar(membro(id, "Membro externo " + id, ATRIBUICOES[random.nextInt(ATRIBUICOES.length)]));
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("total", porId.size());
+        resultado.put("ativos", porId.values().stream().filter(MembroExternoDTO::isAtivo).count());
+        return ResponseEntity.ok(resultado);
+    }
+
+    //grava com nova data de alteração, movendo o membro para o fim do feed
+    private synchronized void gravar(MembroExternoDTO membro) {
+        MembroExternoDTO anterior = porId.get(membro.getIdExterno());
+        if (anterior != null) {
+            porAlteracao.remove(new Posicao(anterior.getAlteradoEm(), anterior.getIdExterno()));
+        }
+        MembroExternoDTO gravado = membro.toBuilder().alteradoEm(Instant.now()).build();
+        porId.put(gravado.getIdExterno(), gravado);
+        porAlteracao.put(new Posicao(gravado.getAlteradoEm(), gravado.getIdExterno()), gravado);
+    }
+
+    private static MembroExternoDTO membro(String id, String nome, AtribuicaoEnum atribuicao) {
+        return MembroExternoDTO.builder().idExterno(id).nome(nome).atribuicaoEnum(atribuicao).ativo(true).build();
+    }
+
+    private boolean degradar() throws InterruptedException {
+        if (latenciaMs > 0) {
+            Thread.sleep(latenciaMs);
+        }
+        return taxaFalha > 0 && ThreadLocalRandom.current().nextDouble() < taxaFalha;
+    }
+
+    private void simular(long latenciaMs, double taxaFalha) {
+        if (latenciaMs < 0) {
+            throw new IllegalArgumentException("Latência não pode ser negativa");
+        }
+        if (taxaFalha < 0 || taxaFalha > 1) {
+            throw new IllegalArgumentException("Taxa de falha deve estar entre 0 e 1");
+        }
+        this.latenciaMs = latenciaMs;
+        this.taxaFalha = taxaFalha;
+    }
+
+    private record Posicao(Instant alteradoEm, String idExterno) implements Comparable<Posicao> {
+
+        @Override
+        public int compareTo(Posicao outra) {
+            int porData = alteradoEm.compareTo(outra.alteradoEm);
+            return porData != 0 ? porData : idExterno.compareTo(outra.idExterno);
+        }
     }
 }
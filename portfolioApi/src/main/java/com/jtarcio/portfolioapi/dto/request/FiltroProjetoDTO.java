@@ -0,0 +1,41 @@
+package com.jtarcio.portfolioapi.dto.request;
+
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//filtros da listagem de projetos (query string); campos vazios não filtram
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroProjetoDTO {
+
+    private StatusProjetoEnum status;
+
+    private Long gerenteId;
+
+    //projetos em que o membro está alocado
+    private Long membroId;
+
+    //intervalo fechado; datas no formato yyyy-MM-dd
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataInicioDe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataInicioAte;
+
+    //faixa de orçamento, limites inclusive
+    private BigDecimal orcamentoMin;
+
+    private BigDecimal orcamentoMax;
+
+    private ClassificacaoRiscoEnum risco;
+}
@@ -0,0 +1,40 @@
+package com.jtarcio.portfolioapi.dto.request;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegrasRiscoRequestDTO {
+
+    //até este orçamento (e até mesesBaixo) o projeto é de baixo risco
+    @NotNull(message = "Orçamento baixo é obrigatório")
+    @Positive(message = "Orçamento baixo deve ser maior que zero")
+    @Digits(integer = 15, fraction = 2, message = "Orçamento baixo deve ter no máximo 2 casas decimais")
+    private BigDecimal orcamentoBaixo;
+
+    //acima deste orçamento o projeto é de alto risco
+    @NotNull(message = "Orçamento alto é obrigatório")
+    @Positive(message = "Orçamento alto deve ser maior que zero")
+    @Digits(integer = 15, fraction = 2, message = "Orçamento alto deve ter no máximo 2 casas decimais")
+    private BigDecimal orcamentoAlto;
+
+    @NotNull(message = "Meses baixo é obrigatório")
+    @PositiveOrZero(message = "Meses baixo não pode ser negativo")
+    private Integer mesesBaixo;
+
+    //acima deste prazo em meses o projeto é de alto risco
+    @NotNull(message = "Meses alto é obrigatório")
+    @PositiveOrZero(message = "Meses alto não pode ser negativo")
+    private Integer mesesAlto;
+}
@@ -0,0 +1,26 @@
+package com.jtarcio.portfolioapi.dto.request;
+
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusLoteRequestDTO {
+
+    //projetos a alterar; sem ids, vale o filtro statusAtual
+    private List<Long> ids;
+
+    //filtro: todos os projetos neste status (com ids, restringe os ids informados)
+    private StatusProjetoEnum statusAtual;
+
+    @NotNull(message = "Novo status é obrigatório")
+    private StatusProjetoEnum novoStatus;
+}
@@ -0,0 +1,21 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportacaoDTO {
+
+    //posição do projeto no array enviado (começando em 0)
+    private int indice;
+    private boolean sucesso;
+
+    //id gerado quando o projeto foi gravado
+    private Long id;
+    private String erro;
+}
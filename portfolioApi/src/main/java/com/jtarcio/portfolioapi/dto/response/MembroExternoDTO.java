@@ -0,0 +1,26 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+//membro como vem do feed de alterações da fonte externa
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembroExternoDTO {
+
+    private String idExterno;
+    private String nome;
+    private AtribuicaoEnum atribuicaoEnum;
+
+    //false: removido na fonte
+    private boolean ativo;
+
+    private Instant alteradoEm;
+}
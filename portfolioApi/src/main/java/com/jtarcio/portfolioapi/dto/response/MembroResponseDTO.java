@@ -15,4 +15,6 @@ public class MembroResponseDTO {
     private Long id;
     private String nome;
     private AtribuicaoEnum atribuicaoEnum;
+    private String idExterno;
+    private boolean ativo;
 }
@@ -0,0 +1,48 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorResponseDTO<T> {
+
+    private static final String PREFIXO_CURSOR = "id:";
+
+    private List<T> conteudo;
+    private int tamanho;
+    private boolean temProxima;
+
+    //cursor opaco para pedir a próxima página (null na última)
+    private String proximoCursor;
+
+    public static String codificarCursor(Long ultimoId) {
+        byte[] bytes = (PREFIXO_CURSOR + ultimoId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    //cursor vazio representa o início da listagem
+    public static Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO_CURSOR)) {
+                throw new PortfolioException("Cursor inválido: " + cursor);
+            }
+            return Long.parseLong(valor.substring(PREFIXO_CURSOR.length()));
+        } catch (IllegalArgumentException e) {
+            throw new PortfolioException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
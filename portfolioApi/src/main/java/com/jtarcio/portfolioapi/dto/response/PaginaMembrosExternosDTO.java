@@ -0,0 +1,19 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//página do feed, em ordem de (alteradoEm, idExterno); a próxima começa depois do último item
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaMembrosExternosDTO {
+
+    private List<MembroExternoDTO> itens;
+    private boolean temMais;
+}
@@ -0,0 +1,23 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegrasRiscoResponseDTO {
+
+    private BigDecimal orcamentoBaixo;
+    private BigDecimal orcamentoAlto;
+    private int mesesBaixo;
+    private int mesesAlto;
+
+    //só na alteração das regras: quantos projetos mudaram de classificação
+    private Integer projetosReclassificados;
+}
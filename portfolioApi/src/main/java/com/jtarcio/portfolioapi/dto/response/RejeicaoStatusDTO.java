@@ -0,0 +1,20 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejeicaoStatusDTO {
+
+    private Long id;
+
+    //status em que o projeto estava (null quando o projeto não existe)
+    private StatusProjetoEnum statusAtual;
+    private String motivo;
+}
@@ -0,0 +1,20 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacaoDTO {
+
+    private int total;
+    private int importados;
+    private int falhas;
+    private List<ItemImportacaoDTO> itens;
+}
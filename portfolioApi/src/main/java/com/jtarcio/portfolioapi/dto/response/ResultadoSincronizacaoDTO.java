@@ -0,0 +1,28 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoSincronizacaoDTO {
+
+    //leitura completa da fonte (detecta remoções sem aviso) ou só das alterações desde a marca d'água
+    private boolean completa;
+    private int paginas;
+    private int lidos;
+    private int incluidos;
+    private int alterados;
+    private int desativados;
+
+    //lidos e iguais ao que já está gravado: nenhuma escrita
+    private int inalterados;
+
+    private Instant alteradoAte;
+}
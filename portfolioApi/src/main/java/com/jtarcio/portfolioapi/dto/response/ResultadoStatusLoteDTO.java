@@ -0,0 +1,23 @@
+package com.jtarcio.portfolioapi.dto.response;
+
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoStatusLoteDTO {
+
+    private StatusProjetoEnum novoStatus;
+    private int alterados;
+
+    //preenchido quando a alteração foi pedida por ids
+    private List<Long> idsAlterados;
+    private List<RejeicaoStatusDTO> rejeitados;
+}
@@ -0,0 +1,59 @@
+package com.jtarcio.portfolioapi.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Métrica portfolio.excecoes: PortfolioException por tipo e chave da mensagem.
+ * A chave é a mensagem sem ids, números e listas ("Não encontramos esse ID: #"), para que
+ * cada regra de negócio vire uma série e não uma série por registro.
+ */
+@Component
+public class ContadorExcecoes {
+
+    //acima disso novas chaves caem em "outras": mensagens montadas com texto livre não explodem a cardinalidade
+    static final int MAXIMO_CHAVES = 200;
+    static final String OUTRAS = "outras";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 120;
+    private static final Pattern LISTA = Pattern.compile("\\[[^]]*]");
+    private static final Pattern NUMERO = Pattern.compile("\\d+([.,]\\d+)*");
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> chaves = ConcurrentHashMap.newKeySet();
+
+    public ContadorExcecoes(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void registrar(PortfolioException ex) {
+        String chave = chave(ex.getMessage());
+        if (!chaves.contains(chave)) {
+            //sem lock: em disputa o limite pode ser ultrapassado por poucas chaves
+            if (chaves.size() < MAXIMO_CHAVES) {
+                chaves.add(chave);
+            } else {
+                chave = OUTRAS;
+            }
+        }
+        Counter.builder("portfolio.excecoes")
+                .description("Exceções de regra de negócio devolvidas pela API")
+                .tag("tipo", ex.getClass().getSimpleName())
+                .tag("chave", chave)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static String chave(String mensagem) {
+        if (mensagem == null || mensagem.isBlank()) {
+            return "sem-mensagem";
+        }
+        String chave = NUMERO.matcher(LISTA.matcher(mensagem).replaceAll("[#]")).replaceAll("#").strip();
+        return chave.length() > TAMANHO_MAXIMO_CHAVE ? chave.substring(0, TAMANHO_MAXIMO_CHAVE) : chave;
+    }
+}
@@ -1,6 +1,8 @@
 package com.jtarcio.portfolioapi.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,11 +15,18 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final ContadorExcecoes contadorExcecoes;
+
+    public GlobalExceptionHandler(ContadorExcecoes contadorExcecoes) {
+        this.contadorExcecoes = contadorExcecoes;
+    }
+
     //trata exceções customizadas do tipo PortfolioException
     @ExceptionHandler(PortfolioException.class)
     public ResponseEntity<ErrorResponse> handlePortfolioException(
             PortfolioException ex,
             HttpServletRequest request) {
+        contadorExcecoes.registrar(ex);
 
         ErrorResponse error = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -30,6 +39,93 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    //If-Match com versão que não é mais a atual
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    public ResponseEntity<ErrorResponse> handleVersaoDesatualizadaException(
+            VersaoDesatualizadaException ex,
+            HttpServletRequest request) {
+        contadorExcecoes.registrar(ex);
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.PRECONDITION_FAILED.value())
+                .error("Precondition Failed")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    //fonte externa indisponível e sem cópia anterior para servir
+    @ExceptionHandler(ServicoExternoIndisponivelException.class)
+    public ResponseEntity<ErrorResponse> handleServicoExternoIndisponivelException(
+            ServicoExternoIndisponivelException ex,
+            HttpServletRequest request) {
+        contadorExcecoes.registrar(ex);
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    //duas escritas concorrentes no mesmo registro (@Version): a segunda perde
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message("Registro alterado por outra operação. Recarregue e tente novamente.")
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    //restrição do banco violada (ex.: o mesmo membro incluído duas vezes no projeto por requisições simultâneas)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message("Operação conflita com dados já gravados. Recarregue e tente novamente.")
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    //orçamento de comandos SQL no modo estrito: regressão de desempenho, não erro do cliente
+    @ExceptionHandler(OrcamentoConsultasExcedidoException.class)
+    public ResponseEntity<ErrorResponse> handleOrcamentoConsultasExcedidoException(
+            OrcamentoConsultasExcedidoException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .error("Internal Server Error")
+                .message("Requisição excedeu o orçamento de " + ex.getLimite() + " comandos SQL")
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+
     //trata exceções de validação - Bean
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
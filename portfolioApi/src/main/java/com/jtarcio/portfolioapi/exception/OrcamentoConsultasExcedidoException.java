@@ -0,0 +1,15 @@
+package com.jtarcio.portfolioapi.exception;
+
+import lombok.Getter;
+
+//requisição passou do orçamento de comandos SQL no modo estrito (portfolio.consultas.orcamento)
+@Getter
+public class OrcamentoConsultasExcedidoException extends RuntimeException {
+
+    private final int limite;
+
+    public OrcamentoConsultasExcedidoException(int limite, String sql) {
+        super("Orçamento de " + limite + " comandos SQL excedido em: " + sql);
+        this.limite = limite;
+    }
+}
@@ -0,0 +1,12 @@
+package com.jtarcio.portfolioapi.exception;
+
+//fonte externa fora do ar (ou circuito aberto) e sem resposta anterior que possa ser servida
+public class ServicoExternoIndisponivelException extends PortfolioException {
+    public ServicoExternoIndisponivelException(String mensageErro) {
+        super(mensageErro);
+    }
+
+    public ServicoExternoIndisponivelException(String mensageErro, Throwable cause) {
+        super(mensageErro, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.jtarcio.portfolioapi.exception;
+
+//a escrita foi pedida sobre uma versão do recurso que não é mais a atual
+public class VersaoDesatualizadaException extends PortfolioException {
+    public VersaoDesatualizadaException(String mensageErro) {
+        super(mensageErro);
+    }
+}
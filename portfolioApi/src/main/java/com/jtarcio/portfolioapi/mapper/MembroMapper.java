@@ -23,6 +23,8 @@ public class MembroMapper {
                 .id(membro.getId())
                 .nome(membro.getNome())
                 .atribuicaoEnum(membro.getAtribuicaoEnum())
+                .idExterno(membro.getIdExterno())
+                .ativo(membro.isAtivo())
                 .build();
     }
 
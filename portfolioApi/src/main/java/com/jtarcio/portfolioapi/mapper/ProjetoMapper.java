@@ -2,13 +2,16 @@ package com.jtarcio.portfolioapi.mapper;
 
 import com.jtarcio.portfolioapi.dto.request.ProjetoRequestDTO;
 import com.jtarcio.portfolioapi.dto.response.ProjetoResponseDTO;
+import com.jtarcio.portfolioapi.exception.PortfolioException;
 import com.jtarcio.portfolioapi.model.entity.Membro;
 import com.jtarcio.portfolioapi.model.entity.Projeto;
 import com.jtarcio.portfolioapi.service.MembroService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -18,11 +21,20 @@ public class ProjetoMapper {
     private final MembroService membroService;
     private final MembroMapper membroMapper;
 
+    //gerente e membros resolvidos em uma única consulta
     public Projeto toEntity(ProjetoRequestDTO dto) {
-        Membro gerente = membroService.findById(dto.getGerenteId());
+        List<Long> ids = new ArrayList<>(dto.getMembrosIds());
+        ids.add(dto.getGerenteId());
+
+        return toEntity(dto, membroService.findAllById(ids));
+    }
+
+    //monta o projeto a partir de membros já resolvidos (ex.: um lote inteiro de uma vez)
+    public Projeto toEntity(ProjetoRequestDTO dto, Map<Long, Membro> membrosResolvidos) {
+        Membro gerente = resolver(dto.getGerenteId(), membrosResolvidos);
 
         List<Membro> membros = dto.getMembrosIds().stream()
-                .map(membroService::findById)
+                .map(id -> resolver(id, membrosResolvidos))
                 .collect(Collectors.toList());
 
         return Projeto.builder()
@@ -38,6 +50,14 @@ public class ProjetoMapper {
                 .build();
     }
 
+    private Membro resolver(Long id, Map<Long, Membro> membrosResolvidos) {
+        Membro membro = membrosResolvidos.get(id);
+        if (membro == null) {
+            throw new PortfolioException("Membros não localizados no banco de dados: [" + id + "]");
+        }
+        return membro;
+    }
+
     public ProjetoResponseDTO toResponseDTO(Projeto projeto) {
         return ProjetoResponseDTO.builder()
                 .id(projeto.getId())
@@ -4,19 +4,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
 @Entity
-@Table(name = "tb_membros")
+@Table(name = "tb_membros", indexes = @Index(name = "uk_membros_id_externo", columnList = "id_externo", unique = true))
 @Data
-@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class Membro {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "membro_seq")
+    @SequenceGenerator(name = "membro_seq", sequenceName = "tb_membros_seq", allocationSize = 50)
     private Long id;
 
     @NonNull
@@ -26,8 +30,30 @@ public class Membro {
     @NonNull
     private AtribuicaoEnum atribuicaoEnum;
 
+    //id do membro na fonte externa (null para membros cadastrados direto aqui)
+    @Column(name = "id_externo", length = 64)
+    private String idExterno;
+
+    //hash do conteúdo recebido da fonte externa: a sincronização só grava quando ele muda
+    @Column(name = "hash_conteudo", length = 64)
+    private String hashConteudo;
+
+    //removido na fonte externa: continua nos projetos em que já está, mas não pode ser alocado de novo
+    @Builder.Default
+    @ColumnDefault("true")
+    @Column(nullable = false)
+    private boolean ativo = true;
+
+    //incrementada a cada alocação em projeto (OPTIMISTIC_FORCE_INCREMENT): duas alocações
+    //simultâneas do mesmo membro não passam juntas pelo limite de projetos ativos
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @ManyToMany(mappedBy = "membros")
     @JsonIgnore
+    @ToString.Exclude
     private List<Projeto> projetos;
 
 
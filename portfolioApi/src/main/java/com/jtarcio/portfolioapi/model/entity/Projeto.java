@@ -5,21 +5,48 @@ import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
 import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "tb_projetos")
+//índices da listagem filtrada: igualdade no começo, ordenação em seguida (combinações aceitas em FiltrosProjeto)
+@Table(name = "tb_projetos", indexes = {
+        @Index(name = "idx_projetos_status_id", columnList = "status, id"),
+        @Index(name = "idx_projetos_status_data_inicio", columnList = "status, data_inicio, id"),
+        @Index(name = "idx_projetos_classificacao_risco", columnList = "classificacao_risco, id"),
+        @Index(name = "idx_projetos_risco_orcamento", columnList = "classificacao_risco, orcamento_total, id"),
+        @Index(name = "idx_projetos_data_inicio", columnList = "data_inicio, id"),
+        @Index(name = "idx_projetos_orcamento", columnList = "orcamento_total, id"),
+        @Index(name = "idx_projetos_gerente", columnList = "gerente_id, data_inicio")
+})
+@NamedEntityGraph(name = Projeto.GRAFO_LISTA, attributeNodes = @NamedAttributeNode("gerente"))
+@NamedEntityGraph(name = Projeto.GRAFO_DETALHE, attributeNodes = {
+        @NamedAttributeNode("gerente"),
+        @NamedAttributeNode("membros")
+})
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Projeto {
 
+    //listagem: gerente no join, membros da página inteira em uma consulta em lote
+    public static final String GRAFO_LISTA = "Projeto.lista";
+
+    //detalhe: gerente e membros no mesmo join
+    public static final String GRAFO_DETALHE = "Projeto.detalhe";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projeto_seq")
+    @SequenceGenerator(name = "projeto_seq", sequenceName = "tb_projetos_seq", allocationSize = 50)
     private Long id;
 
     @NonNull
@@ -41,18 +68,36 @@ public class Projeto {
 
     private String descricao;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "gerente_id")
     private Membro gerente;
 
+    //smallint explícito: é o que o PostgreSQL já recebia, e o H2 em MODE=PostgreSQL (testes, cargas) recusa tinyint
     @Enumerated(EnumType.ORDINAL)
+    @JdbcTypeCode(SqlTypes.SMALLINT)
     @NonNull
     private StatusProjetoEnum status;
 
-    @Transient
+    //calculada pelo ProjetoService a cada escrita e persistida para permitir filtro por índice
+    @Enumerated(EnumType.STRING)
+    @Column(name = "classificacao_risco", length = 20)
     private ClassificacaoRiscoEnum classificacaoRiscoEnum;
 
+    //controle de concorrência otimista; também compõe o ETag das respostas
+    //alterar a lista de membros também incrementa (a coleção pertence ao projeto)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+
     @ManyToMany
-    @JoinTable(name = "projeto_membros", joinColumns = @JoinColumn(name = "projeto_id"), inverseJoinColumns = @JoinColumn(name = "membro_id"))
+    @BatchSize(size = 100)
+    @JoinTable(name = "projeto_membros", joinColumns = @JoinColumn(name = "projeto_id"), inverseJoinColumns = @JoinColumn(name = "membro_id"),
+            indexes = @Index(name = "idx_projeto_membros_membro", columnList = "membro_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_projeto_membros", columnNames = {"projeto_id", "membro_id"}))
     private List<Membro> membros;
 }
@@ -0,0 +1,39 @@
+package com.jtarcio.portfolioapi.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+//limites de risco alterados em tempo de execução (uma linha só); sem ela valem os de portfolio.risco.*
+@Entity
+@Table(name = "tb_regras_risco")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegraRisco {
+
+    public static final Integer VIGENTE = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "orcamento_baixo", nullable = false)
+    private BigDecimal orcamentoBaixo;
+
+    @Column(name = "orcamento_alto", nullable = false)
+    private BigDecimal orcamentoAlto;
+
+    @Column(name = "meses_baixo", nullable = false)
+    private int mesesBaixo;
+
+    @Column(name = "meses_alto", nullable = false)
+    private int mesesAlto;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+}
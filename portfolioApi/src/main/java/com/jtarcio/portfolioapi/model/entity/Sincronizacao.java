@@ -0,0 +1,42 @@
+package com.jtarcio.portfolioapi.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+//marca d'água de uma sincronização incremental: até onde a fonte já foi lida
+@Entity
+@Table(name = "tb_sincronizacoes")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Sincronizacao {
+
+    @Id
+    @Column(length = 50)
+    private String fonte;
+
+    //última alteração aplicada (data na fonte e id externo, para desempatar alterações no mesmo instante)
+    @Column(name = "alterado_ate")
+    private Instant alteradoAte;
+
+    @Column(name = "ultimo_id_externo", length = 64)
+    private String ultimoIdExterno;
+
+    @Column(name = "ultima_execucao")
+    private Instant ultimaExecucao;
+
+    //última leitura completa da fonte (a que detecta membros que sumiram sem aviso)
+    @Column(name = "ultima_completa")
+    private Instant ultimaCompleta;
+
+    //bloqueio entre instâncias: quem está executando e até quando (renovado a cada página);
+    //só é gravado pelas consultas de SincronizacaoRepository, nunca ao salvar a marca d'água
+    @Column(name = "bloqueado_por", length = 36, insertable = false, updatable = false)
+    private String bloqueadoPor;
+
+    @Column(name = "bloqueado_ate", insertable = false, updatable = false)
+    private Instant bloqueadoAte;
+}
@@ -0,0 +1,21 @@
+package com.jtarcio.portfolioapi.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+//versão de uma listagem (base do ETag): uma linha por listagem, incrementada depois de cada escrita nela
+@Entity
+@Table(name = "tb_versoes_listagem")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VersaoListagem {
+
+    @Id
+    @Column(length = 50)
+    private String listagem;
+
+    @Column(nullable = false)
+    private long versao;
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 @AllArgsConstructor
 @Getter
@@ -43,6 +45,17 @@ public enum StatusProjetoEnum {
         }
     }
 
+    //status a partir dos quais se pode ir para o destino (cancelar vale a partir de qualquer outro)
+    public static Set<StatusProjetoEnum> origensPermitidas(StatusProjetoEnum destino) {
+        Set<StatusProjetoEnum> origens = EnumSet.noneOf(StatusProjetoEnum.class);
+        for (StatusProjetoEnum origem : values()) {
+            if (origem != destino && (destino == CANCELADO || origem.possoMudarStatus(destino))) {
+                origens.add(origem);
+            }
+        }
+        return origens;
+    }
+
     // bloquear a exclusão de projetos finalizados
     public boolean isStatusFinalizado() {
         return this == ENCERRADO || this == CANCELADO;
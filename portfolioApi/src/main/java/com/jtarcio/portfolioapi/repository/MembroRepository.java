@@ -1,7 +1,55 @@
 package com.jtarcio.portfolioapi.repository;
 
 import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface MembroRepository extends JpaRepository<Membro, Long> {
+
+    //projetos do membro fora dos status informados (usa o índice de membro_id em projeto_membros)
+    @Query("select count(p) from Projeto p join p.membros m where m.id = :membroId and p.status not in :statusIgnorados")
+    long contarProjetosDoMembro(@Param("membroId") Long membroId,
+                                @Param("statusIgnorados") Collection<StatusProjetoEnum> statusIgnorados);
+
+    //a versão do membro é incrementada no commit, que falha se outra transação a incrementou antes
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select m from Membro m where m.id = :id")
+    Optional<Membro> findParaAlocacao(@Param("id") Long id);
+
+    //os projetos exibem gerente e membros: alterar um membro muda a representação (e o ETag) desses projetos
+    @Modifying(flushAutomatically = true)
+    @Query("update Projeto p set p.versao = p.versao + 1, p.atualizadoEm = :agora "
+            + "where p.gerente.id = :membroId "
+            + "or p.id in (select pm.id from Projeto pm join pm.membros m where m.id = :membroId)")
+    int marcarProjetosDoMembroAlterados(@Param("membroId") Long membroId, @Param("agora") Instant agora);
+
+    //mesma marcação para vários membros de uma vez (sincronização com a fonte externa)
+    @Modifying(flushAutomatically = true)
+    @Query("update Projeto p set p.versao = p.versao + 1, p.atualizadoEm = :agora "
+            + "where p.gerente.id in :membroIds "
+            + "or p.id in (select pm.id from Projeto pm join pm.membros m where m.id in :membroIds)")
+    int marcarProjetosDosMembrosAlterados(@Param("membroIds") Collection<Long> membroIds, @Param("agora") Instant agora);
+
+    List<Membro> findByIdExternoIn(Collection<String> idsExternos);
+
+    @Query("select m.idExterno from Membro m where m.idExterno is not null and m.ativo = true")
+    List<String> findIdsExternosAtivos();
+
+    //membros que sumiram da fonte externa; o hash é limpo para que uma reativação na fonte seja regravada
+    @Modifying(flushAutomatically = true)
+    @Query("update Membro m set m.ativo = false, m.hashConteudo = null, m.versao = m.versao + 1 where m.ativo = true and m.idExterno in :idsExternos")
+    int desativarPorIdsExternos(@Param("idsExternos") Collection<String> idsExternos);
+
+    @Query("select m.id from Membro m where m.idExterno in :idsExternos")
+    List<Long> findIdsByIdExternoIn(@Param("idsExternos") Collection<String> idsExternos);
 }
@@ -1,11 +1,168 @@
 package com.jtarcio.portfolioapi.repository;
 
-import com.jtarcio.portfolioapi.model.entity.Membro;
 import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.projection.AlocacoesMembroProjection;
+import com.jtarcio.portfolioapi.repository.projection.DuracaoProjetosProjection;
+import com.jtarcio.portfolioapi.repository.projection.RiscoProjetoProjection;
+import com.jtarcio.portfolioapi.repository.projection.StatusProjetoProjection;
+import com.jtarcio.portfolioapi.repository.projection.TextoProjetoProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalPorStatusProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalTransicaoProjection;
+import com.jtarcio.portfolioapi.repository.projection.VersaoProjetoProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ProjetoRepository extends JpaRepository<Projeto, Long> {
+public interface ProjetoRepository extends JpaRepository<Projeto, Long>, ProjetoRepositoryFiltros {
+
+    //mesma expressão do índice idx_projetos_busca_texto (IndicesBuscaConfig): só assim o PostgreSQL usa o índice
+    String VETOR_BUSCA = "to_tsvector('simple', coalesce(p.nome, '') || ' ' || coalesce(p.descricao, ''))";
+    String CONDICAO_BUSCA_TEXTO = VETOR_BUSCA + " @@ to_tsquery('simple', :consulta)";
+    String CONDICAO_BUSCA = "(" + CONDICAO_BUSCA_TEXTO + " or :texto <% p.nome)";
+
+    @Override
+    @EntityGraph(Projeto.GRAFO_DETALHE)
+    Optional<Projeto> findById(Long id);
+
+    @Override
+    @EntityGraph(Projeto.GRAFO_DETALHE)
+    List<Projeto> findAll();
+
+    //primeira fase da paginação: só os ids, sem join de coleção atrapalhando o limit
+    @Query(value = "select p.id from Projeto p", countQuery = "select count(p) from Projeto p")
+    Page<Long> findPaginaDeIds(Pageable pageable);
+
+    //exportação: cursor no banco lido aos poucos, somente leitura
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select p from Projeto p left join fetch p.gerente order by p.id")
+    Stream<Projeto> streamAll();
+
+    //projetos gravados antes de a classificação ser persistida
+    List<Projeto> findByClassificacaoRiscoEnumIsNull(Pageable pageable);
+
+    //paginação por cursor: ids depois do último visto, sem count
+    @Query("select p.id from Projeto p where p.id > :ultimoId order by p.id")
+    List<Long> findIdsApos(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    //segunda fase: carrega os projetos da página
+    @EntityGraph(Projeto.GRAFO_LISTA)
+    List<Projeto> findByIdIn(Collection<Long> ids);
+
+    //quantidade e orçamento somado por status (uma linha por status)
+    @Query("select p.status as status, count(p) as quantidade, sum(p.orcamentoTotal) as orcamentoTotal "
+            + "from Projeto p group by p.status")
+    List<TotalPorStatusProjection> totalizarPorStatus();
+
+    //soma das durações em dias dos projetos no status informado que já têm data de término
+    @Query("select sum((p.dataFim - p.dataInicio) by day) as somaDias, count(p) as quantidade "
+            + "from Projeto p where p.status = :status and p.dataFim is not null")
+    DuracaoProjetosProjection totalizarDuracao(@Param("status") StatusProjetoEnum status);
+
+    @Query("select count(distinct m.id) from Projeto p join p.membros m")
+    long contarMembrosUnicos();
+
+    //consulta barata (índice da chave primária): abre a foto da transação que reconstrói o relatório
+    @Query("select max(p.id) from Projeto p")
+    Long buscarMaiorId();
+
+    //em quantos projetos cada membro está alocado
+    @Query("select m.id as membroId, count(p) as alocacoes from Projeto p join p.membros m group by m.id")
+    List<AlocacoesMembroProjection> contarAlocacoesPorMembro();
+
+    //status atual de cada projeto, sem carregar as entidades
+    @Query("select p.id as id, p.status as status from Projeto p where p.id in :ids")
+    List<StatusProjetoProjection> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    //transição em massa dos projetos informados que ainda estão no status de origem
+    //dataFim nula mantém a data de término atual; versão e data de alteração avançam como numa escrita normal
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Projeto p set p.status = :destino, p.dataFim = coalesce(:dataFim, p.dataFim), "
+            + "p.versao = p.versao + 1, p.atualizadoEm = :agora "
+            + "where p.status = :origem and p.id in :ids")
+    int alterarStatusPorIds(@Param("origem") StatusProjetoEnum origem, @Param("destino") StatusProjetoEnum destino,
+                            @Param("dataFim") LocalDate dataFim, @Param("agora") Instant agora,
+                            @Param("ids") Collection<Long> ids);
+
+    //transição em massa de todos os projetos no status de origem
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Projeto p set p.status = :destino, p.dataFim = coalesce(:dataFim, p.dataFim), "
+            + "p.versao = p.versao + 1, p.atualizadoEm = :agora "
+            + "where p.status = :origem")
+    int alterarStatusPorOrigem(@Param("origem") StatusProjetoEnum origem, @Param("destino") StatusProjetoEnum destino,
+                               @Param("dataFim") LocalDate dataFim, @Param("agora") Instant agora);
+
+    //o que os projetos recém-alterados por uma transição em massa somam ao relatório; as linhas seguem travadas
+    //pela transação que as alterou, então status de destino e data de alteração identificam exatamente elas
+    @Query("select count(p) as quantidade, sum(p.orcamentoTotal) as orcamentoTotal, "
+            + "sum((p.dataFim - p.dataInicio) by day) as somaDias, count(p.dataFim) as comDataFim "
+            + "from Projeto p where p.status = :destino and p.atualizadoEm = :agora")
+    TotalTransicaoProjection totalizarTransicao(@Param("destino") StatusProjetoEnum destino, @Param("agora") Instant agora);
+
+    @Query("select count(p) as quantidade, sum(p.orcamentoTotal) as orcamentoTotal, "
+            + "sum((p.dataFim - p.dataInicio) by day) as somaDias, count(p.dataFim) as comDataFim "
+            + "from Projeto p where p.status = :destino and p.atualizadoEm = :agora and p.id in :ids")
+    TotalTransicaoProjection totalizarTransicaoPorIds(@Param("destino") StatusProjetoEnum destino,
+                                                      @Param("agora") Instant agora,
+                                                      @Param("ids") Collection<Long> ids);
+
+    //só versão e data de alteração, para responder a GET condicional sem carregar o projeto
+    @Query("select p.versao as versao, p.atualizadoEm as atualizadoEm from Projeto p where p.id = :id")
+    Optional<VersaoProjetoProjection> findVersaoById(@Param("id") Long id);
+
+    //campos usados na classificação de risco, em lotes por cursor de id (reclassificação do portfólio)
+    @Query("select p.id as id, p.orcamentoTotal as orcamentoTotal, p.dataInicio as dataInicio, "
+            + "p.previsaoFim as previsaoFim, p.classificacaoRiscoEnum as classificacaoRiscoEnum "
+            + "from Projeto p where p.id > :ultimoId order by p.id")
+    List<RiscoProjetoProjection> findRiscoApos(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    //texto indexado na busca em memória, em lotes por cursor de id
+    @Query("select p.id as id, p.nome as nome, p.descricao as descricao from Projeto p where p.id > :ultimoId order by p.id")
+    List<TextoProjetoProjection> findTextoApos(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("select p.id as id, p.nome as nome, p.descricao as descricao from Projeto p where p.id in :ids")
+    List<TextoProjetoProjection> findTextoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca textual no PostgreSQL (portfolio.busca.motor=POSTGRESQL): palavras pelo tsvector de nome e descrição,
+     * com a última como prefixo, ou nome parecido com o texto pelos trigramas (erros de digitação).
+     */
+    @Query(value = "select p.id from tb_projetos p where " + CONDICAO_BUSCA
+            + " order by ts_rank(" + VETOR_BUSCA + ", to_tsquery('simple', :consulta)) + word_similarity(:texto, p.nome) desc, p.id desc",
+            countQuery = "select count(*) from tb_projetos p where " + CONDICAO_BUSCA,
+            nativeQuery = true)
+    Page<Long> buscarTexto(@Param("consulta") String consulta, @Param("texto") String texto, Pageable pageable);
+
+    //a mesma busca sem os trigramas, para quando o pg_trgm não pôde ser instalado (IndicesBuscaConfig)
+    @Query(value = "select p.id from tb_projetos p where " + CONDICAO_BUSCA_TEXTO
+            + " order by ts_rank(" + VETOR_BUSCA + ", to_tsquery('simple', :consulta)) desc, p.id desc",
+            countQuery = "select count(*) from tb_projetos p where " + CONDICAO_BUSCA_TEXTO,
+            nativeQuery = true)
+    Page<Long> buscarTextoSemTrigramas(@Param("consulta") String consulta, Pageable pageable);
+
+    //grava a mesma classificação em vários projetos de uma vez
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Projeto p set p.classificacaoRiscoEnum = :risco, p.versao = p.versao + 1, p.atualizadoEm = :agora "
+            + "where p.id in :ids")
+    int alterarClassificacaoRisco(@Param("risco") ClassificacaoRiscoEnum risco, @Param("agora") Instant agora,
+                                  @Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,13 @@
+package com.jtarcio.portfolioapi.repository;
+
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+//consultas da listagem filtrada, montadas com Criteria a partir dos filtros informados
+public interface ProjetoRepositoryFiltros {
+
+    //primeira fase da paginação filtrada: só os ids; o count é dispensado quando a página não enche
+    Page<Long> findPaginaDeIdsPorFiltro(Specification<Projeto> filtro, Pageable pageable);
+}
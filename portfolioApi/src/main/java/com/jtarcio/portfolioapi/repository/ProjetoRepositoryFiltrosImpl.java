@@ -0,0 +1,55 @@
+package com.jtarcio.portfolioapi.repository;
+
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class ProjetoRepositoryFiltrosImpl implements ProjetoRepositoryFiltros {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> findPaginaDeIdsPorFiltro(Specification<Projeto> filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        Root<Projeto> projeto = consulta.from(Projeto.class);
+        consulta.select(projeto.get("id"));
+        aplicar(filtro, projeto, consulta, cb);
+        consulta.orderBy(QueryUtils.toOrders(pageable.getSort(), projeto, cb));
+
+        List<Long> ids = entityManager.createQuery(consulta)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> contar(filtro));
+    }
+
+    private long contar(Specification<Projeto> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        Root<Projeto> projeto = consulta.from(Projeto.class);
+        consulta.select(cb.count(projeto));
+        aplicar(filtro, projeto, consulta, cb);
+        return entityManager.createQuery(consulta).getSingleResult();
+    }
+
+    private static void aplicar(Specification<Projeto> filtro, Root<Projeto> projeto, CriteriaQuery<?> consulta,
+                                CriteriaBuilder cb) {
+        Predicate condicao = filtro.toPredicate(projeto, consulta, cb);
+        if (condicao != null) {
+            consulta.where(condicao);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.jtarcio.portfolioapi.repository;
+
+import com.jtarcio.portfolioapi.model.entity.RegraRisco;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RegraRiscoRepository extends JpaRepository<RegraRisco, Integer> {
+}
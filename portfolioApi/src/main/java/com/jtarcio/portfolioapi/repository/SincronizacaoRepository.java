@@ -0,0 +1,29 @@
+package com.jtarcio.portfolioapi.repository;
+
+import com.jtarcio.portfolioapi.model.entity.Sincronizacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface SincronizacaoRepository extends JpaRepository<Sincronizacao, String> {
+
+    //toma o bloqueio se estiver livre ou vencido; devolve 1 se conseguiu
+    @Modifying
+    @Query("update Sincronizacao s set s.bloqueadoPor = :dono, s.bloqueadoAte = :ate "
+            + "where s.fonte = :fonte and (s.bloqueadoAte is null or s.bloqueadoAte < :agora)")
+    int bloquear(@Param("fonte") String fonte, @Param("dono") String dono,
+                 @Param("agora") Instant agora, @Param("ate") Instant ate);
+
+    //estende o bloqueio de quem ainda o detém; 0 se ele venceu e outra execução o tomou
+    @Modifying
+    @Query("update Sincronizacao s set s.bloqueadoAte = :ate where s.fonte = :fonte and s.bloqueadoPor = :dono")
+    int renovarBloqueio(@Param("fonte") String fonte, @Param("dono") String dono, @Param("ate") Instant ate);
+
+    @Modifying
+    @Query("update Sincronizacao s set s.bloqueadoPor = null, s.bloqueadoAte = null "
+            + "where s.fonte = :fonte and s.bloqueadoPor = :dono")
+    int liberar(@Param("fonte") String fonte, @Param("dono") String dono);
+}
@@ -0,0 +1,20 @@
+package com.jtarcio.portfolioapi.repository;
+
+import com.jtarcio.portfolioapi.model.entity.VersaoListagem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface VersaoListagemRepository extends JpaRepository<VersaoListagem, String> {
+
+    @Query("select v.versao from VersaoListagem v where v.listagem = :listagem")
+    Optional<Long> buscarVersao(@Param("listagem") String listagem);
+
+    //0 se a linha da listagem ainda não existe
+    @Modifying
+    @Query("update VersaoListagem v set v.versao = v.versao + 1 where v.listagem = :listagem")
+    int incrementar(@Param("listagem") String listagem);
+}
@@ -0,0 +1,8 @@
+package com.jtarcio.portfolioapi.repository.projection;
+
+public interface AlocacoesMembroProjection {
+
+    Long getMembroId();
+
+    Long getAlocacoes();
+}
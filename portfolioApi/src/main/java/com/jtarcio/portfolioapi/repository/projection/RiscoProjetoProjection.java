@@ -0,0 +1,19 @@
+package com.jtarcio.portfolioapi.repository.projection;
+
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface RiscoProjetoProjection {
+
+    Long getId();
+
+    BigDecimal getOrcamentoTotal();
+
+    LocalDate getDataInicio();
+
+    LocalDate getPrevisaoFim();
+
+    ClassificacaoRiscoEnum getClassificacaoRiscoEnum();
+}
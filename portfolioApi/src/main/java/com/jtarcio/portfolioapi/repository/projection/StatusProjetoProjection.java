@@ -0,0 +1,10 @@
+package com.jtarcio.portfolioapi.repository.projection;
+
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+
+public interface StatusProjetoProjection {
+
+    Long getId();
+
+    StatusProjetoEnum getStatus();
+}
@@ -0,0 +1,10 @@
+package com.jtarcio.portfolioapi.repository.projection;
+
+public interface TextoProjetoProjection {
+
+    Long getId();
+
+    String getNome();
+
+    String getDescricao();
+}
@@ -0,0 +1,14 @@
+package com.jtarcio.portfolioapi.repository.projection;
+
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+
+import java.math.BigDecimal;
+
+public interface TotalPorStatusProjection {
+
+    StatusProjetoEnum getStatus();
+
+    Long getQuantidade();
+
+    BigDecimal getOrcamentoTotal();
+}
@@ -0,0 +1,15 @@
+package com.jtarcio.portfolioapi.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface TotalTransicaoProjection {
+
+    Long getQuantidade();
+
+    BigDecimal getOrcamentoTotal();
+
+    //soma das durações (em dias) e quantos projetos têm data de término
+    Long getSomaDias();
+
+    Long getComDataFim();
+}
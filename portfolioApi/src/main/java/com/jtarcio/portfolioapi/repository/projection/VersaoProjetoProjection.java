@@ -0,0 +1,10 @@
+package com.jtarcio.portfolioapi.repository.projection;
+
+import java.time.Instant;
+
+public interface VersaoProjetoProjection {
+
+    Long getVersao();
+
+    Instant getAtualizadoEm();
+}
@@ -0,0 +1,14 @@
+package com.jtarcio.portfolioapi.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Busca textual em nome e descrição dos projetos. O motor vem de portfolio.busca.motor:
+ * MEMORIA (índice invertido na aplicação, padrão e usado com H2) ou POSTGRESQL (tsvector e trigramas).
+ */
+public interface BuscaProjetos {
+
+    //ids da página pedida, do mais relevante para o menos relevante, e o total de acertos
+    Page<Long> buscar(String texto, Pageable pageable);
+}
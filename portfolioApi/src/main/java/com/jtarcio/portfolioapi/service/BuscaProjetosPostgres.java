@@ -0,0 +1,55 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.config.IndicesBuscaConfig;
+import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Busca pelo próprio PostgreSQL: índice GIN do tsvector de nome e descrição e índice de trigramas do nome
+ * (criados por IndicesBuscaConfig). Vale para todas as instâncias e enxerga qualquer escrita já confirmada.
+ * Sem a extensão pg_trgm no banco a busca fica só no tsvector, sem tolerar erros de digitação no nome.
+ */
+@Component
+@ConditionalOnProperty(name = "portfolio.busca.motor", havingValue = "POSTGRESQL")
+public class BuscaProjetosPostgres implements BuscaProjetos {
+
+    private final ProjetoRepository projetoRepository;
+    private final IndicesBuscaConfig indicesBusca;
+
+    public BuscaProjetosPostgres(ProjetoRepository projetoRepository, IndicesBuscaConfig indicesBusca) {
+        this.projetoRepository = projetoRepository;
+        this.indicesBusca = indicesBusca;
+    }
+
+    @Override
+    public Page<Long> buscar(String texto, Pageable pageable) {
+        List<String> palavras = TextoBusca.palavras(texto);
+        if (palavras.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (palavras.size() > TextoBusca.MAXIMO_PALAVRAS_CONSULTA) {
+            palavras = palavras.subList(0, TextoBusca.MAXIMO_PALAVRAS_CONSULTA);
+        }
+        if (!indicesBusca.trigramasDisponiveis()) {
+            return projetoRepository.buscarTextoSemTrigramas(consulta(palavras), pageable);
+        }
+        return projetoRepository.buscarTexto(consulta(palavras), String.join(" ", palavras), pageable);
+    }
+
+    //todas as palavras (&), a última também como prefixo; só letras e dígitos chegam aqui, nada a escapar
+    static String consulta(List<String> palavras) {
+        StringBuilder consulta = new StringBuilder();
+        for (int i = 0; i < palavras.size(); i++) {
+            if (i > 0) {
+                consulta.append(" & ");
+            }
+            consulta.append(palavras.get(i));
+        }
+        return consulta.append(":*").toString();
+    }
+}
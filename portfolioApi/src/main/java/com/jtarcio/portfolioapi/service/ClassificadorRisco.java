@@ -0,0 +1,180 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.RegraRisco;
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+import com.jtarcio.portfolioapi.repository.RegraRiscoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Classificação de risco por tabela: as regras (limites de orçamento e de prazo) são compiladas
+ * em uma tabela 3x3 (faixa de orçamento x faixa de prazo) e cada classificação é só uma consulta
+ * nessa tabela, sem alocar objetos. As regras vêm de tb_regras_risco, gravada quando são trocadas em
+ * tempo de execução, ou de portfolio.risco.* enquanto a tabela está vazia. Cada instância lê as regras
+ * ao subir: as que já estão no ar só veem uma troca feita em outra depois de reiniciar.
+ */
+@Component
+public class ClassificadorRisco {
+
+    public static final RegrasRisco REGRAS_PADRAO =
+            new RegrasRisco(new BigDecimal("100000.00"), new BigDecimal("500000.00"), 3, 6);
+
+    private volatile TabelaRisco tabela;
+
+    @Autowired
+    public ClassificadorRisco(@Value("${portfolio.risco.orcamento-baixo:100000.00}") BigDecimal orcamentoBaixo,
+                              @Value("${portfolio.risco.orcamento-alto:500000.00}") BigDecimal orcamentoAlto,
+                              @Value("${portfolio.risco.meses-baixo:3}") int mesesBaixo,
+                              @Value("${portfolio.risco.meses-alto:6}") int mesesAlto,
+                              RegraRiscoRepository regraRiscoRepository) {
+        this(regraRiscoRepository.findById(RegraRisco.VIGENTE)
+                .map(ClassificadorRisco::regrasDe)
+                .orElseGet(() -> new RegrasRisco(orcamentoBaixo, orcamentoAlto, mesesBaixo, mesesAlto)));
+    }
+
+    public ClassificadorRisco(RegrasRisco regras) {
+        this.tabela = TabelaRisco.compilar(regras);
+    }
+
+    public RegrasRisco regras() {
+        return tabela.regras();
+    }
+
+    //troca as regras de uma vez: classificações em andamento terminam com a tabela anterior
+    public void atualizarRegras(RegrasRisco regras) {
+        this.tabela = TabelaRisco.compilar(regras);
+    }
+
+    public static RegrasRisco regrasDe(RegraRisco linha) {
+        return new RegrasRisco(linha.getOrcamentoBaixo(), linha.getOrcamentoAlto(), linha.getMesesBaixo(), linha.getMesesAlto());
+    }
+
+    public static RegraRisco linhaDe(RegrasRisco regras) {
+        return RegraRisco.builder()
+                .id(RegraRisco.VIGENTE)
+                .orcamentoBaixo(regras.orcamentoBaixo())
+                .orcamentoAlto(regras.orcamentoAlto())
+                .mesesBaixo(regras.mesesBaixo())
+                .mesesAlto(regras.mesesAlto())
+                .build();
+    }
+
+    public ClassificacaoRiscoEnum classificar(Projeto projeto) {
+        return classificar(projeto.getOrcamentoTotal(), projeto.getDataInicio(), projeto.getPrevisaoFim());
+    }
+
+    public ClassificacaoRiscoEnum classificar(BigDecimal orcamento, LocalDate dataInicio, LocalDate previsaoFim) {
+        if (orcamento == null || dataInicio == null || previsaoFim == null) {
+            throw new PortfolioException("Orçamento, data de início e previsão de término são obrigatórios para classificar o risco");
+        }
+        return tabela.classificar(orcamento, mesesEntre(dataInicio, previsaoFim));
+    }
+
+    //classifica o lote inteiro com a mesma tabela; retorna quantos projetos mudaram de classificação
+    public int classificarLote(List<Projeto> projetos) {
+        TabelaRisco atual = tabela;
+        int alterados = 0;
+        for (Projeto projeto : projetos) {
+            ClassificacaoRiscoEnum risco = atual.classificar(projeto.getOrcamentoTotal(),
+                    mesesEntre(projeto.getDataInicio(), projeto.getPrevisaoFim()));
+            if (risco != projeto.getClassificacaoRiscoEnum()) {
+                projeto.setClassificacaoRiscoEnum(risco);
+                alterados++;
+            }
+        }
+        return alterados;
+    }
+
+    /**
+     * Meses completos entre as datas, com o mesmo resultado de ChronoUnit.MONTHS.between:
+     * cada data vira (mês proléptico * 32 + dia) e a diferença é dividida por 32.
+     */
+    public static long mesesEntre(LocalDate inicio, LocalDate fim) {
+        long inicioCompactado = mesProleptico(inicio) * 32L + inicio.getDayOfMonth();
+        long fimCompactado = mesProleptico(fim) * 32L + fim.getDayOfMonth();
+        return (fimCompactado - inicioCompactado) / 32;
+    }
+
+    private static long mesProleptico(LocalDate data) {
+        return data.getYear() * 12L + data.getMonthValue() - 1;
+    }
+
+    /**
+     * Regras de classificação:
+     * - BAIXO: orçamento ≤ orcamentoBaixo E prazo ≤ mesesBaixo
+     * - ALTO: orçamento > orcamentoAlto OU prazo > mesesAlto
+     * - MÉDIO: demais casos
+     */
+    public record RegrasRisco(BigDecimal orcamentoBaixo, BigDecimal orcamentoAlto, int mesesBaixo, int mesesAlto) {
+
+        public RegrasRisco {
+            if (orcamentoBaixo == null || orcamentoAlto == null) {
+                throw new PortfolioException("Limites de orçamento são obrigatórios");
+            }
+            if (orcamentoBaixo.signum() <= 0 || orcamentoBaixo.compareTo(orcamentoAlto) > 0) {
+                throw new PortfolioException("Limite de orçamento baixo deve ser positivo e não maior que o alto");
+            }
+            if (mesesBaixo < 0 || mesesBaixo > mesesAlto) {
+                throw new PortfolioException("Limite de meses baixo não pode ser negativo nem maior que o alto");
+            }
+        }
+    }
+
+    //regras compiladas: limites com 2 casas e tabela de resultado por faixa
+    private record TabelaRisco(RegrasRisco regras,
+                               BigDecimal limiteBaixo, BigDecimal limiteAlto,
+                               long mesesBaixo, long mesesAlto,
+                               ClassificacaoRiscoEnum[] resultado) {
+
+        private static final int FAIXAS = 3;
+
+        static TabelaRisco compilar(RegrasRisco regras) {
+            BigDecimal limiteBaixo = duasCasas(regras.orcamentoBaixo());
+            BigDecimal limiteAlto = duasCasas(regras.orcamentoAlto());
+
+            //faixa 0: até o limite baixo, 1: entre os limites, 2: acima do limite alto
+            ClassificacaoRiscoEnum[] resultado = new ClassificacaoRiscoEnum[FAIXAS * FAIXAS];
+            for (int faixaOrcamento = 0; faixaOrcamento < FAIXAS; faixaOrcamento++) {
+                for (int faixaPrazo = 0; faixaPrazo < FAIXAS; faixaPrazo++) {
+                    ClassificacaoRiscoEnum risco;
+                    if (faixaOrcamento == 0 && faixaPrazo == 0) {
+                        risco = ClassificacaoRiscoEnum.BAIXO_RISCO;
+                    } else if (faixaOrcamento == 2 || faixaPrazo == 2) {
+                        risco = ClassificacaoRiscoEnum.ALTO_RISCO;
+                    } else {
+                        risco = ClassificacaoRiscoEnum.MEDIO_RISCO;
+                    }
+                    resultado[faixaOrcamento * FAIXAS + faixaPrazo] = risco;
+                }
+            }
+
+            return new TabelaRisco(regras, limiteBaixo, limiteAlto, regras.mesesBaixo(), regras.mesesAlto(), resultado);
+        }
+
+        //compareTo entre BigDecimals compactos não aloca
+        ClassificacaoRiscoEnum classificar(BigDecimal orcamento, long meses) {
+            int faixaOrcamento = orcamento.compareTo(limiteBaixo) <= 0 ? 0 : orcamento.compareTo(limiteAlto) <= 0 ? 1 : 2;
+            return resultado[faixaOrcamento * FAIXAS + faixaPrazo(meses)];
+        }
+
+        private int faixaPrazo(long meses) {
+            return meses <= mesesBaixo ? 0 : meses <= mesesAlto ? 1 : 2;
+        }
+
+        private static BigDecimal duasCasas(BigDecimal valor) {
+            try {
+                return BigDecimal.valueOf(valor.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact(), 2);
+            } catch (ArithmeticException e) {
+                throw new PortfolioException("Limite de orçamento deve ter no máximo 2 casas decimais: " + valor, e);
+            }
+        }
+    }
+}
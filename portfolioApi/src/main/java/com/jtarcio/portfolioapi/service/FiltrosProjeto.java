@@ -0,0 +1,198 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.dto.request.FiltroProjetoDTO;
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filtros e ordenação da listagem de projetos. Só são aceitas combinações com índice em tb_projetos
+ * (ver Projeto): as colunas de igualdade no começo do índice e, logo depois, a primeira ordenação.
+ * Com faixa (dataInicio, orcamento), a primeira ordenação precisa ser a coluna da faixa, que o índice
+ * lê como um intervalo. Assim a página sai de uma leitura do índice na ordem pedida, sem varrer nem
+ * ordenar a tabela inteira. Filtros por gerente e por membro dispensam a regra: o índice deles já
+ * reduz o resultado a poucos projetos.
+ */
+public final class FiltrosProjeto {
+
+    //campos aceitos em sort, com "-" na frente para ordem decrescente
+    static final Set<String> CAMPOS_ORDENACAO = Set.of("id", "nome", "dataInicio", "previsaoFim", "orcamentoTotal", "status");
+
+    static final String STATUS = "status";
+    static final String RISCO = "risco";
+    static final String DATA_INICIO = "dataInicio";
+    static final String ORCAMENTO = "orcamentoTotal";
+
+    //espelho dos índices de Projeto: filtros de igualdade cobertos e ordenação entregue em seguida
+    private record Indice(Set<String> igualdades, String ordenacao) {
+    }
+
+    private static final List<Indice> INDICES = List.of(
+            new Indice(Set.of(), "id"),
+            new Indice(Set.of(), DATA_INICIO),
+            new Indice(Set.of(), ORCAMENTO),
+            new Indice(Set.of(STATUS), "id"),
+            new Indice(Set.of(STATUS), DATA_INICIO),
+            new Indice(Set.of(RISCO), "id"),
+            new Indice(Set.of(RISCO), ORCAMENTO));
+
+    private FiltrosProjeto() {
+    }
+
+    public static boolean semFiltros(FiltroProjetoDTO filtro) {
+        return filtro == null || filtro.equals(new FiltroProjetoDTO());
+    }
+
+    //lê sort=-dataInicio,nome; sem campos, a ordem fica por conta de ordenacaoAceita (id)
+    public static Sort ordenacao(List<String> campos) {
+        if (campos == null) {
+            return Sort.unsorted();
+        }
+        List<Sort.Order> ordens = new ArrayList<>();
+        Set<String> vistos = new LinkedHashSet<>();
+        for (String campo : campos) {
+            String valor = campo.trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            boolean decrescente = valor.startsWith("-");
+            String propriedade = decrescente ? valor.substring(1) : valor;
+            if (!CAMPOS_ORDENACAO.contains(propriedade)) {
+                throw new PortfolioException("Campo de ordenação inválido: " + propriedade
+                        + ". Aceitos: id, nome, dataInicio, previsaoFim, orcamentoTotal, status");
+            }
+            if (vistos.add(propriedade)) {
+                ordens.add(decrescente ? Sort.Order.desc(propriedade) : Sort.Order.asc(propriedade));
+            }
+        }
+        return Sort.by(ordens);
+    }
+
+    /**
+     * Confere os filtros e se a primeira ordenação tem índice com eles; devolve a ordenação completada
+     * com o id (desempate estável entre páginas). Sem ordenação, vale a coluna da faixa filtrada ou o id.
+     */
+    public static Sort ordenacaoAceita(FiltroProjetoDTO filtro, Sort ordenacao) {
+        validar(filtro);
+        Set<String> faixas = faixas(filtro);
+        if (ordenacao.isUnsorted()) {
+            ordenacao = faixas.isEmpty() ? Sort.by("id") : Sort.by(faixas.iterator().next());
+        }
+        if (ordenacao.getOrderFor("id") == null) {
+            ordenacao = ordenacao.and(Sort.by("id"));
+        }
+
+        String primeira = ordenacao.iterator().next().getProperty();
+        if (filtro != null && (filtro.getGerenteId() != null || filtro.getMembroId() != null)) {
+            return ordenacao;
+        }
+        //com igualdades, só índices que começam por elas; um índice sem igualdades seria lido inteiro filtrando
+        Set<String> igualdades = igualdades(filtro);
+        List<String> aceitas = new ArrayList<>();
+        for (Indice indice : INDICES) {
+            boolean cobreIgualdades = igualdades.isEmpty()
+                    ? indice.igualdades().isEmpty()
+                    : !indice.igualdades().isEmpty() && igualdades.containsAll(indice.igualdades());
+            if (!cobreIgualdades || (!faixas.isEmpty() && !faixas.contains(indice.ordenacao()))) {
+                continue;
+            }
+            if (indice.ordenacao().equals(primeira)) {
+                return ordenacao;
+            }
+            if (!aceitas.contains(indice.ordenacao())) {
+                aceitas.add(indice.ordenacao());
+            }
+        }
+        if (aceitas.isEmpty()) {
+            throw new PortfolioException("Esses filtros não têm índice em comum. Filtre também por gerenteId ou membroId");
+        }
+        throw new PortfolioException("Ordenação por " + primeira + " não tem índice com esses filtros. "
+                + "Ordene por " + String.join(", ", aceitas) + " ou filtre por gerenteId ou membroId");
+    }
+
+    //o cursor segue só a ordem do id, sem filtros: recusa em vez de devolver uma página que ignora o pedido
+    public static void validarCursor(FiltroProjetoDTO filtro, List<String> sort, Integer page) {
+        if (!semFiltros(filtro) || !ordenacao(sort).isUnsorted() || page != null) {
+            throw new PortfolioException("A paginação por cursor (after) não aceita filtros, sort nem page. "
+                    + "Use a listagem por página para filtrar ou ordenar");
+        }
+    }
+
+    public static void validar(FiltroProjetoDTO filtro) {
+        if (filtro == null) {
+            return;
+        }
+        if (filtro.getDataInicioDe() != null && filtro.getDataInicioAte() != null
+                && filtro.getDataInicioDe().isAfter(filtro.getDataInicioAte())) {
+            throw new PortfolioException("dataInicioDe deve ser anterior ou igual a dataInicioAte");
+        }
+        if (filtro.getOrcamentoMin() != null && filtro.getOrcamentoMax() != null
+                && filtro.getOrcamentoMin().compareTo(filtro.getOrcamentoMax()) > 0) {
+            throw new PortfolioException("orcamentoMin deve ser menor ou igual a orcamentoMax");
+        }
+    }
+
+    public static Specification<Projeto> especificacao(FiltroProjetoDTO filtro) {
+        return (projeto, consulta, cb) -> {
+            List<Predicate> condicoes = new ArrayList<>();
+            if (filtro.getStatus() != null) {
+                condicoes.add(cb.equal(projeto.get("status"), filtro.getStatus()));
+            }
+            if (filtro.getRisco() != null) {
+                condicoes.add(cb.equal(projeto.get("classificacaoRiscoEnum"), filtro.getRisco()));
+            }
+            if (filtro.getGerenteId() != null) {
+                //compara a coluna gerente_id, sem join com tb_membros
+                condicoes.add(cb.equal(projeto.get("gerente").get("id"), filtro.getGerenteId()));
+            }
+            if (filtro.getMembroId() != null) {
+                //um membro aparece no máximo uma vez por projeto (uk_projeto_membros): o join não repete linhas
+                condicoes.add(cb.equal(projeto.join("membros").get("id"), filtro.getMembroId()));
+            }
+            if (filtro.getDataInicioDe() != null) {
+                condicoes.add(cb.greaterThanOrEqualTo(projeto.<LocalDate>get("dataInicio"), filtro.getDataInicioDe()));
+            }
+            if (filtro.getDataInicioAte() != null) {
+                condicoes.add(cb.lessThanOrEqualTo(projeto.<LocalDate>get("dataInicio"), filtro.getDataInicioAte()));
+            }
+            if (filtro.getOrcamentoMin() != null) {
+                condicoes.add(cb.greaterThanOrEqualTo(projeto.<BigDecimal>get("orcamentoTotal"), filtro.getOrcamentoMin()));
+            }
+            if (filtro.getOrcamentoMax() != null) {
+                condicoes.add(cb.lessThanOrEqualTo(projeto.<BigDecimal>get("orcamentoTotal"), filtro.getOrcamentoMax()));
+            }
+            return cb.and(condicoes.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Set<String> faixas(FiltroProjetoDTO filtro) {
+        Set<String> faixas = new LinkedHashSet<>();
+        if (filtro != null && (filtro.getDataInicioDe() != null || filtro.getDataInicioAte() != null)) {
+            faixas.add(DATA_INICIO);
+        }
+        if (filtro != null && (filtro.getOrcamentoMin() != null || filtro.getOrcamentoMax() != null)) {
+            faixas.add(ORCAMENTO);
+        }
+        return faixas;
+    }
+
+    private static Set<String> igualdades(FiltroProjetoDTO filtro) {
+        Set<String> igualdades = new LinkedHashSet<>();
+        if (filtro != null && filtro.getStatus() != null) {
+            igualdades.add(STATUS);
+        }
+        if (filtro != null && filtro.getRisco() != null) {
+            igualdades.add(RISCO);
+        }
+        return igualdades;
+    }
+}
@@ -0,0 +1,205 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.dto.request.ProjetoRequestDTO;
+import com.jtarcio.portfolioapi.dto.response.ItemImportacaoDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoImportacaoDTO;
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.mapper.ProjetoMapper;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importa um array JSON de projetos lendo um elemento por vez, sem montar a lista inteira na memória.
+ * Os projetos válidos são gravados em lotes (uma transação e uma busca de membros por lote);
+ * a falha de um projeto é registrada no resultado e não interrompe a importação.
+ */
+@Service
+public class ImportacaoProjetoService {
+
+    private final ProjetoService projetoService;
+    private final MembroService membroService;
+    private final ProjetoMapper projetoMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int tamanhoLote;
+
+    @Autowired
+    public ImportacaoProjetoService(ProjetoService projetoService, MembroService membroService,
+                                    ProjetoMapper projetoMapper, ObjectMapper objectMapper, Validator validator,
+                                    @Value("${portfolio.importacao.tamanho-lote:500}") int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("portfolio.importacao.tamanho-lote deve ser maior que zero");
+        }
+        this.projetoService = projetoService;
+        this.membroService = membroService;
+        this.projetoMapper = projetoMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public ResultadoImportacaoDTO importar(InputStream entrada) {
+        List<ItemImportacaoDTO> itens = new ArrayList<>();
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+        int indice = 0;
+
+        try (JsonParser parser = objectMapper.createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new PortfolioException("O corpo da importação deve ser um array JSON de projetos");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    itens.add(falha(indice, "Array JSON incompleto: importação interrompida"));
+                    break;
+                }
+                JsonNode elemento = objectMapper.readTree(parser);
+                ProjetoRequestDTO dto = converter(indice, elemento, itens);
+                if (dto != null) {
+                    lote.add(new Pendente(indice, dto));
+                    if (lote.size() == tamanhoLote) {
+                        gravarLote(lote, itens);
+                    }
+                }
+                indice++;
+            }
+        } catch (JsonProcessingException e) {
+            //JSON malformado: o que já foi lido é gravado, o restante do corpo não pode ser interpretado
+            itens.add(falha(indice, "JSON inválido, importação interrompida: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            throw new PortfolioException("Erro ao ler o corpo da importação", e);
+        }
+        gravarLote(lote, itens);
+
+        itens.sort(Comparator.comparingInt(ItemImportacaoDTO::getIndice));
+        int importados = (int) itens.stream().filter(ItemImportacaoDTO::isSucesso).count();
+
+        return ResultadoImportacaoDTO.builder()
+                .total(itens.size())
+                .importados(importados)
+                .falhas(itens.size() - importados)
+                .itens(itens)
+                .build();
+    }
+
+    //converte e valida um elemento; em caso de erro registra a falha e devolve null
+    private ProjetoRequestDTO converter(int indice, JsonNode elemento, List<ItemImportacaoDTO> itens) {
+        ProjetoRequestDTO dto;
+        try {
+            dto = objectMapper.treeToValue(elemento, ProjetoRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            itens.add(falha(indice, "Projeto inválido: " + e.getOriginalMessage()));
+            return null;
+        }
+        if (dto == null) {
+            itens.add(falha(indice, "Projeto inválido: elemento nulo"));
+            return null;
+        }
+
+        Set<ConstraintViolation<ProjetoRequestDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            String erros = violacoes.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            itens.add(falha(indice, erros));
+            return null;
+        }
+        return dto;
+    }
+
+    private void gravarLote(List<Pendente> lote, List<ItemImportacaoDTO> itens) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        //gerentes e membros do lote inteiro em uma única busca
+        Set<Long> ids = new HashSet<>();
+        for (Pendente pendente : lote) {
+            ids.add(pendente.dto().getGerenteId());
+            ids.addAll(pendente.dto().getMembrosIds());
+        }
+        Map<Long, Membro> membros = membroService.buscarPorIds(ids);
+
+        List<Pendente> preparados = new ArrayList<>(lote.size());
+        List<Projeto> projetos = new ArrayList<>(lote.size());
+        for (Pendente pendente : lote) {
+            try {
+                projetos.add(preparar(pendente.dto(), membros));
+                preparados.add(pendente);
+            } catch (PortfolioException e) {
+                itens.add(falha(pendente.indice(), e.getMessage()));
+            }
+        }
+        lote.clear();
+
+        if (projetos.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Projeto> salvos = projetoService.createAll(projetos);
+            for (int i = 0; i < salvos.size(); i++) {
+                itens.add(sucesso(preparados.get(i).indice(), salvos.get(i).getId()));
+            }
+        } catch (RuntimeException e) {
+            //o lote foi desfeito: grava um a um para isolar os projetos com problema
+            for (Pendente pendente : preparados) {
+                gravarIndividualmente(pendente, membros, itens);
+            }
+        }
+    }
+
+    private void gravarIndividualmente(Pendente pendente, Map<Long, Membro> membros, List<ItemImportacaoDTO> itens) {
+        try {
+            //entidade nova: a do lote desfeito já recebeu id e coleções da sessão anterior
+            Projeto projeto = preparar(pendente.dto(), membros);
+            Projeto salvo = projetoService.createAll(List.of(projeto)).get(0);
+            itens.add(sucesso(pendente.indice(), salvo.getId()));
+        } catch (PortfolioException e) {
+            itens.add(falha(pendente.indice(), e.getMessage()));
+        } catch (RuntimeException e) {
+            itens.add(falha(pendente.indice(),
+                    "Erro ao gravar projeto: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+        }
+    }
+
+    private Projeto preparar(ProjetoRequestDTO dto, Map<Long, Membro> membros) {
+        Projeto projeto = projetoMapper.toEntity(dto, membros);
+        projetoService.prepararParaCriacao(projeto);
+        return projeto;
+    }
+
+    private static ItemImportacaoDTO sucesso(int indice, Long id) {
+        return ItemImportacaoDTO.builder().indice(indice).sucesso(true).id(id).build();
+    }
+
+    private static ItemImportacaoDTO falha(int indice, String erro) {
+        return ItemImportacaoDTO.builder().indice(indice).sucesso(false).erro(erro).build();
+    }
+
+    private record Pendente(int indice, ProjetoRequestDTO dto) {
+    }
+}
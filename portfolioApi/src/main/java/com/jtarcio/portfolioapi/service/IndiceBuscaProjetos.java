@@ -0,0 +1,183 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.config.ConsistenciaLeitura;
+import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import com.jtarcio.portfolioapi.repository.projection.TextoProjetoProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Busca pelo IndiceInvertido mantido nesta instância. Construído na subida e atualizado depois de cada
+ * commit (ProjetoAlteradoEvent): criação, alteração e exclusão relêem só o projeto alterado, e a criação
+ * em lote relê os ids que vêm no evento. Os demais lotes (sem ids) indexam os projetos com id acima do
+ * último varrido; como a sequência reserva blocos de 50 ids, um projeto gravado fora do ProjetoService com
+ * id abaixo desse ponto fica de fora. A atualização roda em segundo plano, fora da requisição, então a
+ * busca enxerga uma escrita alguns milissegundos depois.
+ * Escritas feitas por outra instância ou direto no banco só entram com reconstruir().
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "portfolio.busca.motor", havingValue = "MEMORIA", matchIfMissing = true)
+public class IndiceBuscaProjetos implements BuscaProjetos {
+
+    private static final int TAMANHO_LOTE = 5000;
+
+    private final ProjetoRepository projetoRepository;
+    private final Executor executor;
+    private final IndiceInvertido indice = new IndiceInvertido();
+
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean novosPendentes = new AtomicBoolean();
+    private final AtomicBoolean atualizando = new AtomicBoolean();
+
+    //a varredura de novos (subida, reconstrução e lotes) roda uma por vez a partir do último id varrido
+    private final ReentrantLock travaVarredura = new ReentrantLock();
+    private long ultimoIdVarrido;
+
+    public IndiceBuscaProjetos(ProjetoRepository projetoRepository,
+                               @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.projetoRepository = projetoRepository;
+        this.executor = executor;
+    }
+
+    @Override
+    public Page<Long> buscar(String texto, Pageable pageable) {
+        IndiceInvertido.Resultado resultado = indice.buscar(texto, pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(resultado.ids(), pageable, resultado.total());
+    }
+
+    //índice inteiro relido do banco; as buscas durante a releitura veem o índice parcial
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        travaVarredura.lock();
+        try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+            indice.limpar();
+            ultimoIdVarrido = 0;
+            varrerNovos();
+        } finally {
+            travaVarredura.unlock();
+        }
+        log.info("Índice de busca construído com {} projetos", indice.quantidade());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarProjeto(ProjetoAlteradoEvent evento) {
+        if (!evento.projetosIds().isEmpty()) {
+            //relidos pelo id: a varredura por id crescente perderia os menores que o último varrido
+            pendentes.addAll(evento.projetosIds());
+        } else if (evento.projetoId() == null) {
+            novosPendentes.set(true);
+        } else if (alteraTexto(evento.operacao())) {
+            pendentes.add(evento.projetoId());
+        } else {
+            //status e membros não mudam nome nem descrição
+            return;
+        }
+        atualizarEmSegundoPlano();
+    }
+
+    private static boolean alteraTexto(ProjetoAlteradoEvent.Operacao operacao) {
+        return operacao == ProjetoAlteradoEvent.Operacao.CRIACAO
+                || operacao == ProjetoAlteradoEvent.Operacao.ATUALIZACAO
+                || operacao == ProjetoAlteradoEvent.Operacao.EXCLUSAO;
+    }
+
+    private void atualizarEmSegundoPlano() {
+        if (!atualizando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::atualizar);
+        } catch (TaskRejectedException e) {
+            atualizando.set(false);
+            log.warn("Atualização do índice de busca recusada pelo executor: {}", e.getMessage());
+        }
+    }
+
+    //relê do primário: o evento vem do commit, e a réplica pode ainda não ter a alteração
+    private void atualizar() {
+        try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+            //eventos que chegam durante a atualização pedem mais uma volta
+            while (novosPendentes.get() || !pendentes.isEmpty()) {
+                if (novosPendentes.getAndSet(false)) {
+                    travaVarredura.lock();
+                    try {
+                        varrerNovos();
+                    } finally {
+                        travaVarredura.unlock();
+                    }
+                }
+                reindexarPendentes();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar o índice de busca", e);
+        } finally {
+            atualizando.set(false);
+        }
+        //evento entre o fim do laço e a liberação da trava
+        if (novosPendentes.get() || !pendentes.isEmpty()) {
+            atualizarEmSegundoPlano();
+        }
+    }
+
+    private void varrerNovos() {
+        List<TextoProjetoProjection> lote;
+        do {
+            lote = projetoRepository.findTextoApos(ultimoIdVarrido, PageRequest.of(0, TAMANHO_LOTE));
+            indexar(lote);
+            if (!lote.isEmpty()) {
+                ultimoIdVarrido = lote.get(lote.size() - 1).getId();
+            }
+        } while (lote.size() == TAMANHO_LOTE);
+    }
+
+    //relê os projetos alterados; os que não voltam do banco foram excluídos
+    private void reindexarPendentes() {
+        List<Long> ids = new ArrayList<>(pendentes);
+        if (ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(pendentes::remove);
+
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+            List<Long> loteIds = ids.subList(inicio, Math.min(ids.size(), inicio + TAMANHO_LOTE));
+            List<TextoProjetoProjection> textos = projetoRepository.findTextoByIdIn(loteIds);
+            indexar(textos);
+
+            Set<Long> encontrados = new HashSet<>();
+            textos.forEach(t -> encontrados.add(t.getId()));
+            loteIds.stream().filter(id -> !encontrados.contains(id)).forEach(indice::remover);
+        }
+    }
+
+    private void indexar(List<TextoProjetoProjection> textos) {
+        if (textos.isEmpty()) {
+            return;
+        }
+        List<IndiceInvertido.Documento> documentos = new ArrayList<>(textos.size());
+        for (TextoProjetoProjection texto : textos) {
+            documentos.add(new IndiceInvertido.Documento(texto.getId(), texto.getNome(), texto.getDescricao()));
+        }
+        indice.indexar(documentos);
+    }
+}
@@ -0,0 +1,452 @@
+package com.jtarcio.portfolioapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de nome e descrição de projetos, em memória: para cada termo, os ids dos projetos
+ * que o contêm (ordenados) e em qual campo. A busca exige todas as palavras da consulta; a última
+ * também vale como prefixo (autocompletar) e palavras que não existem no índice são trocadas por
+ * termos a 1 ou 2 letras de distância (erros de digitação). A relevância soma, por palavra,
+ * peso do casamento (exato, prefixo, aproximado) x raridade do termo x campo (nome vale o dobro).
+ *
+ * <p>Leituras em paralelo, escritas exclusivas (ReentrantReadWriteLock): cada escrita é curta,
+ * um projeto ou um lote já lido do banco.
+ */
+public final class IndiceInvertido {
+
+    static final int CAMPO_NOME = 1;
+    static final int CAMPO_DESCRICAO = 2;
+
+    private static final float PESO_EXATO = 1.0f;
+    private static final float PESO_PREFIXO = 0.7f;
+    private static final float PESO_APROXIMADO = 0.5f;
+
+    //prefixos curtos casam com muitos termos: ficam os mais frequentes
+    private static final int MAXIMO_EXPANSOES = 64;
+    private static final int TAMANHO_MINIMO_PREFIXO = 2;
+
+    //pior acerto primeiro (topo do heap dos melhores): menos relevante e, no empate, o mais antigo; invertido, dá a ordem da resposta
+    private static final Comparator<Acerto> PIOR_PRIMEIRO =
+            Comparator.comparingDouble(Acerto::relevancia).thenComparingLong(Acerto::id);
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postagens> termos = new TreeMap<>();
+    //termos de cada projeto, para retirá-lo do índice sem reler o texto anterior
+    private final Map<Long, String[]> termosPorProjeto = new HashMap<>();
+
+    public record Documento(long id, String nome, String descricao) {
+    }
+
+    public record Resultado(List<Long> ids, long total) {
+
+        public static final Resultado VAZIO = new Resultado(List.of(), 0);
+    }
+
+    public void indexar(long id, String nome, String descricao) {
+        indexar(List.of(new Documento(id, nome, descricao)));
+    }
+
+    //o texto é quebrado fora da trava; só a troca das postagens é exclusiva
+    public void indexar(Collection<Documento> documentos) {
+        List<Map<String, Integer>> campos = new ArrayList<>(documentos.size());
+        for (Documento documento : documentos) {
+            campos.add(camposPorTermo(documento.nome(), documento.descricao()));
+        }
+        trava.writeLock().lock();
+        try {
+            int i = 0;
+            for (Documento documento : documentos) {
+                retirar(documento.id());
+                incluir(documento.id(), campos.get(i++));
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(long id) {
+        trava.writeLock().lock();
+        try {
+            retirar(id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        trava.writeLock().lock();
+        try {
+            termos.clear();
+            termosPorProjeto.clear();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public int quantidade() {
+        trava.readLock().lock();
+        try {
+            return termosPorProjeto.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Página dos projetos que casam com o texto, do mais relevante para o menos relevante, e o total de acertos.
+     * O custo cresce com os documentos do termo mais raro da consulta, não com o tamanho do índice.
+     */
+    public Resultado buscar(String texto, int pagina, int tamanho) {
+        List<String> consulta = TextoBusca.termos(texto);
+        if (consulta.isEmpty() || tamanho <= 0) {
+            return Resultado.VAZIO;
+        }
+        if (consulta.size() > TextoBusca.MAXIMO_PALAVRAS_CONSULTA) {
+            consulta = consulta.subList(0, TextoBusca.MAXIMO_PALAVRAS_CONSULTA);
+        }
+
+        trava.readLock().lock();
+        try {
+            int documentos = termosPorProjeto.size();
+            List<Expansao[]> porPalavra = new ArrayList<>(consulta.size());
+            for (int i = 0; i < consulta.size(); i++) {
+                Expansao[] expansoes = expandir(consulta.get(i), i == consulta.size() - 1, documentos);
+                //todas as palavras precisam casar
+                if (expansoes.length == 0) {
+                    return Resultado.VAZIO;
+                }
+                porPalavra.add(expansoes);
+            }
+
+            //a palavra com menos documentos conduz; as outras só são conferidas nos candidatos dela
+            int condutora = 0;
+            for (int i = 1; i < porPalavra.size(); i++) {
+                if (documentos(porPalavra.get(i)) < documentos(porPalavra.get(condutora))) {
+                    condutora = i;
+                }
+            }
+            List<Expansao[]> outras = new ArrayList<>(porPalavra);
+            Expansao[] principal = outras.remove(condutora);
+
+            int limite = (int) Math.min(Integer.MAX_VALUE, (long) (pagina + 1) * tamanho);
+            Coleta coleta = new Coleta(outras.toArray(new Expansao[0][]), limite);
+            percorrer(principal, coleta);
+            return coleta.resultado(pagina, tamanho);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    //percorre em ordem de id a união das postagens da palavra condutora, com a melhor nota de cada id
+    private static void percorrer(Expansao[] expansoes, Coleta coleta) {
+        if (expansoes.length == 1) {
+            Expansao expansao = expansoes[0];
+            Postagens postagens = expansao.postagens();
+            for (int i = 0; i < postagens.tamanho; i++) {
+                coleta.avaliar(postagens.ids[i], expansao.nota(postagens.campos[i]));
+            }
+            return;
+        }
+
+        int[] posicoes = new int[expansoes.length];
+        PriorityQueue<Integer> fila = new PriorityQueue<>(expansoes.length,
+                Comparator.comparingLong((Integer e) -> expansoes[e].postagens().ids[posicoes[e]]));
+        for (int e = 0; e < expansoes.length; e++) {
+            fila.add(e);
+        }
+        while (!fila.isEmpty()) {
+            int e = fila.poll();
+            long id = expansoes[e].postagens().ids[posicoes[e]];
+            float nota = expansoes[e].nota(expansoes[e].postagens().campos[posicoes[e]]);
+            avancar(expansoes, posicoes, fila, e);
+            //o mesmo id em outras expansões: fica a melhor nota
+            while (!fila.isEmpty() && expansoes[fila.peek()].postagens().ids[posicoes[fila.peek()]] == id) {
+                int outra = fila.poll();
+                nota = Math.max(nota, expansoes[outra].nota(expansoes[outra].postagens().campos[posicoes[outra]]));
+                avancar(expansoes, posicoes, fila, outra);
+            }
+            coleta.avaliar(id, nota);
+        }
+    }
+
+    private static void avancar(Expansao[] expansoes, int[] posicoes, PriorityQueue<Integer> fila, int e) {
+        if (++posicoes[e] < expansoes[e].postagens().tamanho) {
+            fila.add(e);
+        }
+    }
+
+    private static long documentos(Expansao[] expansoes) {
+        long total = 0;
+        for (Expansao expansao : expansoes) {
+            total += expansao.postagens().tamanho;
+        }
+        return total;
+    }
+
+    /**
+     * Termos do índice que valem para a palavra: ela mesma; se for a última, os termos que começam com ela;
+     * se nenhum desses existir, os termos a até 1 (4 a 7 letras) ou 2 (8 ou mais) edições de distância.
+     */
+    private Expansao[] expandir(String palavra, boolean ultima, int documentos) {
+        List<Expansao> expansoes = new ArrayList<>();
+        Postagens exata = termos.get(palavra);
+        if (exata != null) {
+            expansoes.add(Expansao.de(exata, PESO_EXATO, documentos));
+        }
+
+        if (ultima && palavra.length() >= TAMANHO_MINIMO_PREFIXO) {
+            List<Postagens> prefixados = new ArrayList<>();
+            for (Postagens postagens : termos.subMap(palavra, false, palavra + Character.MAX_VALUE, false).values()) {
+                prefixados.add(postagens);
+            }
+            adicionarMaisFrequentes(prefixados, PESO_PREFIXO, documentos, expansoes);
+        }
+
+        if (expansoes.isEmpty()) {
+            adicionarMaisFrequentes(aproximados(palavra, ultima), PESO_APROXIMADO, documentos, expansoes);
+        }
+        return expansoes.toArray(new Expansao[0]);
+    }
+
+    private static void adicionarMaisFrequentes(List<Postagens> candidatos, float peso, int documentos,
+                                                List<Expansao> destino) {
+        if (candidatos.size() > MAXIMO_EXPANSOES) {
+            candidatos.sort(Comparator.comparingInt((Postagens p) -> p.tamanho).reversed());
+            candidatos = candidatos.subList(0, MAXIMO_EXPANSOES);
+        }
+        for (Postagens postagens : candidatos) {
+            destino.add(Expansao.de(postagens, peso, documentos));
+        }
+    }
+
+    //candidatos com a mesma inicial: erros de digitação raramente estão nela, e isso limita a varredura
+    private List<Postagens> aproximados(String palavra, boolean ultima) {
+        int distancia = palavra.length() >= 8 ? 2 : palavra.length() >= 4 ? 1 : 0;
+        if (distancia == 0) {
+            return List.of();
+        }
+        String inicial = palavra.substring(0, 1);
+        List<Postagens> aproximados = new ArrayList<>();
+        for (Map.Entry<String, Postagens> termo : termos.subMap(inicial, inicial + Character.MAX_VALUE).entrySet()) {
+            String candidato = termo.getKey();
+            boolean proximo = Math.abs(candidato.length() - palavra.length()) <= distancia
+                    && distancia(palavra, candidato, distancia) <= distancia;
+            //última palavra: também conta o começo do termo (autocompletar com erro de digitação)
+            if (!proximo && ultima && candidato.length() > palavra.length()) {
+                proximo = distancia(palavra, candidato.substring(0, palavra.length()), distancia) <= distancia;
+            }
+            if (proximo) {
+                aproximados.add(termo.getValue());
+            }
+        }
+        return aproximados;
+    }
+
+    /**
+     * Distância de edição (inserção, remoção, troca e transposição de letras vizinhas) entre a e b,
+     * parando assim que passa do limite: devolve limite + 1 nesse caso.
+     */
+    static int distancia(String a, String b, int limite) {
+        if (Math.abs(a.length() - b.length()) > limite) {
+            return limite + 1;
+        }
+        int[] anterior2 = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menorDaLinha = atual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                atual[j] = valor;
+                menorDaLinha = Math.min(menorDaLinha, valor);
+            }
+            if (menorDaLinha > limite) {
+                return limite + 1;
+            }
+            int[] reciclada = anterior2;
+            anterior2 = anterior;
+            anterior = atual;
+            atual = reciclada;
+        }
+        return Math.min(anterior[b.length()], limite + 1);
+    }
+
+    //uma entrada por termo, com os campos em que ele aparece
+    private static Map<String, Integer> camposPorTermo(String nome, String descricao) {
+        Map<String, Integer> campos = new LinkedHashMap<>();
+        for (String termo : TextoBusca.termos(nome)) {
+            campos.merge(termo, CAMPO_NOME, (a, b) -> a | b);
+        }
+        for (String termo : TextoBusca.termos(descricao)) {
+            campos.merge(termo, CAMPO_DESCRICAO, (a, b) -> a | b);
+        }
+        return campos;
+    }
+
+    private void incluir(long id, Map<String, Integer> campos) {
+        String[] termosDoProjeto = new String[campos.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> campo : campos.entrySet()) {
+            Postagens postagens = termos.computeIfAbsent(campo.getKey(), Postagens::new);
+            postagens.adicionar(id, campo.getValue());
+            //guarda a instância do dicionário: projetos com o mesmo termo compartilham a String
+            termosDoProjeto[i++] = postagens.termo;
+        }
+        termosPorProjeto.put(id, termosDoProjeto);
+    }
+
+    private void retirar(long id) {
+        String[] termosDoProjeto = termosPorProjeto.remove(id);
+        if (termosDoProjeto == null) {
+            return;
+        }
+        for (String termo : termosDoProjeto) {
+            Postagens postagens = termos.get(termo);
+            if (postagens != null && postagens.remover(id) && postagens.tamanho == 0) {
+                termos.remove(termo);
+            }
+        }
+    }
+
+    //ids em ordem crescente e o campo de cada um; projetos novos têm ids maiores e entram no fim
+    private static final class Postagens {
+
+        private final String termo;
+        private long[] ids = new long[2];
+        private byte[] campos = new byte[2];
+        private int tamanho;
+
+        private Postagens(String termo) {
+            this.termo = termo;
+        }
+
+        void adicionar(long id, int campo) {
+            int posicao = posicao(id);
+            if (posicao >= 0) {
+                campos[posicao] |= (byte) campo;
+                return;
+            }
+            posicao = -posicao - 1;
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+                campos = Arrays.copyOf(campos, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            System.arraycopy(campos, posicao, campos, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            campos[posicao] = (byte) campo;
+            tamanho++;
+        }
+
+        boolean remover(long id) {
+            int posicao = posicao(id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            System.arraycopy(campos, posicao + 1, campos, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        //campos em que o termo aparece no projeto (0 se não aparece)
+        int campos(long id) {
+            int posicao = posicao(id);
+            return posicao < 0 ? 0 : campos[posicao];
+        }
+
+        private int posicao(long id) {
+            if (tamanho == 0 || ids[tamanho - 1] < id) {
+                return -(tamanho + 1);
+            }
+            return Arrays.binarySearch(ids, 0, tamanho, id);
+        }
+    }
+
+    //um termo do índice aceito para uma palavra da consulta; raridade calculada uma vez por busca
+    private record Expansao(Postagens postagens, float peso, float raridade) {
+
+        static Expansao de(Postagens postagens, float peso, int documentos) {
+            return new Expansao(postagens, peso, (float) Math.log(1 + (double) documentos / postagens.tamanho));
+        }
+
+        float nota(int campos) {
+            int campo = ((campos & CAMPO_NOME) != 0 ? 2 : 0) + ((campos & CAMPO_DESCRICAO) != 0 ? 1 : 0);
+            return peso * raridade * campo;
+        }
+    }
+
+    private record Acerto(long id, float relevancia) {
+    }
+
+    //confere as demais palavras em cada candidato e guarda só os melhores da página pedida
+    private static final class Coleta {
+
+        private final Expansao[][] outras;
+        private final int limite;
+        private final PriorityQueue<Acerto> melhores;
+        private long total;
+
+        Coleta(Expansao[][] outras, int limite) {
+            this.outras = outras;
+            this.limite = limite;
+            this.melhores = new PriorityQueue<>(Math.min(limite, 1024), PIOR_PRIMEIRO);
+        }
+
+        void avaliar(long id, float nota) {
+            for (Expansao[] expansoes : outras) {
+                float melhor = 0;
+                for (Expansao expansao : expansoes) {
+                    int campos = expansao.postagens().campos(id);
+                    if (campos != 0) {
+                        melhor = Math.max(melhor, expansao.nota(campos));
+                    }
+                }
+                if (melhor == 0) {
+                    return;
+                }
+                nota += melhor;
+            }
+
+            total++;
+            if (melhores.size() < limite) {
+                melhores.add(new Acerto(id, nota));
+            } else {
+                Acerto pior = melhores.peek();
+                if (nota > pior.relevancia() || (nota == pior.relevancia() && id > pior.id())) {
+                    melhores.poll();
+                    melhores.add(new Acerto(id, nota));
+                }
+            }
+        }
+
+        Resultado resultado(int pagina, int tamanho) {
+            List<Acerto> ordenados = new ArrayList<>(melhores);
+            ordenados.sort(PIOR_PRIMEIRO.reversed());
+            int inicio = Math.min(ordenados.size(), pagina * tamanho);
+            List<Long> ids = new ArrayList<>(Math.min(tamanho, ordenados.size() - inicio));
+            for (Acerto acerto : ordenados.subList(inicio, Math.min(ordenados.size(), inicio + tamanho))) {
+                ids.add(acerto.id());
+            }
+            return new Resultado(ids, total);
+        }
+    }
+}
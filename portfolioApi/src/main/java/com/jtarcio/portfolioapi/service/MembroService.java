@@ -1,25 +1,48 @@
 package com.jtarcio.portfolioapi.service;
 
+import com.jtarcio.portfolioapi.cache.MembroCache;
+import com.jtarcio.portfolioapi.client.MembroExternoClient;
 import com.jtarcio.portfolioapi.exception.PortfolioException;
 import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
 import com.jtarcio.portfolioapi.repository.MembroRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class MembroService {
 
+    private static final int LIMITE_PROJETOS_ATIVOS = 3;
+
+    private static final Set<StatusProjetoEnum> STATUS_FINALIZADOS = Arrays.stream(StatusProjetoEnum.values())
+            .filter(StatusProjetoEnum::isStatusFinalizado)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(StatusProjetoEnum.class)));
+
     private final MembroRepository membroRepository;
+    private final MembroCache membroCache;
+    private final MembroExternoClient membroExternoClient;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public MembroService(MembroRepository membroRepository) {
+    public MembroService(MembroRepository membroRepository, MembroCache membroCache,
+                         MembroExternoClient membroExternoClient, ApplicationEventPublisher eventPublisher) {
         this.membroRepository = membroRepository;
+        this.membroCache = membroCache;
+        this.membroExternoClient = membroExternoClient;
+        this.eventPublisher = eventPublisher;
     }
 
     //buscar todos os membros
@@ -27,45 +50,94 @@ public class MembroService {
         return membroRepository.findAll();
     }
 
-    //buscar por id
+    //buscar por id (passa pelo cache)
     public Membro findById(Long id) {
-        return membroRepository.findById(id)
+        Membro membro = membroCache.get(id, chave -> membroRepository.findById(chave).orElse(null));
+        if (membro == null) {
+            throw new PortfolioException("Membro não foi localizado no banco de dados");
+        }
+        return membro;
+    }
+
+    //membro lido do banco (nunca do cache) para ser alocado em projeto, dentro da transação da alocação:
+    //o commit incrementa a versão e falha se outra alocação do mesmo membro commitou no meio
+    public Membro buscarParaAlocacao(Long id) {
+        return membroRepository.findParaAlocacao(id)
                 .orElseThrow(() -> new PortfolioException("Membro não foi localizado no banco de dados"));
     }
 
+    //buscar vários membros em uma consulta; falha listando todos os ids inexistentes
+    public Map<Long, Membro> findAllById(Collection<Long> ids) {
+        Map<Long, Membro> membros = buscarPorIds(ids);
+
+        List<Long> naoLocalizados = ids.stream()
+                .distinct()
+                .filter(id -> !membros.containsKey(id))
+                .toList();
+        if (!naoLocalizados.isEmpty()) {
+            throw new PortfolioException("Membros não localizados no banco de dados: " + naoLocalizados);
+        }
+        return membros;
+    }
+
+    //buscar vários membros em uma consulta; ids inexistentes ficam fora do mapa
+    public Map<Long, Membro> buscarPorIds(Collection<Long> ids) {
+        Set<Long> idsValidos = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (idsValidos.isEmpty()) {
+            return new HashMap<>();
+        }
+        //só os ids que não estão no cache vão ao banco, todos na mesma consulta
+        return membroCache.getAll(idsValidos, faltantes -> {
+            Map<Long, Membro> carregados = new HashMap<>();
+            membroRepository.findAllById(List.copyOf(faltantes)).forEach(m -> carregados.put(m.getId(), m));
+            return carregados;
+        });
+    }
+
     //salvar membro
+    @Transactional
     public Membro save(Membro membro) {
-        return membroRepository.save(membro);
+        boolean existente = membro.getId() != null;
+        Membro salvo = membroRepository.save(membro);
+        if (existente && membroRepository.marcarProjetosDoMembroAlterados(salvo.getId(), Instant.now()) > 0) {
+            eventPublisher.publishEvent(new ProjetoAlteradoEvent(null, ProjetoAlteradoEvent.Operacao.MEMBROS));
+        }
+        membroCache.invalidar(salvo.getId());
+        return salvo;
     }
 
     //deletar membro
     public void delete(Long id) {
         Membro membro = findById(id);
         membroRepository.delete(membro);
+        membroCache.invalidar(id);
+    }
+
+    //descarta o membro do cache, forçando a próxima leitura a ir ao banco
+    public void invalidarCache(Long id) {
+        membroCache.invalidar(id);
+    }
+
+    public Map<String, Object> estatisticasCache() {
+        return membroCache.estatisticas();
     }
 
     //validar se membro pode ser alocado em novo projeto (limite de 3 projetos ativos)
     public boolean podeAlocarEmNovoProjeto(Membro membro) {
-        long projetosAtivos = membro.getProjetos()
-                .stream()
-                .filter(p -> !p.getStatus().isStatusFinalizado())
-                .count();
-        return projetosAtivos < 3;
+        //contagem no banco: não carrega o histórico de projetos do membro
+        long projetosAtivos = membroRepository.contarProjetosDoMembro(membro.getId(), STATUS_FINALIZADOS);
+        return projetosAtivos < LIMITE_PROJETOS_ATIVOS;
     }
 
-    //buscar membros da API mock externa
+    //buscar membros da API mock externa (com circuit breaker, bulkhead e última lista boa)
     public List<Membro> buscarMembroMock() {
-        RestTemplate restTemplate = new RestTemplate();
-        String url = "http://localhost:8080/mock/membros";
-
-        ResponseEntity<List<Membro>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<Membro>>() {
-                }
-        );
-
-        return response.getBody();
+        return membroExternoClient.buscarMembros();
+    }
+
+    public Map<String, Object> estadoFonteExterna() {
+        return membroExternoClient.estado();
     }
 }
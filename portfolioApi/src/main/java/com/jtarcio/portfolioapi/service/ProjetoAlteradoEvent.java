@@ -0,0 +1,25 @@
+package com.jtarcio.portfolioapi.service;
+
+import java.util.List;
+
+/**
+ * Publicado pelo ProjetoService a cada escrita em projetos, e pelos serviços de membros quando a
+ * alteração de um membro muda a representação dos projetos dele.
+ * projetoId é null quando a alteração atinge vários projetos (lotes, reconstrução); projetosIds traz os
+ * projetos do lote quando são conhecidos (criação em lote) e fica vazia nos demais casos.
+ */
+public record ProjetoAlteradoEvent(Long projetoId, Operacao operacao, List<Long> projetosIds) {
+
+    public ProjetoAlteradoEvent(Long projetoId, Operacao operacao) {
+        this(projetoId, operacao, List.of());
+    }
+
+    public enum Operacao {
+        CRIACAO,
+        ATUALIZACAO,
+        EXCLUSAO,
+        STATUS,
+        MEMBROS,
+        LOTE
+    }
+}
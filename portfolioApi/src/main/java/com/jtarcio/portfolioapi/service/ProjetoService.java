@@ -1,87 +1,301 @@
 package com.jtarcio.portfolioapi.service;
 
+import com.jtarcio.portfolioapi.dto.request.FiltroProjetoDTO;
+import com.jtarcio.portfolioapi.dto.response.RejeicaoStatusDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoStatusLoteDTO;
 import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.exception.VersaoDesatualizadaException;
 import com.jtarcio.portfolioapi.model.entity.Membro;
 import com.jtarcio.portfolioapi.model.entity.Projeto;
 import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
 import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
 import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
 import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import com.jtarcio.portfolioapi.repository.RegraRiscoRepository;
+import com.jtarcio.portfolioapi.repository.projection.RiscoProjetoProjection;
+import com.jtarcio.portfolioapi.repository.projection.StatusProjetoProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalTransicaoProjection;
+import com.jtarcio.portfolioapi.repository.projection.VersaoProjetoProjection;
+import com.jtarcio.portfolioapi.service.ClassificadorRisco.RegrasRisco;
+import com.jtarcio.portfolioapi.service.ProjetoAlteradoEvent.Operacao;
+import com.jtarcio.portfolioapi.service.RelatorioPortfolioAgregador.ContribuicaoProjeto;
+import com.jtarcio.portfolioapi.service.RelatorioPortfolioAgregador.Totais;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+//um timer por método público (tags class e method); chamadas internas entre métodos não passam pelo proxy
+@Slf4j
 @Service
+@Timed(value = "portfolio.projetos.servico", histogram = true)
 public class ProjetoService {
 
+    //mesmo tamanho do @BatchSize de membros: uma consulta de membros por lote exportado
+    private static final int TAMANHO_LOTE_EXPORTACAO = 100;
+
+    //a reclassificação só lê colunas simples: lotes maiores, um UPDATE por classificação em cada lote
+    private static final int TAMANHO_LOTE_RECLASSIFICACAO = 1000;
+
+    //classificação dos projetos antigos na subida: múltiplo do batch_size do JDBC (50), um commit por lote
+    private static final int TAMANHO_LOTE_CLASSIFICACAO = 500;
+
+    private static final int LIMITE_MEMBROS_POR_PROJETO = 10;
+
+    //páginas por cursor: o tamanho vai direto para o LIMIT (mais um, para saber se há próxima)
+    private static final int TAMANHO_MAXIMO_PAGINA_CURSOR = 100;
+
+    //alocações que perderam a disputa pelo mesmo projeto ou membro são refeitas do zero
+    private static final int TENTATIVAS_ALOCACAO = 5;
+
+    //a busca ordena por relevância: além disso o usuário deve refinar o texto, não paginar
+    private static final int MAXIMO_RESULTADOS_BUSCA = 1000;
+    private static final int TAMANHO_MAXIMO_TEXTO_BUSCA = 100;
+
     private final ProjetoRepository projetoRepository;
     private final MembroService membroService;
+    private final RelatorioPortfolioAgregador relatorioAgregador;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClassificadorRisco classificadorRisco;
+    private final TransactionTemplate transacao;
+    private final BuscaProjetos buscaProjetos;
+    private final RegraRiscoRepository regraRiscoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public ProjetoService(ProjetoRepository projetoRepository, MembroService membroService) {
+    public ProjetoService(ProjetoRepository projetoRepository, MembroService membroService,
+                          RelatorioPortfolioAgregador relatorioAgregador, ApplicationEventPublisher eventPublisher,
+                          ClassificadorRisco classificadorRisco, PlatformTransactionManager transactionManager,
+                          BuscaProjetos buscaProjetos, RegraRiscoRepository regraRiscoRepository) {
         this.projetoRepository = projetoRepository;
         this.membroService = membroService;
+        this.relatorioAgregador = relatorioAgregador;
+        this.eventPublisher = eventPublisher;
+        this.classificadorRisco = classificadorRisco;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.buscaProjetos = buscaProjetos;
+        this.regraRiscoRepository = regraRiscoRepository;
     }
 
-    //buscar todos os projetos com paginação
+    //buscar todos os projetos com paginação (ids da página primeiro, depois os projetos)
     @Transactional(readOnly = true)
     public Page<Projeto> findAll(Pageable pageable) {
-        Page<Projeto> projetos = projetoRepository.findAll(pageable);
-        projetos.forEach(p -> p.getMembros().size());
-        return projetos;
+        return findAll(pageable, null);
+    }
+
+    //buscar projetos paginados e filtrados; só aceita ordenações com índice para os filtros (FiltrosProjeto)
+    @Transactional(readOnly = true)
+    public Page<Projeto> findAll(Pageable pageable, FiltroProjetoDTO filtro) {
+        Sort ordenacao = FiltrosProjeto.ordenacaoAceita(filtro, pageable.getSort());
+        pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), ordenacao);
+        Page<Long> ids = FiltrosProjeto.semFiltros(filtro)
+                ? projetoRepository.findPaginaDeIds(pageable)
+                : projetoRepository.findPaginaDeIdsPorFiltro(FiltrosProjeto.especificacao(filtro), pageable);
+        List<Projeto> projetos = carregarNaOrdem(ids.getContent());
+        return new PageImpl<>(projetos, pageable, ids.getTotalElements());
+    }
+
+    //buscar projetos depois do último id visto (paginação por cursor, sem count)
+    @Transactional(readOnly = true)
+    public Slice<Projeto> findAllApos(Long ultimoId, int tamanho) {
+        if (tamanho <= 0) {
+            throw new PortfolioException("Tamanho da página deve ser maior que zero");
+        }
+        if (tamanho > TAMANHO_MAXIMO_PAGINA_CURSOR) {
+            throw new PortfolioException("Tamanho da página pode ser no máximo " + TAMANHO_MAXIMO_PAGINA_CURSOR);
+        }
+        //pede um id a mais só para saber se existe próxima página
+        List<Long> ids = projetoRepository.findIdsApos(ultimoId == null ? 0L : ultimoId, PageRequest.of(0, tamanho + 1));
+        boolean temProxima = ids.size() > tamanho;
+        List<Long> idsPagina = temProxima ? ids.subList(0, tamanho) : ids;
+        return new SliceImpl<>(carregarNaOrdem(idsPagina), PageRequest.of(0, tamanho), temProxima);
+    }
+
+    //busca textual em nome e descrição, do mais relevante para o menos relevante
+    @Transactional(readOnly = true)
+    public Page<Projeto> buscar(String texto, Pageable pageable) {
+        if (texto == null || texto.isBlank()) {
+            throw new PortfolioException("Informe o texto da busca");
+        }
+        if (texto.length() > TAMANHO_MAXIMO_TEXTO_BUSCA) {
+            throw new PortfolioException("Texto da busca pode ter no máximo " + TAMANHO_MAXIMO_TEXTO_BUSCA + " caracteres");
+        }
+        if ((long) (pageable.getPageNumber() + 1) * pageable.getPageSize() > MAXIMO_RESULTADOS_BUSCA) {
+            throw new PortfolioException("A busca devolve só os " + MAXIMO_RESULTADOS_BUSCA + " resultados mais relevantes; refine o texto");
+        }
+        Page<Long> ids = buscaProjetos.buscar(texto, pageable);
+        return new PageImpl<>(carregarNaOrdem(ids.getContent()), pageable, ids.getTotalElements());
     }
 
     //buscar todos os projetos (sem paginação)
     @Transactional(readOnly = true)
     public List<Projeto> findAll() {
-        List<Projeto> projetos = projetoRepository.findAll();
-        projetos.forEach(p -> p.getMembros().size());
-        return projetos;
+        return projetoRepository.findAll();
+    }
+
+    /**
+     * Percorre todos os projetos em ordem de id sem carregar a tabela inteira na memória.
+     * Os projetos são lidos em lotes; depois que o lote é entregue ao consumidor
+     * o contexto de persistência é limpo, então o consumidor não deve guardar as entidades.
+     */
+    @Transactional(readOnly = true)
+    public void exportarTodos(Consumer<Projeto> consumidor) {
+        List<Projeto> lote = new ArrayList<>(TAMANHO_LOTE_EXPORTACAO);
+        try (Stream<Projeto> projetos = projetoRepository.streamAll()) {
+            Iterator<Projeto> iterator = projetos.iterator();
+            while (iterator.hasNext()) {
+                lote.add(iterator.next());
+                if (lote.size() == TAMANHO_LOTE_EXPORTACAO) {
+                    entregarLote(lote, consumidor);
+                }
+            }
+        }
+        entregarLote(lote, consumidor);
+    }
+
+    private void entregarLote(List<Projeto> lote, Consumer<Projeto> consumidor) {
+        //inicializa os membros do lote inteiro com uma consulta em lote
+        lote.forEach(p -> p.getMembros().size());
+        lote.forEach(consumidor);
+        lote.clear();
+        entityManager.clear();
     }
 
     //projeto por id
     @Transactional(readOnly = true)
     public Projeto findById(Long id) {
-        Projeto projeto = projetoRepository.findById(id)
+        return projetoRepository.findById(id)
                 .orElseThrow(() -> new PortfolioException("Não encontramos esse ID: " + id));
-        projeto.getMembros().size();
-        return projeto;
+    }
+
+    //versão atual do projeto sem carregá-lo (vazio se não existir)
+    @Transactional(readOnly = true)
+    public Optional<VersaoProjetoProjection> buscarVersao(Long id) {
+        return projetoRepository.findVersaoById(id);
+    }
+
+    //carrega os projetos (plano de listagem) mantendo a ordem dos ids
+    private List<Projeto> carregarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Projeto> porId = new HashMap<>();
+        projetoRepository.findByIdIn(ids).forEach(p -> porId.put(p.getId(), p));
+
+        List<Projeto> projetos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Projeto projeto = porId.get(id);
+            if (projeto != null) {
+                projetos.add(projeto);
+            }
+        }
+        //inicializa os membros da página inteira com uma consulta em lote
+        projetos.forEach(p -> p.getMembros().size());
+        return projetos;
     }
 
 
     //criar novo projeto com validações
     @Transactional
     public Projeto create(Projeto projeto) {
+        prepararParaCriacao(projeto);
+
+        Projeto salvo = projetoRepository.save(projeto);
+        relatorioAgregador.registrarInclusao(salvo);
+        publicar(salvo.getId(), Operacao.CRIACAO);
+        return salvo;
+    }
+
+    //valida um projeto novo e calcula a classificação de risco, sem gravar
+    public void prepararParaCriacao(Projeto projeto) {
         validarCamposObrigatorios(projeto);
         validarDatas(projeto);
         validarGerente(projeto);
-        validarMembros(projeto);
+        validarMembros(projeto, Set.of());
 
         projeto.setClassificacaoRiscoEnum(calcularClassificacaoRisco(projeto));
+    }
 
-        return projetoRepository.save(projeto);
+    /**
+     * Grava um lote de projetos já preparados (ver prepararParaCriacao) em uma única transação.
+     * Com ids de sequência e hibernate.jdbc.batch_size os INSERTs vão ao banco em lotes JDBC.
+     * Se qualquer projeto falhar, nenhum do lote é gravado.
+     */
+    @Transactional
+    public List<Projeto> createAll(List<Projeto> projetos) {
+        List<Projeto> salvos = projetoRepository.saveAll(projetos);
+        //força os INSERTs aqui para que erros do banco apareçam como falha deste lote
+        entityManager.flush();
+        salvos.forEach(relatorioAgregador::registrarInclusao);
+        //ids no evento: com allocationSize 50, um lote que commita depois de outro pode ter ids menores
+        eventPublisher.publishEvent(new ProjetoAlteradoEvent(null, Operacao.LOTE,
+                salvos.stream().map(Projeto::getId).toList()));
+        return salvos;
     }
 
     //atualizar projeto existente
     @Transactional
     public Projeto update(Long id, Projeto projetoAtualizado) {
+        return update(id, projetoAtualizado, null);
+    }
+
+    //atualizar projeto só se ainda estiver na versão esperada (null não confere a versão)
+    @Transactional
+    public Projeto update(Long id, Projeto projetoAtualizado, Long versaoEsperada) {
         Projeto projetoExistente = findById(id);
+        if (versaoEsperada != null && !versaoEsperada.equals(projetoExistente.getVersao())) {
+            throw new VersaoDesatualizadaException(
+                    "Projeto " + id + " foi alterado por outra operação (versão atual: " + projetoExistente.getVersao() + ")");
+        }
+        ContribuicaoProjeto contribuicaoAnterior = ContribuicaoProjeto.de(projetoExistente);
 
         validarCamposObrigatorios(projetoAtualizado);
         validarDatas(projetoAtualizado);
         validarGerente(projetoAtualizado);
-        validarMembros(projetoAtualizado);
+        //membro inativo que já estava no projeto continua nele; só não pode entrar agora
+        validarMembros(projetoAtualizado, projetoExistente.getMembros().stream()
+                .map(Membro::getId)
+                .collect(Collectors.toSet()));
 
         projetoExistente.setNome(projetoAtualizado.getNome());
         projetoExistente.setDataInicio(projetoAtualizado.getDataInicio());
@@ -94,7 +308,10 @@ public class ProjetoService {
 
         projetoExistente.setClassificacaoRiscoEnum(calcularClassificacaoRisco(projetoExistente));
 
-        return projetoRepository.save(projetoExistente);
+        Projeto salvo = projetoRepository.save(projetoExistente);
+        relatorioAgregador.registrarAlteracao(contribuicaoAnterior, salvo);
+        publicar(id, Operacao.ATUALIZACAO);
+        return salvo;
     }
 
     //deleta projeto com validação de status
@@ -110,46 +327,104 @@ public class ProjetoService {
             );
         }
         projetoRepository.delete(projeto);
+        relatorioAgregador.registrarExclusao(ContribuicaoProjeto.de(projeto));
+        publicar(id, Operacao.EXCLUSAO);
     }
 
     /**
-     * Calcular classificação de risco
-     * Regras:
+     * Calcular classificação de risco (regras e limites em ClassificadorRisco)
+     * Regras padrão:
      * - BAIXO: orçamento ≤ R$ 100.000 E prazo ≤ 3 meses
      * - MÉDIO: orçamento entre R$ 100.001 e R$ 500.000 OU prazo entre 3 a 6 meses
      * - ALTO: orçamento > R$ 500.000 OU prazo > 6 meses
      */
     public ClassificacaoRiscoEnum calcularClassificacaoRisco(Projeto projeto) {
-        BigDecimal orcamento = projeto.getOrcamentoTotal();
-        long meses = ChronoUnit.MONTHS.between(
-                projeto.getDataInicio(),
-                projeto.getPrevisaoFim()
-        );
+        return classificadorRisco.classificar(projeto);
+    }
 
-        //orçamento até 100k E prazo até 3 meses
-        if (orcamento.compareTo(new BigDecimal("100000")) <= 0 && meses <= 3) {
-            return ClassificacaoRiscoEnum.BAIXO_RISCO;
-        }
+    //classifica projetos gravados antes de a classificação de risco ser persistida; cada lote é confirmado
+    //na sua própria transação, sem prender linhas nem o contexto de persistência até o fim da tabela
+    @EventListener(ApplicationReadyEvent.class)
+    public void classificarProjetosSemRisco() {
+        Pageable lote = PageRequest.of(0, TAMANHO_LOTE_CLASSIFICACAO);
+        Integer classificados;
+        do {
+            classificados = transacao.execute(status -> {
+                List<Projeto> pendentes = projetoRepository.findByClassificacaoRiscoEnumIsNull(lote);
+                classificadorRisco.classificarLote(pendentes);
+                return pendentes.size();
+            });
+        } while (classificados != null && classificados > 0);
+    }
+
+    public RegrasRisco regrasRisco() {
+        return classificadorRisco.regras();
+    }
+
+    //grava os limites de risco e reclassifica o portfólio inteiro com eles; as escritas desta instância
+    //só passam a usá-los depois do commit (com rollback, nada muda)
+    @Transactional
+    public int alterarRegrasRisco(RegrasRisco regras) {
+        regraRiscoRepository.save(ClassificadorRisco.linhaDe(regras));
+        int alterados = reclassificar(new ClassificadorRisco(regras));
+        aposCommit(() -> classificadorRisco.atualizarRegras(regras));
+        return alterados;
+    }
+
+    /**
+     * Reclassifica todos os projetos com as regras atuais.
+     * Lê só os campos da classificação, em lotes por cursor de id, e grava os que mudaram
+     * com um UPDATE por classificação em cada lote. Retorna quantos projetos mudaram.
+     */
+    @Transactional
+    public int reclassificarPortfolio() {
+        return reclassificar(classificadorRisco);
+    }
 
-        //orçamento acima de 500k OU prazo maior que 6 meses
-        if (orcamento.compareTo(new BigDecimal("500000")) > 0 || meses > 6) {
-            return ClassificacaoRiscoEnum.ALTO_RISCO;
+    private int reclassificar(ClassificadorRisco classificador) {
+        int alterados = 0;
+        Instant agora = Instant.now();
+        Pageable lote = PageRequest.of(0, TAMANHO_LOTE_RECLASSIFICACAO);
+        List<RiscoProjetoProjection> linhas = projetoRepository.findRiscoApos(0L, lote);
+        while (!linhas.isEmpty()) {
+            Map<ClassificacaoRiscoEnum, List<Long>> idsPorRisco = new EnumMap<>(ClassificacaoRiscoEnum.class);
+            for (RiscoProjetoProjection linha : linhas) {
+                ClassificacaoRiscoEnum risco = classificador.classificar(
+                        linha.getOrcamentoTotal(), linha.getDataInicio(), linha.getPrevisaoFim());
+                if (risco != linha.getClassificacaoRiscoEnum()) {
+                    idsPorRisco.computeIfAbsent(risco, r -> new ArrayList<>()).add(linha.getId());
+                }
+            }
+            for (Map.Entry<ClassificacaoRiscoEnum, List<Long>> grupo : idsPorRisco.entrySet()) {
+                alterados += projetoRepository.alterarClassificacaoRisco(grupo.getKey(), agora, grupo.getValue());
+            }
+            Long ultimoId = linhas.get(linhas.size() - 1).getId();
+            linhas = projetoRepository.findRiscoApos(ultimoId, lote);
         }
 
-        //casos intermediários
-        return ClassificacaoRiscoEnum.MEDIO_RISCO;
+        if (alterados > 0) {
+            publicar(null, Operacao.LOTE);
+        }
+        return alterados;
     }
 
     //alterar status do projeto (com validação de transição sequencial)
     @Transactional
     public Projeto alterarStatus(Long id, StatusProjetoEnum novoStatus) {
-        Projeto projeto = findById(id);
+        return alterarStatus(findById(id), novoStatus);
+    }
+
+    private Projeto alterarStatus(Projeto projeto, StatusProjetoEnum novoStatus) {
         StatusProjetoEnum statusAtual = projeto.getStatus();
+        ContribuicaoProjeto contribuicaoAnterior = ContribuicaoProjeto.de(projeto);
 
         //a qualquer momento pode cancelar
         if (novoStatus == StatusProjetoEnum.CANCELADO) {
             projeto.setStatus(novoStatus);
-            return projetoRepository.save(projeto);
+            Projeto salvo = projetoRepository.save(projeto);
+            relatorioAgregador.registrarAlteracao(contribuicaoAnterior, salvo);
+            publicar(salvo.getId(), Operacao.STATUS);
+            return salvo;
         }
 
         //validar transição sequencial
@@ -167,7 +442,10 @@ public class ProjetoService {
             projeto.setDataFim(LocalDate.now());
         }
 
-        return projetoRepository.save(projeto);
+        Projeto salvo = projetoRepository.save(projeto);
+        relatorioAgregador.registrarAlteracao(contribuicaoAnterior, salvo);
+        publicar(salvo.getId(), Operacao.STATUS);
+        return salvo;
     }
 
     //avançar para próximo status na sequência
@@ -175,14 +453,172 @@ public class ProjetoService {
     public Projeto avancarProximoStatus(Long id) {
         Projeto projeto = findById(id);
         StatusProjetoEnum proximoStatus = projeto.getStatus().proximoStatus();
-        return alterarStatus(id, proximoStatus);
+        return alterarStatus(projeto, proximoStatus);
     }
 
-    //adicionar membro ao projeto
+    /**
+     * Altera o status de vários projetos de uma vez, por ids e/ou pelo status atual.
+     * A regra de transição é checada por status de origem, não por projeto, e as transições
+     * válidas viram um único UPDATE por status de origem (com a data de término ao encerrar).
+     * Projetos inexistentes, fora do filtro ou com transição inválida voltam como rejeitados.
+     */
     @Transactional
+    public ResultadoStatusLoteDTO alterarStatusEmLote(Collection<Long> ids, StatusProjetoEnum statusAtual,
+                                                     StatusProjetoEnum novoStatus) {
+        if (novoStatus == null) {
+            throw new PortfolioException("Status é obrigatório");
+        }
+        boolean porIds = ids != null && !ids.isEmpty();
+        if (!porIds && statusAtual == null) {
+            throw new PortfolioException("Informe os ids dos projetos ou o status atual");
+        }
+
+        Set<StatusProjetoEnum> origensPermitidas = StatusProjetoEnum.origensPermitidas(novoStatus);
+        LocalDate dataFim = novoStatus == StatusProjetoEnum.ENCERRADO ? LocalDate.now() : null;
+
+        //só pelo filtro: a regra vale para o status inteiro
+        if (!porIds) {
+            if (!origensPermitidas.contains(statusAtual)) {
+                throw new PortfolioException(
+                        String.format("Transição inválida de %s para %s. Deve seguir a sequência. :)",
+                                statusAtual, novoStatus)
+                );
+            }
+            Instant agora = agoraNaPrecisaoDoBanco();
+            int alterados = projetoRepository.alterarStatusPorOrigem(statusAtual, novoStatus, dataFim, agora);
+            if (alterados > 0) {
+                registrarTransicao(statusAtual, novoStatus, alterados,
+                        projetoRepository.totalizarTransicao(novoStatus, agora));
+                publicar(null, Operacao.LOTE);
+            }
+            return ResultadoStatusLoteDTO.builder()
+                    .novoStatus(novoStatus)
+                    .alterados(alterados)
+                    .idsAlterados(List.of())
+                    .rejeitados(List.of())
+                    .build();
+        }
+
+        Set<Long> pedidos = new LinkedHashSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(pedidos::add);
+        Map<Long, StatusProjetoEnum> statusPorId = buscarStatus(pedidos);
+
+        List<RejeicaoStatusDTO> rejeitados = new ArrayList<>();
+        Map<StatusProjetoEnum, List<Long>> idsPorOrigem = new EnumMap<>(StatusProjetoEnum.class);
+        for (Long id : pedidos) {
+            StatusProjetoEnum origem = statusPorId.get(id);
+            if (origem == null) {
+                rejeitados.add(rejeicao(id, null, "Não encontramos esse ID: " + id));
+            } else if (statusAtual != null && origem != statusAtual) {
+                rejeitados.add(rejeicao(id, origem, "Projeto não está no status " + statusAtual));
+            } else if (!origensPermitidas.contains(origem)) {
+                rejeitados.add(rejeicao(id, origem,
+                        String.format("Transição inválida de %s para %s", origem, novoStatus)));
+            } else {
+                idsPorOrigem.computeIfAbsent(origem, s -> new ArrayList<>()).add(id);
+            }
+        }
+
+        int alterados = 0;
+        Instant agora = agoraNaPrecisaoDoBanco();
+        List<Long> candidatos = new ArrayList<>();
+        for (Map.Entry<StatusProjetoEnum, List<Long>> grupo : idsPorOrigem.entrySet()) {
+            int alteradosGrupo = projetoRepository.alterarStatusPorIds(
+                    grupo.getKey(), novoStatus, dataFim, agora, grupo.getValue());
+            if (alteradosGrupo > 0) {
+                registrarTransicao(grupo.getKey(), novoStatus, alteradosGrupo,
+                        projetoRepository.totalizarTransicaoPorIds(novoStatus, agora, grupo.getValue()));
+            }
+            alterados += alteradosGrupo;
+            candidatos.addAll(grupo.getValue());
+        }
+
+        List<Long> idsAlterados = candidatos;
+        if (alterados < candidatos.size()) {
+            //algum projeto mudou de status entre a leitura e o UPDATE
+            Map<Long, StatusProjetoEnum> statusDepois = buscarStatus(candidatos);
+            idsAlterados = new ArrayList<>();
+            for (Long id : candidatos) {
+                StatusProjetoEnum status = statusDepois.get(id);
+                if (status == novoStatus) {
+                    idsAlterados.add(id);
+                } else {
+                    rejeitados.add(rejeicao(id, status, "Status alterado por outra operação, tente novamente"));
+                }
+            }
+        }
+
+        if (alterados > 0) {
+            publicar(null, Operacao.LOTE);
+        }
+        return ResultadoStatusLoteDTO.builder()
+                .novoStatus(novoStatus)
+                .alterados(alterados)
+                .idsAlterados(idsAlterados)
+                .rejeitados(rejeitados)
+                .build();
+    }
+
+    //totais dos projetos que o UPDATE acabou de alterar vão ao relatório como delta, depois do commit
+    private void registrarTransicao(StatusProjetoEnum origem, StatusProjetoEnum destino, int alterados,
+                                    TotalTransicaoProjection total) {
+        if (total.getQuantidade() == null || total.getQuantidade() != alterados) {
+            //outra escrita gravou a mesma data de alteração: a leitura não isolou só estas linhas
+            log.warn("Transição {} -> {}: {} projetos alterados, {} totalizados; relatório será reconstruído",
+                    origem, destino, alterados, total.getQuantidade());
+            relatorioAgregador.registrarAlteracaoEmMassa();
+            return;
+        }
+        relatorioAgregador.registrarTransicao(origem, destino, total);
+    }
+
+    //a consulta dos alterados compara a data de alteração por igualdade: mesma precisão da coluna (micros)
+    private static Instant agoraNaPrecisaoDoBanco() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private Map<Long, StatusProjetoEnum> buscarStatus(Collection<Long> ids) {
+        Map<Long, StatusProjetoEnum> statusPorId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (StatusProjetoProjection linha : projetoRepository.findStatusByIdIn(ids)) {
+                statusPorId.put(linha.getId(), linha.getStatus());
+            }
+        }
+        return statusPorId;
+    }
+
+    private static RejeicaoStatusDTO rejeicao(Long id, StatusProjetoEnum statusAtual, String motivo) {
+        return RejeicaoStatusDTO.builder().id(id).statusAtual(statusAtual).motivo(motivo).build();
+    }
+
+    /**
+     * Adicionar membro ao projeto.
+     * Os limites (10 membros no projeto, 3 projetos ativos por membro) são conferidos sem lock:
+     * a versão do projeto muda com a lista de membros e a do membro é forçada a mudar na alocação,
+     * então de duas alocações concorrentes que passaram pelas mesmas contagens só a primeira commita.
+     * A outra é refeita em nova transação, já enxergando a primeira.
+     */
     public Projeto adicionarMembro(Long projetoId, Long membroId) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                Projeto salvo = transacao.execute(status -> alocarMembro(projetoId, membroId));
+                //a cópia em cache ficou com a versão anterior
+                membroService.invalidarCache(membroId);
+                return salvo;
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= TENTATIVAS_ALOCACAO) {
+                    throw e;
+                }
+                aguardarNovaTentativa(tentativa, e);
+            }
+        }
+    }
+
+    private Projeto alocarMembro(Long projetoId, Long membroId) {
         Projeto projeto = findById(projetoId);
-        Membro membro = membroService.findById(membroId);
+        //lido antes das contagens: a versão lida aqui é a que o commit confere
+        Membro membro = membroService.buscarParaAlocacao(membroId);
+        ContribuicaoProjeto contribuicaoAnterior = ContribuicaoProjeto.de(projeto);
 
         //validar se já está na lista
         if (projeto.getMembros().contains(membro)) {
@@ -190,10 +626,14 @@ public class ProjetoService {
         }
 
         //limite de 10 funcionarios no projeto
-        if (projeto.getMembros().size() >= 10) {
+        if (projeto.getMembros().size() >= LIMITE_MEMBROS_POR_PROJETO) {
             throw new PortfolioException("Projeto já possui o máximo de 10 pessoas alocadas!");
         }
 
+        //removido da fonte externa: fica nos projetos em que já estava, mas não entra em novos
+        if (!membro.isAtivo()) {
+            throw new PortfolioException("Membro está inativo e não pode ser alocado");
+        }
 
         if (membro.getAtribuicaoEnum() != AtribuicaoEnum.FUNCIONARIO) {
             throw new PortfolioException("Apenas membros com atribuição FUNCIONARIO podem ser associados");
@@ -205,7 +645,20 @@ public class ProjetoService {
         }
 
         projeto.getMembros().add(membro);
-        return projetoRepository.save(projeto);
+        Projeto salvo = projetoRepository.save(projeto);
+        relatorioAgregador.registrarAlteracao(contribuicaoAnterior, salvo);
+        publicar(projetoId, Operacao.MEMBROS);
+        return salvo;
+    }
+
+    //espera curta e aleatória, crescendo a cada tentativa, para que as concorrentes não colidam de novo
+    private static void aguardarNovaTentativa(int tentativa, ConcurrencyFailureException causa) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L << tentativa));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw causa;
+        }
     }
 
     //remover membro de prjeto
@@ -213,6 +666,7 @@ public class ProjetoService {
     public Projeto removerMembro(Long projetoId, Long membroId) {
         Projeto projeto = findById(projetoId);
         Membro membro = membroService.findById(membroId);
+        ContribuicaoProjeto contribuicaoAnterior = ContribuicaoProjeto.de(projeto);
 
 
         if (projeto.getMembros().size() <= 1) {
@@ -220,68 +674,70 @@ public class ProjetoService {
         }
 
         projeto.getMembros().remove(membro);
-        return projetoRepository.save(projeto);
+        Projeto salvo = projetoRepository.save(projeto);
+        relatorioAgregador.registrarAlteracao(contribuicaoAnterior, salvo);
+        publicar(projetoId, Operacao.MEMBROS);
+        return salvo;
     }
 
-    //gerar relatório resumido do portfólio
-    @Transactional(readOnly = true)
+    //gerar relatório resumido do portfólio (totais mantidos pelo agregador ou agregados no banco)
     public Map<String, Object> gerarRelatorioPortfolio() {
-        List<Projeto> todosProjetos = projetoRepository.findAll();
-
-        todosProjetos.forEach(p -> p.getMembros().size());
+        Totais totais = relatorioAgregador.isInicializado()
+                ? relatorioAgregador.totais()
+                : relatorioAgregador.consultarBanco();
 
         Map<String, Object> relatorio = new HashMap<>();
 
         // • Quantidade de projetos por status
-        Map<StatusProjetoEnum, Long> projetosPorStatus = todosProjetos
-                .stream()
-                .collect(Collectors
-                        .groupingBy(Projeto::getStatus, Collectors.counting()));
-
-        relatorio.put("Quantidade por Status", projetosPorStatus);
-
+        relatorio.put("Quantidade por Status", totais.quantidadePorStatus());
 
         // • Total orçado por status
-        Map<StatusProjetoEnum, BigDecimal> orcamentoPorStatus = todosProjetos
-                .stream()
-                .collect(Collectors.groupingBy(Projeto::getStatus, Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Projeto::getOrcamentoTotal,
-                                BigDecimal::add
-                        )
-                ));
-
-        relatorio.put("Total orçado por status", orcamentoPorStatus);
-
+        relatorio.put("Total orçado por status", totais.orcamentoPorStatus());
 
         // • Média de duração dos projetos encerrados
-        List<Projeto> projetosEncerrados = todosProjetos
-                .stream()
-                .filter(p -> p.getStatus() == StatusProjetoEnum.ENCERRADO && p.getDataFim() != null)
-                .toList();
-
-        if (!projetosEncerrados.isEmpty()) {
-            double mediaDias = projetosEncerrados
-                    .stream()
-                    .mapToLong(p -> ChronoUnit.DAYS.between(p.getDataInicio(), p.getDataFim()))
-                    .average()
-                    .orElse(0.00);
+        if (totais.quantidadeEncerrados() > 0) {
+            double mediaDias = (double) totais.somaDiasEncerrados() / totais.quantidadeEncerrados();
             relatorio.put("Media da duracao dos projetos finalizados", Math.round(mediaDias) + " dias");
         } else {
             relatorio.put("Media duracao projetos finalziado", "Nenhum projeto finalizado");
         }
 
         // • Total de membros únicos alocados
-        Set<Membro> membrosUnicos = todosProjetos
-                .stream()
-                .flatMap(p -> p.getMembros().stream())
-                .collect(Collectors.toSet());
-
-        relatorio.put("Total de membros únicos é:", membrosUnicos.size());
+        relatorio.put("Total de membros únicos é:", totais.membrosUnicos());
 
         return relatorio;
     }
 
+    //relatório com os totais recalculados a partir do banco: inclui escritas que não passaram por esta instância
+    public Map<String, Object> gerarRelatorioPortfolioDoBanco() {
+        relatorioAgregador.reconstruir();
+        return gerarRelatorioPortfolio();
+    }
+
+    //recalcula os totais do relatório a partir do banco
+    public void reconstruirRelatorioPortfolio() {
+        relatorioAgregador.reconstruir();
+        publicar(null, Operacao.LOTE);
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    //ouvintes com @TransactionalEventListener só recebem depois do commit
+    private void publicar(Long projetoId, Operacao operacao) {
+        eventPublisher.publishEvent(new ProjetoAlteradoEvent(projetoId, operacao));
+    }
+
     private void validarCamposObrigatorios(Projeto projeto) {
         if (projeto.getNome().isBlank()) {
             throw new PortfolioException("Nome do projeto é obrigatório");
@@ -320,20 +776,34 @@ public class ProjetoService {
         }
     }
 
-    private void validarMembros(Projeto projeto) {
+    private void validarMembros(Projeto projeto, Set<Long> jaAlocados) {
         if (projeto.getMembros() == null || projeto.getMembros().isEmpty()) {
             throw new PortfolioException("Projeto deve ter pelo menos 1 membro");
         }
-        if (projeto.getMembros().size() > 10) {
+        if (projeto.getMembros().size() > LIMITE_MEMBROS_POR_PROJETO) {
             throw new PortfolioException("Projeto pode ter no máximo 10 membros");
         }
 
+        //membros que vieram do mapper já estão carregados; só busca (em lote) os que vieram apenas com id
+        List<Long> idsNaoCarregados = projeto.getMembros()
+                .stream()
+                .filter(m -> m.getAtribuicaoEnum() == null)
+                .map(Membro::getId)
+                .toList();
+        Map<Long, Membro> carregados = idsNaoCarregados.isEmpty()
+                ? Map.of()
+                : membroService.findAllById(idsNaoCarregados);
+
         // Validar
         for (Membro membro : projeto.getMembros()) {
-            Membro membroCompleto = membroService.findById(membro.getId());
+            Membro membroCompleto = membro.getAtribuicaoEnum() != null ? membro : carregados.get(membro.getId());
             if (membroCompleto.getAtribuicaoEnum() != AtribuicaoEnum.FUNCIONARIO) {
                 throw new PortfolioException("Apenas membros com atribuição FUNCIONARIO podem ser associados");
             }
+            //mesma regra de alocarMembro: removido da fonte externa não entra em projetos
+            if (!membroCompleto.isAtivo() && !jaAlocados.contains(membroCompleto.getId())) {
+                throw new PortfolioException("Membro " + membroCompleto.getId() + " está inativo e não pode ser alocado");
+            }
         }
     }
 
@@ -0,0 +1,397 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.config.ConsistenciaLeitura;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import com.jtarcio.portfolioapi.repository.projection.AlocacoesMembroProjection;
+import com.jtarcio.portfolioapi.repository.projection.DuracaoProjetosProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalPorStatusProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalTransicaoProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mantém os totais do relatório do portfólio atualizados a cada escrita,
+ * para que o relatório não precise varrer a tabela de projetos.
+ * As alterações só são aplicadas depois do commit da transação que as originou, como deltas que comutam
+ * (a ordem em que os commits chegam aqui não muda o resultado).
+ * Uma reconstrução não perde deltas: os commits ficam parados só enquanto ela abre a foto do banco, então
+ * cada delta ou está na foto ou é guardado e reaplicado sobre ela no fim.
+ */
+@Slf4j
+@Component
+public class RelatorioPortfolioAgregador {
+
+    private final ProjetoRepository projetoRepository;
+    private final Executor executor;
+    private final TransactionTemplate leitura;
+
+    //alterações em massa seguidas pedem uma única releitura, começada depois da última delas
+    private final AtomicBoolean reconstrucaoPendente = new AtomicBoolean();
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+
+    //leitura: commits que levam deltas ao agregador; escrita: a reconstrução abrindo a foto
+    private final ReadWriteLock commits = new ReentrantReadWriteLock();
+    //uma reconstrução por vez (inicialização, pedido manual e segundo plano)
+    private final Object reconstrucao = new Object();
+    //deltas confirmados depois da foto da reconstrução em andamento (null fora dela)
+    private List<Runnable> aposFoto;
+    private boolean fotoDesatualizada;
+
+    private final Map<StatusProjetoEnum, Long> quantidadePorStatus = new EnumMap<>(StatusProjetoEnum.class);
+    private final Map<StatusProjetoEnum, BigDecimal> orcamentoPorStatus = new EnumMap<>(StatusProjetoEnum.class);
+    private final Map<Long, Integer> alocacoesPorMembro = new HashMap<>();
+    private long somaDiasEncerrados;
+    private long quantidadeEncerrados;
+    private volatile boolean inicializado;
+
+    @Autowired
+    public RelatorioPortfolioAgregador(ProjetoRepository projetoRepository,
+                                       @Qualifier("applicationTaskExecutor") Executor executor,
+                                       PlatformTransactionManager transactionManager) {
+        this.projetoRepository = projetoRepository;
+        this.executor = executor;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        //transação própria e uma foto só para todas as consultas da reconstrução
+        this.leitura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leitura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public boolean isInicializado() {
+        return inicializado;
+    }
+
+    public void registrarInclusao(Projeto projeto) {
+        ContribuicaoProjeto contribuicao = ContribuicaoProjeto.de(projeto);
+        aposCommit(() -> receber(() -> aplicar(contribuicao, 1)));
+    }
+
+    public void registrarExclusao(ContribuicaoProjeto contribuicao) {
+        aposCommit(() -> receber(() -> aplicar(contribuicao, -1)));
+    }
+
+    public void registrarAlteracao(ContribuicaoProjeto antes, Projeto depois) {
+        ContribuicaoProjeto contribuicaoNova = ContribuicaoProjeto.de(depois);
+        aposCommit(() -> receber(() -> {
+            aplicar(antes, -1);
+            aplicar(contribuicaoNova, 1);
+        }));
+    }
+
+    /**
+     * Transição de status em massa (UPDATE direto no banco): os totais dos projetos alterados, lidos na mesma
+     * transação, saem do status de origem e entram no de destino depois do commit. Os membros não mudam.
+     */
+    public void registrarTransicao(StatusProjetoEnum origem, StatusProjetoEnum destino, TotalTransicaoProjection total) {
+        long quantidade = valorOuZero(total.getQuantidade());
+        BigDecimal orcamento = total.getOrcamentoTotal() == null ? BigDecimal.ZERO : total.getOrcamentoTotal();
+        long somaDias = valorOuZero(total.getSomaDias());
+        long comDataFim = valorOuZero(total.getComDataFim());
+        aposCommit(() -> receber(() -> aplicarTransicao(origem, destino, quantidade, orcamento, somaDias, comDataFim)));
+    }
+
+    /**
+     * Alterações no banco cujo efeito nos totais não se conhece: recalcula após o commit,
+     * em segundo plano e fora da requisição. Até a releitura terminar o agregador fica não inicializado e
+     * o relatório é lido direto do banco (consultarBanco), em vez de sair com totais anteriores à alteração.
+     */
+    public void registrarAlteracaoEmMassa() {
+        aposCommit(() -> {
+            synchronized (this) {
+                inicializado = false;
+                //confirmada depois da foto da reconstrução em andamento: o resultado dela já nasce velho
+                if (aposFoto != null) {
+                    fotoDesatualizada = true;
+                }
+            }
+            reconstruirEmSegundoPlano();
+        });
+    }
+
+    //cópia consistente dos totais atuais; saldos provisoriamente negativos (deltas fora de ordem) ficam de fora
+    public synchronized Totais totais() {
+        Map<StatusProjetoEnum, Long> quantidades = new EnumMap<>(StatusProjetoEnum.class);
+        Map<StatusProjetoEnum, BigDecimal> orcamentos = new EnumMap<>(StatusProjetoEnum.class);
+        quantidadePorStatus.forEach((status, quantidade) -> {
+            if (quantidade > 0) {
+                quantidades.put(status, quantidade);
+                orcamentos.put(status, orcamentoPorStatus.getOrDefault(status, BigDecimal.ZERO));
+            }
+        });
+        return new Totais(
+                quantidades,
+                orcamentos,
+                somaDiasEncerrados,
+                quantidadeEncerrados,
+                (int) alocacoesPorMembro.values().stream().filter(alocacoes -> alocacoes > 0).count()
+        );
+    }
+
+    /**
+     * Recalcula todos os totais a partir do banco (caminho de recuperação).
+     * Usa apenas consultas agregadas: o volume lido é proporcional a status e membros, não a projetos.
+     * As consultas leem uma mesma foto (repeatable read); os deltas confirmados depois dela são
+     * guardados durante as consultas e reaplicados sobre o resultado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        //totais que valem até a próxima reconstrução: lidos do primário, nunca da réplica atrasada
+        try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+            synchronized (reconstrucao) {
+                leitura.executeWithoutResult(status -> reconstruirNaFoto());
+            }
+        }
+    }
+
+    private void reconstruirNaFoto() {
+        //a foto é tirada na primeira consulta da transação; com os commits parados até ela voltar,
+        //todo delta ou já chegou aqui (e está na foto) ou chega depois e vai para aposFoto
+        commits.writeLock().lock();
+        try {
+            projetoRepository.buscarMaiorId();
+            synchronized (this) {
+                aposFoto = new ArrayList<>();
+                fotoDesatualizada = false;
+            }
+        } finally {
+            commits.writeLock().unlock();
+        }
+
+        try {
+            Map<StatusProjetoEnum, Long> quantidades = new EnumMap<>(StatusProjetoEnum.class);
+            Map<StatusProjetoEnum, BigDecimal> orcamentos = new EnumMap<>(StatusProjetoEnum.class);
+            totalizarPorStatus(quantidades, orcamentos);
+
+            DuracaoProjetosProjection duracao = projetoRepository.totalizarDuracao(StatusProjetoEnum.ENCERRADO);
+
+            Map<Long, Integer> alocacoes = new HashMap<>();
+            for (AlocacoesMembroProjection linha : projetoRepository.contarAlocacoesPorMembro()) {
+                alocacoes.put(linha.getMembroId(), linha.getAlocacoes().intValue());
+            }
+
+            synchronized (this) {
+                quantidadePorStatus.clear();
+                quantidadePorStatus.putAll(quantidades);
+                orcamentoPorStatus.clear();
+                orcamentoPorStatus.putAll(orcamentos);
+                alocacoesPorMembro.clear();
+                alocacoesPorMembro.putAll(alocacoes);
+                somaDiasEncerrados = valorOuZero(duracao.getSomaDias());
+                quantidadeEncerrados = valorOuZero(duracao.getQuantidade());
+                aposFoto.forEach(Runnable::run);
+                inicializado = !fotoDesatualizada;
+            }
+        } finally {
+            synchronized (this) {
+                aposFoto = null;
+            }
+        }
+    }
+
+    //totais lidos direto do banco, para quando o agregador ainda não foi inicializado
+    @Transactional(readOnly = true)
+    public Totais consultarBanco() {
+        Map<StatusProjetoEnum, Long> quantidades = new EnumMap<>(StatusProjetoEnum.class);
+        Map<StatusProjetoEnum, BigDecimal> orcamentos = new EnumMap<>(StatusProjetoEnum.class);
+        totalizarPorStatus(quantidades, orcamentos);
+
+        DuracaoProjetosProjection duracao = projetoRepository.totalizarDuracao(StatusProjetoEnum.ENCERRADO);
+
+        return new Totais(
+                quantidades,
+                orcamentos,
+                valorOuZero(duracao.getSomaDias()),
+                valorOuZero(duracao.getQuantidade()),
+                (int) projetoRepository.contarMembrosUnicos()
+        );
+    }
+
+    private void totalizarPorStatus(Map<StatusProjetoEnum, Long> quantidades,
+                                    Map<StatusProjetoEnum, BigDecimal> orcamentos) {
+        for (TotalPorStatusProjection linha : projetoRepository.totalizarPorStatus()) {
+            quantidades.put(linha.getStatus(), linha.getQuantidade());
+            orcamentos.put(linha.getStatus(), linha.getOrcamentoTotal());
+        }
+    }
+
+    private static long valorOuZero(Long valor) {
+        return valor == null ? 0L : valor;
+    }
+
+    //delta já confirmado: vale para os totais atuais e, durante uma reconstrução, também para o resultado dela
+    private synchronized void receber(Runnable delta) {
+        if (aposFoto != null) {
+            aposFoto.add(delta);
+        }
+        //sem base, o delta fica por conta da próxima reconstrução (cuja foto já o inclui)
+        if (inicializado) {
+            delta.run();
+        }
+    }
+
+    //sinal +1 soma a contribuição do projeto, -1 retira; sem limitar em zero, para que a ordem não importe
+    private synchronized void aplicar(ContribuicaoProjeto contribuicao, int sinal) {
+        StatusProjetoEnum status = contribuicao.status();
+        BigDecimal orcamento = sinal > 0 ? contribuicao.orcamento() : contribuicao.orcamento().negate();
+        somar(status, sinal, orcamento);
+
+        if (contribuicao.duracaoDias() != null) {
+            somaDiasEncerrados += sinal * contribuicao.duracaoDias();
+            quantidadeEncerrados += sinal;
+        }
+
+        for (Long membroId : contribuicao.membrosIds()) {
+            alocacoesPorMembro.merge(membroId, sinal, (atual, delta) -> atual + delta == 0 ? null : atual + delta);
+        }
+    }
+
+    private synchronized void aplicarTransicao(StatusProjetoEnum origem, StatusProjetoEnum destino, long quantidade,
+                                               BigDecimal orcamento, long somaDias, long comDataFim) {
+        somar(origem, -quantidade, orcamento.negate());
+        somar(destino, quantidade, orcamento);
+
+        //a data de término é preenchida ao encerrar e mantida ao sair de ENCERRADO (para CANCELADO)
+        if (origem == StatusProjetoEnum.ENCERRADO) {
+            somaDiasEncerrados -= somaDias;
+            quantidadeEncerrados -= comDataFim;
+        }
+        if (destino == StatusProjetoEnum.ENCERRADO) {
+            somaDiasEncerrados += somaDias;
+            quantidadeEncerrados += comDataFim;
+        }
+    }
+
+    //saldo zerado sai do mapa: ausente e zero são a mesma coisa
+    private void somar(StatusProjetoEnum status, long quantidade, BigDecimal orcamento) {
+        quantidadePorStatus.merge(status, quantidade, (atual, delta) -> atual + delta == 0 ? null : atual + delta);
+        orcamentoPorStatus.merge(status, orcamento, (atual, delta) -> {
+            BigDecimal total = atual.add(delta);
+            return total.signum() == 0 ? null : total;
+        });
+    }
+
+    private void reconstruirEmSegundoPlano() {
+        reconstrucaoPendente.set(true);
+        if (!reconstruindo.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::reconstruirPendentes);
+        } catch (TaskRejectedException e) {
+            reconstruindo.set(false);
+            log.warn("Reconstrução do relatório recusada pelo executor: {}", e.getMessage());
+        }
+    }
+
+    private void reconstruirPendentes() {
+        try {
+            //pedidos que chegam durante a releitura pedem mais uma volta
+            while (reconstrucaoPendente.getAndSet(false)) {
+                reconstruir();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reconstruir os totais do relatório", e);
+        } finally {
+            reconstruindo.set(false);
+        }
+        //pedido entre o fim do laço e a liberação da trava
+        if (reconstrucaoPendente.get()) {
+            reconstruirEmSegundoPlano();
+        }
+    }
+
+    /**
+     * Executa a ação depois do commit. Do início do commit até o fim da ação a transação segura a leitura
+     * de `commits`: uma reconstrução nunca abre a foto no meio desse intervalo.
+     */
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            //sem transação a escrita já foi confirmada
+            commits.readLock().lock();
+            try {
+                acao.run();
+            } finally {
+                commits.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean bloqueado;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commits.readLock().lock();
+                bloqueado = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        acao.run();
+                    }
+                } finally {
+                    if (bloqueado) {
+                        commits.readLock().unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * O que um projeto soma aos totais do relatório.
+     * Deve ser capturado antes de alterar o projeto, para poder ser retirado depois.
+     */
+    public record ContribuicaoProjeto(StatusProjetoEnum status, BigDecimal orcamento, Long duracaoDias,
+                                      List<Long> membrosIds) {
+
+        public static ContribuicaoProjeto de(Projeto projeto) {
+            Long duracaoDias = null;
+            if (projeto.getStatus() == StatusProjetoEnum.ENCERRADO && projeto.getDataFim() != null) {
+                duracaoDias = ChronoUnit.DAYS.between(projeto.getDataInicio(), projeto.getDataFim());
+            }
+
+            List<Long> membrosIds = projeto.getMembros() == null ? List.of() : projeto.getMembros()
+                    .stream()
+                    .map(Membro::getId)
+                    .distinct()
+                    .toList();
+
+            return new ContribuicaoProjeto(projeto.getStatus(), projeto.getOrcamentoTotal(), duracaoDias, membrosIds);
+        }
+    }
+
+    public record Totais(Map<StatusProjetoEnum, Long> quantidadePorStatus,
+                         Map<StatusProjetoEnum, BigDecimal> orcamentoPorStatus,
+                         long somaDiasEncerrados,
+                         long quantidadeEncerrados,
+                         int membrosUnicos) {
+    }
+}
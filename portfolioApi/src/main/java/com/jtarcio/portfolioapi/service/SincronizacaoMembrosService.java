@@ -0,0 +1,294 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.cache.MembroCache;
+import com.jtarcio.portfolioapi.client.MembroExternoClient;
+import com.jtarcio.portfolioapi.dto.response.MembroExternoDTO;
+import com.jtarcio.portfolioapi.dto.response.PaginaMembrosExternosDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoSincronizacaoDTO;
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Sincronizacao;
+import com.jtarcio.portfolioapi.repository.MembroRepository;
+import com.jtarcio.portfolioapi.repository.SincronizacaoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sincronização de tb_membros com a fonte externa.
+ * - incremental: lê o feed de alterações a partir da marca d'água, página a página
+ * - cada página é comparada por id externo e hash do conteúdo; só inclusões e alterações viram escrita (em lote)
+ * - completa: lê a fonte inteira e desativa os membros que sumiram dela sem aviso
+ * Cada página é gravada em sua própria transação junto com a marca d'água: uma falha no meio
+ * não perde o que já foi aplicado, e a próxima execução continua dali.
+ * Uma execução por vez entre todas as instâncias: o bloqueio fica na própria linha de tb_sincronizacoes,
+ * com validade (portfolio.membros-externos.sincronizacao.bloqueio) renovada a cada página; uma instância
+ * que cair no meio não prende a sincronização além disso.
+ */
+@Slf4j
+@Service
+public class SincronizacaoMembrosService {
+
+    static final String FONTE = "membros-externos";
+    private static final int TAMANHO_LOTE_DESATIVACAO = 1000;
+
+    private static final Comparator<MembroExternoDTO> ORDEM_FEED = Comparator
+            .comparing(MembroExternoDTO::getAlteradoEm)
+            .thenComparing(MembroExternoDTO::getIdExterno);
+
+    private final MembroExternoClient membroExternoClient;
+    private final MembroRepository membroRepository;
+    private final SincronizacaoRepository sincronizacaoRepository;
+    private final MembroCache membroCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transacao;
+    private final int tamanhoPagina;
+    private final Duration margem;
+    private final Duration bloqueio;
+
+    @Autowired
+    public SincronizacaoMembrosService(MembroExternoClient membroExternoClient,
+                                       MembroRepository membroRepository,
+                                       SincronizacaoRepository sincronizacaoRepository,
+                                       MembroCache membroCache,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${portfolio.membros-externos.sincronizacao.tamanho-pagina:500}") int tamanhoPagina,
+                                       @Value("${portfolio.membros-externos.sincronizacao.margem:1m}") Duration margem,
+                                       @Value("${portfolio.membros-externos.sincronizacao.bloqueio:10m}") Duration bloqueio) {
+        if (tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("Tamanho da página de sincronização deve ser positivo");
+        }
+        if (bloqueio.isNegative() || bloqueio.isZero()) {
+            throw new IllegalArgumentException("portfolio.membros-externos.sincronizacao.bloqueio deve ser maior que zero");
+        }
+        this.membroExternoClient = membroExternoClient;
+        this.membroRepository = membroRepository;
+        this.sincronizacaoRepository = sincronizacaoRepository;
+        this.membroCache = membroCache;
+        this.eventPublisher = eventPublisher;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoPagina = tamanhoPagina;
+        this.margem = margem;
+        this.bloqueio = bloqueio;
+    }
+
+    //completa=false usa a marca d'água; sem marca gravada (primeira execução) a leitura é sempre completa
+    public ResultadoSincronizacaoDTO sincronizar(boolean completa) {
+        String dono = UUID.randomUUID().toString();
+        if (!bloquear(dono)) {
+            throw new PortfolioException("Sincronização de membros já está em andamento");
+        }
+        try {
+            return executar(completa, dono);
+        } finally {
+            liberar(dono);
+        }
+    }
+
+    //a linha da marca d'água guarda também o bloqueio: na primeira vez ela é criada sem marca (execução completa)
+    private boolean bloquear(String dono) {
+        if (!sincronizacaoRepository.existsById(FONTE)) {
+            try {
+                transacao.executeWithoutResult(status ->
+                        sincronizacaoRepository.saveAndFlush(Sincronizacao.builder().fonte(FONTE).build()));
+            } catch (DataIntegrityViolationException e) {
+                //outra instância criou a linha ao mesmo tempo: disputa o bloqueio abaixo
+            }
+        }
+        Instant agora = Instant.now();
+        return transacao.execute(status -> sincronizacaoRepository.bloquear(FONTE, dono, agora, agora.plus(bloqueio))) > 0;
+    }
+
+    //chamado na transação de cada página: se o bloqueio venceu e outra execução o tomou, a página é desfeita
+    private void renovarBloqueio(String dono) {
+        if (sincronizacaoRepository.renovarBloqueio(FONTE, dono, Instant.now().plus(bloqueio)) == 0) {
+            throw new PortfolioException("Sincronização de membros perdeu o bloqueio para outra execução");
+        }
+    }
+
+    private void liberar(String dono) {
+        try {
+            transacao.executeWithoutResult(status -> sincronizacaoRepository.liberar(FONTE, dono));
+        } catch (RuntimeException e) {
+            //sem liberar, o bloqueio vence sozinho ao fim da validade
+            log.warn("Não foi possível liberar o bloqueio da sincronização de membros", e);
+        }
+    }
+
+    private ResultadoSincronizacaoDTO executar(boolean pedidaCompleta, String dono) {
+        Sincronizacao marca = sincronizacaoRepository.findById(FONTE)
+                .orElseGet(() -> Sincronizacao.builder().fonte(FONTE).build());
+        boolean completa = pedidaCompleta || marca.getAlteradoAte() == null;
+
+        //relê um trecho antes da marca: alterações gravadas na fonte com data um pouco no passado
+        //(relógios, transações longas) não se perdem; o hash faz a releitura não gerar escrita
+        Instant desde = completa ? null : marca.getAlteradoAte().minus(margem);
+        String aposId = null;
+        Set<String> ativosNaFonte = completa ? new HashSet<>() : null;
+        ResultadoSincronizacaoDTO resultado = ResultadoSincronizacaoDTO.builder().completa(completa).build();
+
+        PaginaMembrosExternosDTO pagina;
+        do {
+            pagina = membroExternoClient.buscarAlteracoes(desde, aposId, tamanhoPagina);
+            List<MembroExternoDTO> itens = pagina.getItens() == null ? List.of() : pagina.getItens();
+            if (itens.isEmpty()) {
+                break;
+            }
+
+            List<Long> alterados = transacao.execute(status -> aplicarPagina(itens, marca, resultado, dono));
+            alterados.forEach(membroCache::invalidar);
+
+            if (ativosNaFonte != null) {
+                itens.stream().filter(MembroExternoDTO::isAtivo).map(MembroExternoDTO::getIdExterno).forEach(ativosNaFonte::add);
+            }
+            MembroExternoDTO ultimo = itens.get(itens.size() - 1);
+            desde = ultimo.getAlteradoEm();
+            aposId = ultimo.getIdExterno();
+            resultado.setPaginas(resultado.getPaginas() + 1);
+        } while (pagina.isTemMais());
+
+        if (completa) {
+            desativarAusentes(ativosNaFonte, resultado, dono);
+        }
+
+        Instant agora = Instant.now();
+        marca.setUltimaExecucao(agora);
+        if (completa) {
+            marca.setUltimaCompleta(agora);
+        }
+        transacao.executeWithoutResult(status -> sincronizacaoRepository.save(marca));
+        resultado.setAlteradoAte(marca.getAlteradoAte());
+
+        log.info("Sincronização de membros {}: {} página(s), {} lidos, {} incluídos, {} alterados, {} desativados, {} inalterados",
+                completa ? "completa" : "incremental", resultado.getPaginas(), resultado.getLidos(),
+                resultado.getIncluidos(), resultado.getAlterados(), resultado.getDesativados(), resultado.getInalterados());
+        return resultado;
+    }
+
+    //aplica uma página e avança a marca d'água na mesma transação; devolve os membros alterados
+    private List<Long> aplicarPagina(List<MembroExternoDTO> itens, Sincronizacao marca, ResultadoSincronizacaoDTO resultado,
+                                     String dono) {
+        renovarBloqueio(dono);
+        Map<String, Membro> locais = membroRepository.findByIdExternoIn(
+                        itens.stream().map(MembroExternoDTO::getIdExterno).toList()).stream()
+                .collect(Collectors.toMap(Membro::getIdExterno, Function.identity()));
+
+        List<Membro> novos = new ArrayList<>();
+        List<Long> alterados = new ArrayList<>();
+        for (MembroExternoDTO item : itens) {
+            String hash = hashConteudo(item);
+            Membro local = locais.get(item.getIdExterno());
+
+            if (local == null) {
+                //removido na fonte antes de chegar aqui: nada a incluir
+                if (!item.isAtivo()) {
+                    resultado.setInalterados(resultado.getInalterados() + 1);
+                    continue;
+                }
+                Membro novo = Membro.builder()
+                        .idExterno(item.getIdExterno())
+                        .nome(item.getNome())
+                        .atribuicaoEnum(item.getAtribuicaoEnum())
+                        .hashConteudo(hash)
+                        .build();
+                novos.add(novo);
+                locais.put(novo.getIdExterno(), novo);
+                resultado.setIncluidos(resultado.getIncluidos() + 1);
+            } else if (hash.equals(local.getHashConteudo())) {
+                resultado.setInalterados(resultado.getInalterados() + 1);
+            } else {
+                //entidade gerenciada: o flush gera os UPDATEs, agrupados pelo batch do Hibernate
+                local.setNome(item.getNome());
+                local.setAtribuicaoEnum(item.getAtribuicaoEnum());
+                local.setAtivo(item.isAtivo());
+                local.setHashConteudo(hash);
+                alterados.add(local.getId());
+                if (item.isAtivo()) {
+                    resultado.setAlterados(resultado.getAlterados() + 1);
+                } else {
+                    resultado.setDesativados(resultado.getDesativados() + 1);
+                }
+            }
+        }
+        resultado.setLidos(resultado.getLidos() + itens.size());
+
+        membroRepository.saveAll(novos);
+        if (!alterados.isEmpty()) {
+            //gerente e membros aparecem nos projetos: muda a versão (e o ETag) deles
+            marcarProjetosAlterados(alterados);
+        }
+
+        //a releitura da margem pode trazer páginas anteriores à marca: ela só avança
+        MembroExternoDTO ultimo = itens.stream().max(ORDEM_FEED).orElseThrow();
+        if (marca.getAlteradoAte() == null || posterior(ultimo, marca)) {
+            marca.setAlteradoAte(ultimo.getAlteradoEm());
+            marca.setUltimoIdExterno(ultimo.getIdExterno());
+        }
+        sincronizacaoRepository.save(marca);
+        return alterados;
+    }
+
+    //membros ativos aqui que não apareceram na leitura completa da fonte
+    private void desativarAusentes(Set<String> ativosNaFonte, ResultadoSincronizacaoDTO resultado, String dono) {
+        List<String> ausentes = membroRepository.findIdsExternosAtivos().stream()
+                .filter(id -> !ativosNaFonte.contains(id))
+                .toList();
+
+        for (int inicio = 0; inicio < ausentes.size(); inicio += TAMANHO_LOTE_DESATIVACAO) {
+            List<String> lote = ausentes.subList(inicio, Math.min(inicio + TAMANHO_LOTE_DESATIVACAO, ausentes.size()));
+            List<Long> ids = transacao.execute(status -> {
+                renovarBloqueio(dono);
+                List<Long> membroIds = membroRepository.findIdsByIdExternoIn(lote);
+                resultado.setDesativados(resultado.getDesativados() + membroRepository.desativarPorIdsExternos(lote));
+                marcarProjetosAlterados(membroIds);
+                return membroIds;
+            });
+            ids.forEach(membroCache::invalidar);
+        }
+    }
+
+    //o evento só chega aos ouvintes depois do commit da página (ETag das listagens)
+    private void marcarProjetosAlterados(List<Long> membroIds) {
+        if (membroRepository.marcarProjetosDosMembrosAlterados(membroIds, Instant.now()) > 0) {
+            eventPublisher.publishEvent(new ProjetoAlteradoEvent(null, ProjetoAlteradoEvent.Operacao.MEMBROS));
+        }
+    }
+
+    private static boolean posterior(MembroExternoDTO item, Sincronizacao marca) {
+        int porData = item.getAlteradoEm().compareTo(marca.getAlteradoAte());
+        return porData > 0 || (porData == 0 && item.getIdExterno().compareTo(marca.getUltimoIdExterno()) > 0);
+    }
+
+    //SHA-256 dos campos sincronizados; a data de alteração fica de fora (republicar sem mudança não gera escrita)
+    static String hashConteudo(MembroExternoDTO membro) {
+        String conteudo = membro.getNome() + '\u001F' + membro.getAtribuicaoEnum() + '\u001F' + membro.isAtivo();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.jtarcio.portfolioapi.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Quebra textos de busca em palavras: minúsculas, só letras e dígitos, sem repetição e na ordem
+ * em que aparecem. Usada na indexação e na consulta, para que as duas vejam as mesmas palavras.
+ */
+public final class TextoBusca {
+
+    //palavras além disso na consulta são ignoradas: cada uma custa uma conferência por candidato
+    public static final int MAXIMO_PALAVRAS_CONSULTA = 8;
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private TextoBusca() {
+    }
+
+    //palavras como digitadas, só em minúsculas (o PostgreSQL compara acentos como estão)
+    public static List<String> palavras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        Set<String> palavras = new LinkedHashSet<>();
+        for (String palavra : SEPARADOR.split(texto.toLowerCase(Locale.ROOT))) {
+            if (!palavra.isEmpty()) {
+                palavras.add(palavra);
+            }
+        }
+        return new ArrayList<>(palavras);
+    }
+
+    //palavras sem acentos: "Gestão" e "gestao" viram o mesmo termo no índice em memória
+    public static List<String> termos(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        return palavras(ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll(""));
+    }
+}
@@ -0,0 +1,113 @@
+package com.jtarcio.portfolioapi.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.service.ProjetoAlteradoEvent;
+import com.jtarcio.portfolioapi.service.ProjetoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do RelatorioPortfolioCache")
+class RelatorioPortfolioCacheTest {
+
+    private static final ProjetoAlteradoEvent EVENTO =
+            new ProjetoAlteradoEvent(1L, ProjetoAlteradoEvent.Operacao.ATUALIZACAO);
+
+    @Mock
+    private ProjetoService projetoService;
+
+    //tarefas enviadas ao executor ficam aqui até o teste executá-las
+    private final List<Runnable> tarefas = new ArrayList<>();
+
+    private RelatorioPortfolioCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RelatorioPortfolioCache(projetoService, new ObjectMapper(), tarefas::add, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Deve gerar o relatório uma vez e servir a cópia serializada")
+    void deveServirRelatorioSerializado() {
+        when(projetoService.gerarRelatorioPortfolio()).thenReturn(Map.of("total", 1));
+
+        String primeira = texto(cache.obter());
+        String segunda = texto(cache.obter());
+
+        assertEquals("{\"total\":1}", primeira);
+        assertEquals(primeira, segunda);
+        verify(projetoService, times(1)).gerarRelatorioPortfolio();
+        assertTrue(tarefas.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve servir o relatório anterior enquanto a atualização roda")
+    void deveServirAnteriorDuranteAtualizacao() {
+        when(projetoService.gerarRelatorioPortfolio())
+                .thenReturn(Map.of("total", 1))
+                .thenReturn(Map.of("total", 2));
+        cache.obter();
+
+        cache.aoAlterarProjeto(EVENTO);
+        cache.aoAlterarProjeto(EVENTO);
+
+        //uma única atualização agendada para vários eventos
+        assertEquals(1, tarefas.size());
+        assertEquals("{\"total\":1}", texto(cache.obter()));
+
+        tarefas.remove(0).run();
+
+        assertEquals("{\"total\":2}", texto(cache.obter()));
+        assertFalse(cache.isDesatualizado());
+        verify(projetoService, times(2)).gerarRelatorioPortfolio();
+    }
+
+    @Test
+    @DisplayName("Deve manter o relatório anterior se a atualização falhar")
+    void deveManterAnteriorQuandoAtualizacaoFalhar() {
+        when(projetoService.gerarRelatorioPortfolio())
+                .thenReturn(Map.of("total", 1))
+                .thenThrow(new RuntimeException("banco fora"));
+        cache.obter();
+
+        cache.aoAlterarProjeto(EVENTO);
+        tarefas.remove(0).run();
+
+        assertEquals("{\"total\":1}", texto(cache.obter()));
+        assertTrue(cache.isDesatualizado());
+    }
+
+    @Test
+    @DisplayName("Relatório mais velho que a idade máxima deve ser refeito a partir do banco")
+    void deveRefazerDoBancoAposIdadeMaxima() throws InterruptedException {
+        cache = new RelatorioPortfolioCache(projetoService, new ObjectMapper(), tarefas::add, Duration.ofMillis(1));
+        when(projetoService.gerarRelatorioPortfolio()).thenReturn(Map.of("total", 1));
+        when(projetoService.gerarRelatorioPortfolioDoBanco()).thenReturn(Map.of("total", 3));
+        cache.obter();
+        Thread.sleep(5);
+
+        //ainda serve o anterior; a atualização agendada reconstrói os totais
+        assertEquals("{\"total\":1}", texto(cache.obter()));
+        tarefas.remove(0).run();
+
+        assertEquals("{\"total\":3}", texto(cache.obter()));
+        verify(projetoService, times(1)).gerarRelatorioPortfolioDoBanco();
+    }
+
+    private static String texto(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.jtarcio.portfolioapi.cache;
+
+import com.jtarcio.portfolioapi.model.entity.VersaoListagem;
+import com.jtarcio.portfolioapi.repository.VersaoListagemRepository;
+import com.jtarcio.portfolioapi.service.ProjetoAlteradoEvent;
+import com.jtarcio.portfolioapi.service.ProjetoAlteradoEvent.Operacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do VersaoListagemProjetos")
+class VersaoListagemProjetosTest {
+
+    private static final ProjetoAlteradoEvent EVENTO = new ProjetoAlteradoEvent(1L, Operacao.STATUS);
+
+    @Mock
+    private VersaoListagemRepository versaoListagemRepository;
+
+    private VersaoListagemProjetos versaoListagem;
+
+    @BeforeEach
+    void setUp() {
+        versaoListagem = new VersaoListagemProjetos(versaoListagemRepository);
+    }
+
+    @Test
+    @DisplayName("Versão deve vir do banco, igual para todas as instâncias")
+    void versaoDeveVirDoBanco() {
+        when(versaoListagemRepository.buscarVersao(VersaoListagemProjetos.PROJETOS)).thenReturn(Optional.of(7L));
+
+        assertEquals("7", versaoListagem.atual());
+    }
+
+    @Test
+    @DisplayName("Sem linha gravada a versão é zero")
+    void versaoSemLinhaDeveSerZero() {
+        when(versaoListagemRepository.buscarVersao(VersaoListagemProjetos.PROJETOS)).thenReturn(Optional.empty());
+
+        assertEquals("0", versaoListagem.atual());
+    }
+
+    @Test
+    @DisplayName("Projeto alterado deve incrementar a versão")
+    void deveIncrementarAposAlteracao() {
+        when(versaoListagemRepository.incrementar(VersaoListagemProjetos.PROJETOS)).thenReturn(1);
+
+        versaoListagem.aoAlterarProjeto(EVENTO);
+
+        verify(versaoListagemRepository).incrementar(VersaoListagemProjetos.PROJETOS);
+        verify(versaoListagemRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Subida deve criar a linha da versão só se ela não existir")
+    void subidaDeveCriarLinha() {
+        when(versaoListagemRepository.existsById(VersaoListagemProjetos.PROJETOS)).thenReturn(false);
+
+        versaoListagem.criarLinha();
+
+        ArgumentCaptor<VersaoListagem> criada = ArgumentCaptor.forClass(VersaoListagem.class);
+        verify(versaoListagemRepository).saveAndFlush(criada.capture());
+        assertEquals(0L, criada.getValue().getVersao());
+    }
+
+    @Test
+    @DisplayName("Linha criada por outra instância não deve impedir a subida")
+    void linhaDeOutraInstanciaNaoDeveImpedirSubida() {
+        when(versaoListagemRepository.existsById(VersaoListagemProjetos.PROJETOS)).thenReturn(false);
+        when(versaoListagemRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicada"));
+
+        assertDoesNotThrow(() -> versaoListagem.criarLinha());
+    }
+
+    @Test
+    @DisplayName("Sem a linha a alteração deve recriá-la")
+    void semLinhaAlteracaoDeveRecriar() {
+        when(versaoListagemRepository.incrementar(VersaoListagemProjetos.PROJETOS)).thenReturn(0);
+
+        versaoListagem.aoAlterarProjeto(EVENTO);
+
+        ArgumentCaptor<VersaoListagem> criada = ArgumentCaptor.forClass(VersaoListagem.class);
+        verify(versaoListagemRepository).saveAndFlush(criada.capture());
+        assertEquals(1L, criada.getValue().getVersao());
+    }
+}
@@ -0,0 +1,109 @@
+package com.jtarcio.portfolioapi.client;
+
+import com.jtarcio.portfolioapi.exception.ServicoExternoIndisponivelException;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServiceUnavailable;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@DisplayName("Testes do MembroExternoClient")
+class MembroExternoClientTest {
+
+    private static final String URL = "http://fonte-externa/membros";
+    private static final String LISTA = "[{\"id\":1,\"nome\":\"Josevan Oliveira\",\"atribuicaoEnum\":\"FUNCIONARIO\"}]";
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer fonte;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new RestTemplate();
+        fonte = MockRestServiceServer.bindTo(restTemplate).build();
+        circuitBreaker = CircuitBreaker.of("teste", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordExceptions(RestClientException.class)
+                .build());
+    }
+
+    private MembroExternoClient client(Duration validade, Duration validadeEmFalha) {
+        return new MembroExternoClient(restTemplate, URL, validade, validadeEmFalha,
+                circuitBreaker, Bulkhead.ofDefaults("teste"));
+    }
+
+    @Test
+    @DisplayName("Deve servir a lista fresca sem chamar a fonte de novo")
+    void deveServirListaFresca() {
+        fonte.expect(ExpectedCount.once(), requestTo(URL)).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(LISTA, MediaType.APPLICATION_JSON));
+        MembroExternoClient client = client(Duration.ofMinutes(1), Duration.ofMinutes(30));
+
+        List<Membro> primeira = client.buscarMembros();
+        List<Membro> segunda = client.buscarMembros();
+
+        assertEquals(1, primeira.size());
+        assertEquals("Josevan Oliveira", primeira.get(0).getNome());
+        assertSame(primeira, segunda);
+        fonte.verify();
+    }
+
+    @Test
+    @DisplayName("Deve servir a última lista boa quando a fonte falha")
+    void deveServirUltimaListaQuandoFonteFalha() {
+        fonte.expect(requestTo(URL)).andRespond(withSuccess(LISTA, MediaType.APPLICATION_JSON));
+        fonte.expect(requestTo(URL)).andRespond(withServiceUnavailable());
+        MembroExternoClient client = client(Duration.ZERO, Duration.ofMinutes(30));
+
+        List<Membro> boa = client.buscarMembros();
+        List<Membro> emFalha = client.buscarMembros();
+
+        assertSame(boa, emFalha);
+        fonte.verify();
+    }
+
+    @Test
+    @DisplayName("Deve responder indisponível quando a fonte falha e não há lista anterior")
+    void deveLancarExcecaoSemListaAnterior() {
+        fonte.expect(requestTo(URL)).andRespond(withServiceUnavailable());
+        MembroExternoClient client = client(Duration.ZERO, Duration.ofMinutes(30));
+
+        assertThrows(ServicoExternoIndisponivelException.class, client::buscarMembros);
+    }
+
+    @Test
+    @DisplayName("Deve parar de chamar a fonte com o circuito aberto")
+    void deveAbrirCircuito() {
+        fonte.expect(ExpectedCount.times(2), requestTo(URL)).andRespond(withServiceUnavailable());
+        MembroExternoClient client = client(Duration.ZERO, Duration.ofMinutes(30));
+
+        assertThrows(ServicoExternoIndisponivelException.class, client::buscarMembros);
+        assertThrows(ServicoExternoIndisponivelException.class, client::buscarMembros);
+        //terceira chamada: recusada pelo circuito, sem ir à fonte
+        assertThrows(ServicoExternoIndisponivelException.class, client::buscarMembros);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals("OPEN", client.estado().get("circuito"));
+        fonte.verify();
+    }
+}
@@ -0,0 +1,134 @@
+package com.jtarcio.portfolioapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do ConsistenciaLeituraFilter")
+class ConsistenciaLeituraFilterTest {
+
+    private ConsistenciaLeituraFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new ConsistenciaLeituraFilter(Duration.ofSeconds(5), 1000);
+    }
+
+    @Test
+    @DisplayName("Leituras de quem não escreveu devem seguir para a réplica")
+    void leituraSemEscritaDeveIrParaReplica() throws Exception {
+        boolean[] primario = {true};
+
+        filtro.doFilter(requisicao("GET", "/api/projetos", "10.0.0.1"), new MockHttpServletResponse(),
+                (req, res) -> primario[0] = ConsistenciaLeitura.primarioExigido());
+
+        assertFalse(primario[0]);
+    }
+
+    @Test
+    @DisplayName("Depois de uma escrita, as leituras do mesmo cliente devem ir ao primário")
+    void leituraAposEscritaDeveIrAoPrimario() throws Exception {
+        boolean[] primario = new boolean[3];
+
+        filtro.doFilter(requisicao("POST", "/api/projetos", "10.0.0.1"), new MockHttpServletResponse(),
+                (req, res) -> primario[0] = ConsistenciaLeitura.primarioExigido());
+        filtro.doFilter(requisicao("GET", "/api/projetos/1", "10.0.0.1"), new MockHttpServletResponse(),
+                (req, res) -> primario[1] = ConsistenciaLeitura.primarioExigido());
+        filtro.doFilter(requisicao("GET", "/api/projetos/1", "10.0.0.2"), new MockHttpServletResponse(),
+                (req, res) -> primario[2] = ConsistenciaLeitura.primarioExigido());
+
+        assertTrue(primario[0]);
+        assertTrue(primario[1]);
+        assertFalse(primario[2], "outro cliente não escreveu");
+        assertFalse(ConsistenciaLeitura.primarioExigido(), "a marca não pode sobrar na thread");
+    }
+
+    @Test
+    @DisplayName("Escrita que falha também deve abrir a janela")
+    void escritaComFalhaDeveAbrirJanela() {
+        assertThrows(IllegalStateException.class, () ->
+                filtro.doFilter(requisicao("DELETE", "/api/projetos/1", "10.0.0.1"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            throw new IllegalStateException("falha depois do commit");
+                        }));
+
+        assertTrue(filtro.escreveuRecentemente("10.0.0.1"));
+        assertFalse(ConsistenciaLeitura.primarioExigido());
+    }
+
+    @Test
+    @DisplayName("Deve identificar o cliente pelo usuário autenticado antes do endereço")
+    void deveIdentificarClientePeloUsuario() throws Exception {
+        MockHttpServletRequest escrita = requisicao("PUT", "/api/projetos/1", "10.0.0.1");
+        escrita.setRemoteUser("admin");
+        filtro.doFilter(escrita, new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        assertTrue(filtro.escreveuRecentemente("admin"));
+        assertFalse(filtro.escreveuRecentemente("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Clientes atrás do mesmo endereço devem ter janelas separadas pelo X-Cliente-Id")
+    void clientesAtrasDoMesmoEnderecoDevemSerSeparadosPeloCabecalho() throws Exception {
+        boolean[] primario = new boolean[2];
+
+        MockHttpServletRequest escrita = requisicao("POST", "/api/projetos", "10.0.0.1");
+        escrita.addHeader(ConsistenciaLeituraFilter.CABECALHO_CLIENTE, "cliente-a");
+        filtro.doFilter(escrita, new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        MockHttpServletRequest leituraMesmoCliente = requisicao("GET", "/api/projetos/1", "10.0.0.1");
+        leituraMesmoCliente.addHeader(ConsistenciaLeituraFilter.CABECALHO_CLIENTE, "cliente-a");
+        filtro.doFilter(leituraMesmoCliente, new MockHttpServletResponse(),
+                (req, res) -> primario[0] = ConsistenciaLeitura.primarioExigido());
+
+        MockHttpServletRequest leituraOutroCliente = requisicao("GET", "/api/projetos/1", "10.0.0.1");
+        leituraOutroCliente.addHeader(ConsistenciaLeituraFilter.CABECALHO_CLIENTE, "cliente-b");
+        filtro.doFilter(leituraOutroCliente, new MockHttpServletResponse(),
+                (req, res) -> primario[1] = ConsistenciaLeitura.primarioExigido());
+
+        assertTrue(primario[0]);
+        assertFalse(primario[1], "outro cliente atrás do mesmo proxy não escreveu");
+        assertFalse(filtro.escreveuRecentemente("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Clientes atrás do mesmo endereço devem ter janelas separadas pela sessão")
+    void clientesAtrasDoMesmoEnderecoDevemSerSeparadosPelaSessao() throws Exception {
+        MockHttpSession sessaoA = new MockHttpSession();
+        MockHttpSession sessaoB = new MockHttpSession();
+
+        MockHttpServletRequest escrita = requisicao("PATCH", "/api/projetos/1/avancar-status", "10.0.0.1");
+        escrita.setSession(sessaoA);
+        filtro.doFilter(escrita, new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        assertTrue(filtro.escreveuRecentemente(sessaoA.getId()));
+        assertFalse(filtro.escreveuRecentemente(sessaoB.getId()));
+        assertFalse(filtro.escreveuRecentemente("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Não deve registrar escritas fora de /api")
+    void naoDeveFiltrarForaDaApi() throws Exception {
+        filtro.doFilter(requisicao("PUT", "/mock/membros/simulacao", "10.0.0.1"), new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        assertFalse(filtro.escreveuRecentemente("10.0.0.1"));
+    }
+
+    private static MockHttpServletRequest requisicao(String metodo, String caminho, String endereco) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+        request.setRequestURI(caminho);
+        request.setRemoteAddr(endereco);
+        return request;
+    }
+}
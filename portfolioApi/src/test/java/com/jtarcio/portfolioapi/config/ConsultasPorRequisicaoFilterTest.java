@@ -0,0 +1,90 @@
+package com.jtarcio.portfolioapi.config;
+
+import com.jtarcio.portfolioapi.exception.OrcamentoConsultasExcedidoException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do ConsultasPorRequisicaoFilter")
+class ConsultasPorRequisicaoFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private ContadorConsultas contador;
+    private ConsultasPorRequisicaoFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        contador = new ContadorConsultas();
+        filtro = new ConsultasPorRequisicaoFilter(contador, registry, ConsultasPorRequisicaoFilter.Modo.LOG, 50);
+    }
+
+    @Test
+    @DisplayName("Deve registrar os comandos SQL da requisição pela rota")
+    void deveRegistrarConsultasPorRota() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projetos/7");
+
+        filtro.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            contador.inspect("select p from tb_projetos p");
+            contador.inspect("select m from tb_membros m");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/projetos/{id}");
+        });
+
+        DistributionSummary consultas = registry.get("portfolio.http.consultas")
+                .tag("uri", "/api/projetos/{id}")
+                .tag("method", "GET")
+                .summary();
+        assertEquals(1, consultas.count());
+        assertEquals(2.0, consultas.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Não deve contar comandos fora de uma requisição nem medir rotas fora de /api")
+    void naoDeveMedirForaDaApi() throws Exception {
+        contador.inspect("select 1");
+        assertEquals(0, contador.encerrar());
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/mock/membros"), new MockHttpServletResponse(),
+                (req, res) -> contador.inspect("select 1"));
+
+        assertNull(registry.find("portfolio.http.consultas").summary());
+    }
+
+    @Test
+    @DisplayName("Modo estrito deve interromper o comando que passa do orçamento")
+    void modoEstritoDeveInterromperAcimaDoOrcamento() {
+        ConsultasPorRequisicaoFilter estrito =
+                new ConsultasPorRequisicaoFilter(contador, registry, ConsultasPorRequisicaoFilter.Modo.ESTRITO, 2);
+
+        assertThrows(OrcamentoConsultasExcedidoException.class, () -> estrito.doFilter(
+                new MockHttpServletRequest("GET", "/api/projetos"), new MockHttpServletResponse(), (req, res) -> {
+                    for (int i = 0; i < 3; i++) {
+                        contador.inspect("select m from tb_membros m where m.id = " + i);
+                    }
+                }));
+        assertEquals(3.0, registry.get("portfolio.http.consultas").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Escopos aninhados devem contar os mesmos comandos")
+    void escoposAninhadosDevemContarOsMesmosComandos() {
+        contador.iniciar(ContadorConsultas.SEM_LIMITE, true);
+        contador.inspect("select 1");
+        contador.iniciar();
+        contador.inspect("select 2");
+
+        assertEquals(1, contador.encerrar());
+        assertEquals(List.of("select 1", "select 2"), contador.comandos());
+        assertEquals(2, contador.encerrar());
+        assertEquals(0, contador.atual());
+    }
+}
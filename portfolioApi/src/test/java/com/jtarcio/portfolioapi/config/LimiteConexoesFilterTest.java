@@ -0,0 +1,88 @@
+package com.jtarcio.portfolioapi.config;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Testes do LimiteConexoesFilter")
+class LimiteConexoesFilterTest {
+
+    private LimiteConexoesFilter filtro;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        //DataSource que não é Hikari: vale o padrão de 10 conexões
+        filtro = new LimiteConexoesFilter(mock(DataSource.class), JsonMapper.builder().findAndAddModules().build(),
+                1, Duration.ofMillis(20));
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 503 quando todas as vagas estão ocupadas")
+    void deveRecusarAcimaDoLimite() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(filtro.getLimite());
+        CountDownLatch liberar = new CountDownLatch(1);
+        FilterChain bloqueante = (req, res) -> {
+            dentro.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < filtro.getLimite(); i++) {
+                executor.submit(() -> {
+                    filtro.doFilter(requisicao("/api/projetos"), new MockHttpServletResponse(), bloqueante);
+                    return null;
+                });
+            }
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+            assertEquals(10, filtro.getEmAndamento());
+
+            MockHttpServletResponse recusada = new MockHttpServletResponse();
+            filtro.doFilter(requisicao("/api/projetos"), recusada, (req, res) -> fail("não deveria ser admitida"));
+
+            assertEquals(503, recusada.getStatus());
+            assertNotNull(recusada.getHeader(HttpHeaders.RETRY_AFTER));
+            assertTrue(recusada.getContentAsString().contains("\"status\":503"));
+
+            liberar.countDown();
+        }
+        assertEquals(0, filtro.getEmAndamento());
+    }
+
+    @Test
+    @DisplayName("Não deve limitar rotas fora de /api")
+    void naoDeveLimitarForaDaApi() throws Exception {
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        boolean[] chamou = {false};
+
+        filtro.doFilter(requisicao("/mock/membros"), resposta, (req, res) -> chamou[0] = true);
+
+        assertTrue(chamou[0]);
+        assertEquals(200, resposta.getStatus());
+        assertEquals(0, filtro.getEmAndamento());
+    }
+
+    private static MockHttpServletRequest requisicao(String caminho) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", caminho);
+        request.setRequestURI(caminho);
+        return request;
+    }
+}
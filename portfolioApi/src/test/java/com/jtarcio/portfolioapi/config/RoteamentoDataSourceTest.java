@@ -0,0 +1,85 @@
+package com.jtarcio.portfolioapi.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do RoteamentoDataSource")
+class RoteamentoDataSourceTest {
+
+    private RoteamentoDataSource roteamento;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void setUp() {
+        //dois bancos H2 que respondem o próprio nome: mostra para onde cada consulta foi
+        roteamento = new RoteamentoDataSource(banco("primario"), banco("replica"));
+        roteamento.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transacoes = new DataSourceTransactionManager(dataSource);
+        escrita = new TransactionTemplate(transacoes);
+        leitura = new TransactionTemplate(transacoes);
+        leitura.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("Transações readOnly devem ir para a réplica e as demais para o primário")
+    void deveRotearPorTransacao() {
+        assertEquals("replica", leitura.execute(status -> origem()));
+        assertEquals("primario", escrita.execute(status -> origem()));
+        assertEquals("primario", origem(), "sem transação fica no primário");
+    }
+
+    @Test
+    @DisplayName("Leitura que exige consistência deve ir ao primário")
+    void leituraConsistenteDeveIrAoPrimario() {
+        try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+            assertEquals("primario", leitura.execute(status -> origem()));
+        }
+        assertEquals("replica", leitura.execute(status -> origem()));
+    }
+
+    @Test
+    @DisplayName("Deve contar as conexões por destino e motivo")
+    void deveContarConexoes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        roteamento.bindTo(registry);
+
+        leitura.execute(status -> origem());
+        try (ConsistenciaLeitura.Escopo primario = ConsistenciaLeitura.exigirPrimario()) {
+            leitura.execute(status -> origem());
+        }
+
+        assertEquals(1.0, registry.get("portfolio.datasource.roteamento")
+                .tag("destino", "replica").tag("motivo", "leitura").functionCounter().count());
+        assertEquals(1.0, registry.get("portfolio.datasource.roteamento")
+                .tag("destino", "primario").tag("motivo", "consistencia").functionCounter().count());
+    }
+
+    private String origem() {
+        return jdbc.queryForObject("SELECT nome FROM origem", String.class);
+    }
+
+    private static DataSource banco(String nome) {
+        DataSource banco = new DriverManagerDataSource("jdbc:h2:mem:roteamento_" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(banco);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS origem (nome VARCHAR(20))");
+        jdbc.update("DELETE FROM origem");
+        jdbc.update("INSERT INTO origem (nome) VALUES (?)", nome);
+        return banco;
+    }
+}
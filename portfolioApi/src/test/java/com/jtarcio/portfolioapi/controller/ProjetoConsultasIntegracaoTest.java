@@ -0,0 +1,196 @@
+package com.jtarcio.portfolioapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.cache.MembroCache;
+import com.jtarcio.portfolioapi.dto.request.ProjetoRequestDTO;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.MembroRepository;
+import com.jtarcio.portfolioapi.service.IndiceBuscaProjetos;
+import com.jtarcio.portfolioapi.service.ProjetoService;
+import com.jtarcio.portfolioapi.support.OrcamentoConsultas;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de comandos SQL das rotas principais, contra o H2 do perfil test e sem mocks de repositório.
+ * Os orçamentos são fixos e o portfólio tem mais projetos e membros que isso: uma consulta por
+ * projeto ou por membro (N+1) estoura o limite e o teste falha listando os comandos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(username = "admin", password = "admin123")
+@DisplayName("Orçamento de consultas das rotas de projetos")
+class ProjetoConsultasIntegracaoTest {
+
+    private static final int PROJETOS = 25;
+    private static final int MEMBROS_POR_PROJETO = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjetoService projetoService;
+
+    @Autowired
+    private MembroRepository membroRepository;
+
+    @Autowired
+    private MembroCache membroCache;
+
+    @Autowired
+    private IndiceBuscaProjetos indiceBusca;
+
+    private List<Membro> membros;
+    private Projeto primeiroProjeto;
+
+    @BeforeAll
+    void popular() {
+        List<Membro> novos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            novos.add(Membro.builder().nome("Orçamento " + i).atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO).build());
+        }
+        membros = membroRepository.saveAll(novos);
+
+        for (int i = 0; i < PROJETOS; i++) {
+            List<Membro> equipe = new ArrayList<>();
+            for (int j = 0; j < MEMBROS_POR_PROJETO; j++) {
+                equipe.add(membros.get((i + j) % membros.size()));
+            }
+            Projeto projeto = projetoService.create(Projeto.builder()
+                    .nome("Projeto orçamento " + i)
+                    .dataInicio(LocalDate.of(2025, 1, 1))
+                    .previsaoFim(LocalDate.of(2025, 1, 1).plusMonths(1 + i % 8))
+                    .orcamentoTotal(new BigDecimal(40000 + i * 25000))
+                    .status(StatusProjetoEnum.EM_ANALISE)
+                    .gerente(equipe.get(0))
+                    .membros(equipe)
+                    .build());
+            if (primeiroProjeto == null) {
+                primeiroProjeto = projeto;
+            }
+        }
+        //a atualização do índice é assíncrona; aqui os testes precisam dele completo
+        indiceBusca.reconstruir();
+    }
+
+    //membros em cache esconderiam buscas uma a uma
+    @BeforeEach
+    void setUp() {
+        membroCache.invalidarTodos();
+    }
+
+    @Test
+    @OrcamentoConsultas(maximo = 5)
+    @DisplayName("Listagem paginada: versão do ETag, ids, count, projetos com gerente e membros em lote")
+    void listagemPaginada() throws Exception {
+        mockMvc.perform(get("/api/projetos").param("page", "0").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20));
+    }
+
+    @Test
+    @OrcamentoConsultas(maximo = 4)
+    @DisplayName("Listagem filtrada: versão do ETag, membro e faixa de orçamento pela Specification, ordenação por vários campos")
+    void listagemFiltrada() throws Exception {
+        mockMvc.perform(get("/api/projetos")
+                        .param("membroId", membros.get(1).getId().toString())
+                        .param("orcamentoMax", "70000")
+                        .param("sort", "-orcamentoTotal,nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].nome").value("Projeto orçamento 1"))
+                .andExpect(jsonPath("$.content[1].nome").value("Projeto orçamento 0"));
+    }
+
+    @Test
+    @OrcamentoConsultas(maximo = 3)
+    @DisplayName("Listagem por cursor: ids e projetos com gerente e membros em lote")
+    void listagemPorCursor() throws Exception {
+        mockMvc.perform(get("/api/projetos").param("after", "").param("size", "20"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoConsultas(maximo = 2)
+    @DisplayName("Detalhe: versão e projeto com gerente e membros")
+    void detalhe() throws Exception {
+        mockMvc.perform(get("/api/projetos/{id}", primeiroProjeto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.membros.length()").value(MEMBROS_POR_PROJETO));
+    }
+
+    @Test
+    @OrcamentoConsultas(maximo = 1)
+    @DisplayName("Relatório: totais mantidos em memória, sem carregar projetos")
+    void relatorio() throws Exception {
+        mockMvc.perform(get("/api/projetos/relatorio"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoConsultas(maximo = 2)
+    @DisplayName("Busca textual: ids do índice em memória, projetos com gerente e membros em lote")
+    void buscaTextual() throws Exception {
+        mockMvc.perform(get("/api/projetos/search").param("q", "projeto orcamen").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+
+    //3 comandos, mais a busca do próximo bloco da sequência quando o anterior acaba
+    @Test
+    @OrcamentoConsultas(maximo = 4)
+    @DisplayName("Criação com 10 membros: membros resolvidos em uma consulta, inserts em lote")
+    void criacaoComDezMembros() throws Exception {
+        List<Long> ids = membros.subList(0, 10).stream().map(Membro::getId).toList();
+        ProjetoRequestDTO request = ProjetoRequestDTO.builder()
+                .nome("Projeto com equipe completa")
+                .dataInicio(LocalDate.of(2025, 2, 1))
+                .previsaoFim(LocalDate.of(2025, 4, 1))
+                .orcamentoTotal(new BigDecimal("80000"))
+                .gerenteId(ids.get(0))
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .membrosIds(ids)
+                .build();
+
+        mockMvc.perform(post("/api/projetos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoConsultas(maximo = 1)
+    @DisplayName("Listagem de membros: uma consulta")
+    void listagemDeMembros() throws Exception {
+        mockMvc.perform(get("/api/membros"))
+                .andExpect(status().isOk());
+    }
+}
@@ -1,7 +1,9 @@
 package com.jtarcio.portfolioapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.dto.request.FiltroProjetoDTO;
 import com.jtarcio.portfolioapi.dto.request.ProjetoRequestDTO;
+import com.jtarcio.portfolioapi.dto.response.PaginaCursorResponseDTO;
 import com.jtarcio.portfolioapi.dto.response.ProjetoResponseDTO;
 import com.jtarcio.portfolioapi.mapper.ProjetoMapper;
 import com.jtarcio.portfolioapi.model.entity.Membro;
@@ -9,6 +11,7 @@ import com.jtarcio.portfolioapi.model.entity.Projeto;
 import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
 import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
 import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.projection.VersaoProjetoProjection;
 import com.jtarcio.portfolioapi.service.ProjetoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +23,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,11 +33,18 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -105,7 +118,7 @@ class ProjetoControllerTest {
     @DisplayName("Deve listar todos os projetos com paginação")
     void deveListarTodosProjetos() throws Exception {
         Page<Projeto> page = new PageImpl<>(List.of(projeto));
-        when(projetoService.findAll(any(PageRequest.class))).thenReturn(page);
+        when(projetoService.findAll(any(PageRequest.class), eq(new FiltroProjetoDTO()))).thenReturn(page);
         when(projetoMapper.toResponseDTO(any(Projeto.class))).thenReturn(projetoResponseDTO);
 
         mockMvc.perform(get("/api/projetos")
@@ -115,6 +128,98 @@ class ProjetoControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    @DisplayName("Deve listar projetos filtrando por risco")
+    void deveListarProjetosFiltrandoPorRisco() throws Exception {
+        Page<Projeto> page = new PageImpl<>(List.of(projeto));
+        FiltroProjetoDTO filtro = FiltroProjetoDTO.builder().risco(ClassificacaoRiscoEnum.ALTO_RISCO).build();
+        when(projetoService.findAll(any(PageRequest.class), eq(filtro))).thenReturn(page);
+        when(projetoMapper.toResponseDTO(any(Projeto.class))).thenReturn(projetoResponseDTO);
+
+        mockMvc.perform(get("/api/projetos")
+                        .param("risco", "ALTO_RISCO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    @Test
+    @DisplayName("Deve combinar filtros e ordenação na listagem")
+    void deveListarProjetosComFiltrosEOrdenacao() throws Exception {
+        FiltroProjetoDTO filtro = FiltroProjetoDTO.builder()
+                .status(StatusProjetoEnum.EM_ANDAMENTO)
+                .dataInicioDe(LocalDate.of(2025, 1, 1))
+                .dataInicioAte(LocalDate.of(2025, 6, 30))
+                .orcamentoMin(new BigDecimal("100000"))
+                .build();
+        PageRequest pagina = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("dataInicio"), Sort.Order.asc("id")));
+        when(projetoService.findAll(eq(pagina), eq(filtro))).thenReturn(new PageImpl<>(List.of(projeto)));
+        when(projetoMapper.toResponseDTO(any(Projeto.class))).thenReturn(projetoResponseDTO);
+
+        mockMvc.perform(get("/api/projetos")
+                        .param("status", "EM_ANDAMENTO")
+                        .param("dataInicioDe", "2025-01-01")
+                        .param("dataInicioAte", "2025-06-30")
+                        .param("orcamentoMin", "100000")
+                        .param("sort", "-dataInicio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    @DisplayName("Deve recusar ordenação sem índice para os filtros")
+    void deveRecusarOrdenacaoSemIndice() throws Exception {
+        mockMvc.perform(get("/api/projetos")
+                        .param("status", "EM_ANDAMENTO")
+                        .param("sort", "nome"))
+                .andExpect(status().isBadRequest());
+
+        verify(projetoService, never()).findAll(any(PageRequest.class), any(FiltroProjetoDTO.class));
+    }
+
+    @Test
+    @DisplayName("Deve listar projetos por cursor")
+    void deveListarProjetosPorCursor() throws Exception {
+        when(projetoService.findAllApos(null, 10))
+                .thenReturn(new SliceImpl<>(List.of(projeto), PageRequest.of(0, 10), true));
+        when(projetoMapper.toResponseDTOList(any())).thenReturn(List.of(projetoResponseDTO));
+
+        mockMvc.perform(get("/api/projetos")
+                        .param("after", "")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo").isArray())
+                .andExpect(jsonPath("$.temProxima").value(true))
+                .andExpect(jsonPath("$.proximoCursor").value(PaginaCursorResponseDTO.codificarCursor(1L)));
+    }
+
+    @Test
+    @DisplayName("Deve recusar filtros ou ordenação junto do cursor")
+    void deveRecusarFiltrosJuntoDoCursor() throws Exception {
+        mockMvc.perform(get("/api/projetos")
+                        .param("after", "")
+                        .param("status", "EM_ANDAMENTO"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/projetos")
+                        .param("after", "")
+                        .param("sort", "-nome"))
+                .andExpect(status().isBadRequest());
+
+        verify(projetoService, never()).findAllApos(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve buscar projetos por texto")
+    void deveBuscarProjetosPorTexto() throws Exception {
+        when(projetoService.buscar(eq("proj tes"), eq(PageRequest.of(0, 5)))).thenReturn(new PageImpl<>(List.of(projeto)));
+        when(projetoMapper.toResponseDTO(any(Projeto.class))).thenReturn(projetoResponseDTO);
+
+        mockMvc.perform(get("/api/projetos/search")
+                        .param("q", "proj tes")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].nome").value("Projeto Teste"));
+    }
+
     @Test
     @DisplayName("Deve buscar projeto por ID")
     void deveBuscarProjetoPorId() throws Exception {
@@ -127,6 +232,46 @@ class ProjetoControllerTest {
                 .andExpect(jsonPath("$.nome").value("Projeto Teste"));
     }
 
+    @Test
+    @DisplayName("Deve responder 304 sem carregar o projeto quando o ETag confere")
+    void deveResponderNaoModificadoQuandoEtagConfere() throws Exception {
+        VersaoProjetoProjection versao = mock(VersaoProjetoProjection.class);
+        when(versao.getVersao()).thenReturn(3L);
+        when(projetoService.buscarVersao(1L)).thenReturn(Optional.of(versao));
+
+        mockMvc.perform(get("/api/projetos/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+        verify(projetoService, never()).findById(1L);
+        verify(projetoMapper, never()).toResponseDTO(any(Projeto.class));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 na listagem quando nada mudou")
+    void deveResponderNaoModificadoNaListagem() throws Exception {
+        Page<Projeto> page = new PageImpl<>(List.of(projeto));
+        when(projetoService.findAll(any(PageRequest.class), any(FiltroProjetoDTO.class))).thenReturn(page);
+        when(projetoMapper.toResponseDTO(any(Projeto.class))).thenReturn(projetoResponseDTO);
+
+        String etag = mockMvc.perform(get("/api/projetos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/projetos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Deve responder 412 quando o If-Match não é um ETag do projeto")
+    void deveResponderPrecondicaoFalhouComIfMatchInvalido() throws Exception {
+        mockMvc.perform(put("/api/projetos/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(projetoRequestDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("Deve criar novo projeto")
     void deveCriarProjeto() throws Exception {
@@ -145,7 +290,7 @@ class ProjetoControllerTest {
     @DisplayName("Deve atualizar projeto")
     void deveAtualizarProjeto() throws Exception {
         when(projetoMapper.toEntity(any(ProjetoRequestDTO.class))).thenReturn(projeto);
-        when(projetoService.update(eq(1L), any(Projeto.class))).thenReturn(projeto);
+        when(projetoService.update(eq(1L), any(Projeto.class), isNull())).thenReturn(projeto);
         when(projetoMapper.toResponseDTO(any(Projeto.class))).thenReturn(projetoResponseDTO);
 
         mockMvc.perform(put("/api/projetos/1")
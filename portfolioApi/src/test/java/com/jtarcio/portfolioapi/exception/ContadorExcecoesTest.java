@@ -0,0 +1,58 @@
+package com.jtarcio.portfolioapi.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do ContadorExcecoes")
+class ContadorExcecoesTest {
+
+    private SimpleMeterRegistry registry;
+    private ContadorExcecoes contador;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        contador = new ContadorExcecoes(registry);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar mensagens que só diferem por ids")
+    void deveAgruparMensagensPorChave() {
+        contador.registrar(new PortfolioException("Não encontramos esse ID: 10"));
+        contador.registrar(new PortfolioException("Não encontramos esse ID: 2345"));
+        contador.registrar(new PortfolioException("Membros não localizados no banco de dados: [3, 4]"));
+
+        assertEquals(2.0, registry.get("portfolio.excecoes")
+                .tag("chave", "Não encontramos esse ID: #")
+                .tag("tipo", "PortfolioException")
+                .counter().count());
+        assertEquals(1.0, registry.get("portfolio.excecoes")
+                .tag("chave", "Membros não localizados no banco de dados: [#]")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve separar por tipo de exceção")
+    void deveSepararPorTipo() {
+        contador.registrar(new ServicoExternoIndisponivelException("Fonte externa de membros indisponível"));
+
+        assertEquals(1.0, registry.get("portfolio.excecoes")
+                .tag("tipo", "ServicoExternoIndisponivelException")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve limitar a quantidade de chaves distintas")
+    void deveLimitarChavesDistintas() {
+        for (int i = 0; i < ContadorExcecoes.MAXIMO_CHAVES + 10; i++) {
+            contador.registrar(new PortfolioException("Mensagem livre " + (char) ('a' + i % 26) + (char) ('a' + i / 26)));
+        }
+
+        assertEquals(ContadorExcecoes.MAXIMO_CHAVES + 1, registry.get("portfolio.excecoes").counters().size());
+        assertEquals(10.0, registry.get("portfolio.excecoes").tag("chave", ContadorExcecoes.OUTRAS).counter().count());
+    }
+}
@@ -0,0 +1,199 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.MembroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Centenas de alocações em paralelo contra o mesmo projeto e o mesmo membro:
+ * os limites (10 membros por projeto, 3 projetos ativos por membro) precisam valer no banco,
+ * não só na checagem em memória de cada requisição.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Testes de alocação concorrente de membros")
+class AlocacaoConcorrenteTest {
+
+    private static final int THREADS = 32;
+    private static final EnumSet<StatusProjetoEnum> FINALIZADOS = Arrays.stream(StatusProjetoEnum.values())
+            .filter(StatusProjetoEnum::isStatusFinalizado)
+            .collect(() -> EnumSet.noneOf(StatusProjetoEnum.class), EnumSet::add, EnumSet::addAll);
+
+    @Autowired
+    private ProjetoService projetoService;
+
+    @Autowired
+    private MembroService membroService;
+
+    @Autowired
+    private MembroRepository membroRepository;
+
+    private ExecutorService executor;
+    private Membro gerente;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        gerente = novoMembro("Gerente");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Projeto não deve passar de 10 membros com 200 alocações simultâneas")
+    void projetoNaoDevePassarDeDezMembros() throws Exception {
+        Projeto projeto = novoProjeto();
+        List<Membro> candidatos = novosMembros(200);
+
+        Contagem contagem = executarEmParalelo(candidatos.stream()
+                .map(m -> (Runnable) () -> projetoService.adicionarMembro(projeto.getId(), m.getId()))
+                .toList());
+
+        int membrosNoProjeto = projetoService.findById(projeto.getId()).getMembros().size();
+        assertTrue(membrosNoProjeto <= 10, "projeto com " + membrosNoProjeto + " membros");
+        assertEquals(membrosNoProjeto - 1, contagem.sucessos.get());
+        assertEquals(200, contagem.total());
+    }
+
+    @Test
+    @DisplayName("Membro não deve passar de 3 projetos ativos com 200 alocações simultâneas")
+    void membroNaoDevePassarDeTresProjetosAtivos() throws Exception {
+        Membro alvo = novoMembro("Disputado");
+        List<Projeto> projetos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            projetos.add(novoProjeto());
+        }
+
+        Contagem contagem = executarEmParalelo(projetos.stream()
+                .map(p -> (Runnable) () -> projetoService.adicionarMembro(p.getId(), alvo.getId()))
+                .toList());
+
+        long projetosDoMembro = membroRepository.contarProjetosDoMembro(alvo.getId(), FINALIZADOS);
+        assertTrue(projetosDoMembro <= 3, "membro em " + projetosDoMembro + " projetos ativos");
+        assertEquals(projetosDoMembro, contagem.sucessos.get());
+        assertEquals(200, contagem.total());
+    }
+
+    @Test
+    @DisplayName("Os dois limites devem valer juntos com 500 alocações cruzadas")
+    void limitesDevemValerEmAlocacoesCruzadas() throws Exception {
+        List<Projeto> projetos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            projetos.add(novoProjeto());
+        }
+        List<Membro> membros = novosMembros(40);
+
+        Random random = new Random(42);
+        List<Runnable> alocacoes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Long projetoId = projetos.get(random.nextInt(projetos.size())).getId();
+            Long membroId = membros.get(random.nextInt(membros.size())).getId();
+            alocacoes.add(() -> projetoService.adicionarMembro(projetoId, membroId));
+        }
+
+        Contagem contagem = executarEmParalelo(alocacoes);
+
+        int alocados = 0;
+        for (Projeto projeto : projetos) {
+            int membrosNoProjeto = projetoService.findById(projeto.getId()).getMembros().size();
+            assertTrue(membrosNoProjeto <= 10, "projeto " + projeto.getId() + " com " + membrosNoProjeto + " membros");
+            alocados += membrosNoProjeto - 1;
+        }
+        for (Membro membro : membros) {
+            long projetosDoMembro = membroRepository.contarProjetosDoMembro(membro.getId(), FINALIZADOS);
+            assertTrue(projetosDoMembro <= 3, "membro " + membro.getId() + " em " + projetosDoMembro + " projetos ativos");
+        }
+        assertEquals(alocados, contagem.sucessos.get());
+        assertEquals(500, contagem.total());
+    }
+
+    //dispara todas as tarefas juntas e separa sucesso, regra de negócio e tentativas esgotadas
+    private Contagem executarEmParalelo(List<Runnable> tarefas) throws Exception {
+        Contagem contagem = new Contagem();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (Runnable tarefa : tarefas) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    tarefa.run();
+                    contagem.sucessos.incrementAndGet();
+                } catch (PortfolioException e) {
+                    contagem.recusadas.incrementAndGet();
+                } catch (ConcurrencyFailureException e) {
+                    contagem.esgotadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            //qualquer outra exceção falha o teste aqui
+            futuro.get();
+        }
+        return contagem;
+    }
+
+    private Projeto novoProjeto() {
+        return projetoService.create(Projeto.builder()
+                .nome("Projeto concorrente")
+                .dataInicio(LocalDate.of(2025, 1, 1))
+                .previsaoFim(LocalDate.of(2025, 3, 1))
+                .orcamentoTotal(new BigDecimal("50000.00"))
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .gerente(gerente)
+                .membros(new ArrayList<>(List.of(gerente)))
+                .build());
+    }
+
+    private Membro novoMembro(String nome) {
+        return membroService.save(Membro.builder().nome(nome).atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO).build());
+    }
+
+    private List<Membro> novosMembros(int quantidade) {
+        List<Membro> membros = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            membros.add(Membro.builder().nome("Funcionário " + i).atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO).build());
+        }
+        return membroRepository.saveAll(membros);
+    }
+
+    private static class Contagem {
+        final AtomicInteger sucessos = new AtomicInteger();
+        final AtomicInteger recusadas = new AtomicInteger();
+        final AtomicInteger esgotadas = new AtomicInteger();
+
+        int total() {
+            return sucessos.get() + recusadas.get() + esgotadas.get();
+        }
+    }
+}
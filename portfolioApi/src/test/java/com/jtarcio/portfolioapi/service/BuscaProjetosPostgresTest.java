@@ -0,0 +1,63 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.config.IndicesBuscaConfig;
+import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do BuscaProjetosPostgres")
+class BuscaProjetosPostgresTest {
+
+    private static final Pageable PAGINA = PageRequest.of(0, 10);
+
+    @Mock
+    private ProjetoRepository projetoRepository;
+
+    @Mock
+    private IndicesBuscaConfig indicesBusca;
+
+    private BuscaProjetosPostgres busca;
+
+    @BeforeEach
+    void setUp() {
+        busca = new BuscaProjetosPostgres(projetoRepository, indicesBusca);
+    }
+
+    @Test
+    @DisplayName("Com pg_trgm deve buscar também pelos trigramas do nome")
+    void deveBuscarComTrigramas() {
+        when(indicesBusca.trigramasDisponiveis()).thenReturn(true);
+        Page<Long> ids = new PageImpl<>(List.of(1L), PAGINA, 1);
+        when(projetoRepository.buscarTexto("portal & vendas:*", "portal vendas", PAGINA)).thenReturn(ids);
+
+        assertSame(ids, busca.buscar("Portal Vendas", PAGINA));
+        verify(projetoRepository, never()).buscarTextoSemTrigramas(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Sem pg_trgm deve buscar só pelo tsvector")
+    void deveBuscarSemTrigramas() {
+        when(indicesBusca.trigramasDisponiveis()).thenReturn(false);
+        Page<Long> ids = new PageImpl<>(List.of(2L), PAGINA, 1);
+        when(projetoRepository.buscarTextoSemTrigramas("portal & vendas:*", PAGINA)).thenReturn(ids);
+
+        assertSame(ids, busca.buscar("Portal Vendas", PAGINA));
+        verify(projetoRepository, never()).buscarTexto(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,141 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.RegraRisco;
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.RegraRiscoRepository;
+import com.jtarcio.portfolioapi.service.ClassificadorRisco.RegrasRisco;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes do ClassificadorRisco")
+class ClassificadorRiscoTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 31);
+
+    private ClassificadorRisco classificador;
+
+    @BeforeEach
+    void setUp() {
+        classificador = new ClassificadorRisco(ClassificadorRisco.REGRAS_PADRAO);
+    }
+
+    @Test
+    @DisplayName("Diferença de meses deve ser igual à do ChronoUnit")
+    void mesesEntreDeveSerIgualAoChronoUnit() {
+        LocalDate base = LocalDate.of(2023, 11, 1);
+        for (int i = 0; i < 120; i++) {
+            LocalDate inicio = base.plusDays(i * 7L);
+            for (int dias = 0; dias < 800; dias += 3) {
+                LocalDate fim = inicio.plusDays(dias);
+                assertEquals(ChronoUnit.MONTHS.between(inicio, fim), ClassificadorRisco.mesesEntre(inicio, fim),
+                        () -> inicio + " a " + fim);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve respeitar os limites inclusivos das regras padrão")
+    void deveRespeitarLimites() {
+        assertEquals(ClassificacaoRiscoEnum.BAIXO_RISCO,
+                classificador.classificar(new BigDecimal("100000"), INICIO, INICIO.plusMonths(3)));
+        assertEquals(ClassificacaoRiscoEnum.MEDIO_RISCO,
+                classificador.classificar(new BigDecimal("100000.01"), INICIO, INICIO.plusMonths(3)));
+        assertEquals(ClassificacaoRiscoEnum.MEDIO_RISCO,
+                classificador.classificar(new BigDecimal("100000"), INICIO, INICIO.plusMonths(4)));
+        assertEquals(ClassificacaoRiscoEnum.MEDIO_RISCO,
+                classificador.classificar(new BigDecimal("500000.00"), INICIO, INICIO.plusMonths(6)));
+        assertEquals(ClassificacaoRiscoEnum.ALTO_RISCO,
+                classificador.classificar(new BigDecimal("500000.001"), INICIO, INICIO.plusMonths(1)));
+        assertEquals(ClassificacaoRiscoEnum.ALTO_RISCO,
+                classificador.classificar(new BigDecimal("1000"), INICIO, INICIO.plusMonths(7)));
+    }
+
+    @Test
+    @DisplayName("Deve classificar o lote e contar só os que mudaram")
+    void deveClassificarLote() {
+        Projeto baixo = projeto("50000", 2, ClassificacaoRiscoEnum.BAIXO_RISCO);
+        Projeto semClassificacao = projeto("250000", 4, null);
+        Projeto errado = projeto("600000", 8, ClassificacaoRiscoEnum.MEDIO_RISCO);
+
+        int alterados = classificador.classificarLote(List.of(baixo, semClassificacao, errado));
+
+        assertEquals(2, alterados);
+        assertEquals(ClassificacaoRiscoEnum.BAIXO_RISCO, baixo.getClassificacaoRiscoEnum());
+        assertEquals(ClassificacaoRiscoEnum.MEDIO_RISCO, semClassificacao.getClassificacaoRiscoEnum());
+        assertEquals(ClassificacaoRiscoEnum.ALTO_RISCO, errado.getClassificacaoRiscoEnum());
+    }
+
+    @Test
+    @DisplayName("Deve usar as novas regras depois de atualizadas")
+    void deveAtualizarRegras() {
+        Projeto projeto = projeto("250000", 4, null);
+        assertEquals(ClassificacaoRiscoEnum.MEDIO_RISCO, classificador.classificar(projeto));
+
+        classificador.atualizarRegras(new RegrasRisco(new BigDecimal("300000"), new BigDecimal("900000"), 6, 12));
+
+        assertEquals(ClassificacaoRiscoEnum.BAIXO_RISCO, classificador.classificar(projeto));
+    }
+
+    @Test
+    @DisplayName("Regras gravadas devem valer sobre as do application.yml")
+    void regrasGravadasDevemValerSobreAsDoYml() {
+        RegrasRisco gravadas = new RegrasRisco(new BigDecimal("300000.00"), new BigDecimal("900000.00"), 6, 12);
+        RegraRiscoRepository repositorio = mock(RegraRiscoRepository.class);
+        when(repositorio.findById(RegraRisco.VIGENTE)).thenReturn(Optional.of(ClassificadorRisco.linhaDe(gravadas)));
+
+        ClassificadorRisco carregado = new ClassificadorRisco(new BigDecimal("100000.00"), new BigDecimal("500000.00"), 3, 6,
+                repositorio);
+
+        assertEquals(gravadas, carregado.regras());
+    }
+
+    @Test
+    @DisplayName("Sem regras gravadas deve usar as do application.yml")
+    void semRegrasGravadasDeveUsarAsDoYml() {
+        RegraRiscoRepository repositorio = mock(RegraRiscoRepository.class);
+        when(repositorio.findById(RegraRisco.VIGENTE)).thenReturn(Optional.empty());
+
+        ClassificadorRisco carregado = new ClassificadorRisco(new BigDecimal("100000.00"), new BigDecimal("500000.00"), 3, 6,
+                repositorio);
+
+        assertEquals(ClassificadorRisco.REGRAS_PADRAO, carregado.regras());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar regras inválidas")
+    void deveRejeitarRegrasInvalidas() {
+        assertThrows(PortfolioException.class,
+                () -> new RegrasRisco(new BigDecimal("500000"), new BigDecimal("100000"), 3, 6));
+        assertThrows(PortfolioException.class,
+                () -> new RegrasRisco(new BigDecimal("100000"), new BigDecimal("500000"), 7, 6));
+        assertThrows(PortfolioException.class,
+                () -> classificador.atualizarRegras(new RegrasRisco(new BigDecimal("100000.001"), new BigDecimal("500000"), 3, 6)));
+
+        assertEquals(ClassificadorRisco.REGRAS_PADRAO, classificador.regras());
+    }
+
+    private static Projeto projeto(String orcamento, int meses, ClassificacaoRiscoEnum risco) {
+        return Projeto.builder()
+                .nome("Projeto")
+                .dataInicio(INICIO)
+                .previsaoFim(INICIO.plusMonths(meses))
+                .orcamentoTotal(new BigDecimal(orcamento))
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .classificacaoRiscoEnum(risco)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.dto.request.FiltroProjetoDTO;
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do FiltrosProjeto")
+class FiltrosProjetoTest {
+
+    private static final FiltroProjetoDTO SEM_FILTROS = new FiltroProjetoDTO();
+
+    @Test
+    @DisplayName("Deve ler campos de ordenação com '-' para ordem decrescente")
+    void deveLerOrdenacao() {
+        Sort ordenacao = FiltrosProjeto.ordenacao(List.of("-dataInicio", "nome", "dataInicio"));
+
+        assertEquals(Sort.by(Sort.Order.desc("dataInicio"), Sort.Order.asc("nome")), ordenacao);
+        assertTrue(FiltrosProjeto.ordenacao(null).isUnsorted());
+        assertThrows(PortfolioException.class, () -> FiltrosProjeto.ordenacao(List.of("gerente.nome")));
+    }
+
+    @Test
+    @DisplayName("Deve completar a ordenação com o id")
+    void deveDesempatarPeloId() {
+        assertEquals(Sort.by("id"), FiltrosProjeto.ordenacaoAceita(SEM_FILTROS, Sort.unsorted()));
+        assertEquals(Sort.by(Sort.Order.desc("dataInicio"), Sort.Order.asc("id")),
+                FiltrosProjeto.ordenacaoAceita(SEM_FILTROS, Sort.by(Sort.Order.desc("dataInicio"))));
+        assertEquals(Sort.by(Sort.Order.desc("id")),
+                FiltrosProjeto.ordenacaoAceita(SEM_FILTROS, Sort.by(Sort.Order.desc("id"))));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar só ordenações com índice para os filtros de igualdade")
+    void deveAceitarSoOrdenacoesComIndice() {
+        FiltroProjetoDTO porStatus = FiltroProjetoDTO.builder().status(StatusProjetoEnum.EM_ANDAMENTO).build();
+        FiltroProjetoDTO porRisco = FiltroProjetoDTO.builder().risco(ClassificacaoRiscoEnum.ALTO_RISCO).build();
+        FiltroProjetoDTO porStatusERisco = FiltroProjetoDTO.builder()
+                .status(StatusProjetoEnum.EM_ANDAMENTO)
+                .risco(ClassificacaoRiscoEnum.ALTO_RISCO)
+                .build();
+
+        assertDoesNotThrow(() -> FiltrosProjeto.ordenacaoAceita(porStatus, Sort.by("dataInicio")));
+        assertDoesNotThrow(() -> FiltrosProjeto.ordenacaoAceita(porRisco, Sort.by("orcamentoTotal")));
+        assertDoesNotThrow(() -> FiltrosProjeto.ordenacaoAceita(porStatusERisco, Sort.by("orcamentoTotal")));
+        assertThrows(PortfolioException.class, () -> FiltrosProjeto.ordenacaoAceita(porStatus, Sort.by("orcamentoTotal")));
+        assertThrows(PortfolioException.class, () -> FiltrosProjeto.ordenacaoAceita(SEM_FILTROS, Sort.by("nome")));
+    }
+
+    @Test
+    @DisplayName("Com igualdades, índices sem igualdades não devem valer")
+    void naoDeveUsarIndiceSemIgualdadesParaFiltroDeIgualdade() {
+        FiltroProjetoDTO porStatus = FiltroProjetoDTO.builder().status(StatusProjetoEnum.EM_ANDAMENTO).build();
+
+        PortfolioException erro = assertThrows(PortfolioException.class,
+                () -> FiltrosProjeto.ordenacaoAceita(porStatus, Sort.by(Sort.Order.desc("orcamentoTotal"))));
+        assertTrue(erro.getMessage().contains("Ordene por id, dataInicio"));
+    }
+
+    @Test
+    @DisplayName("Com faixa, a primeira ordenação deve ser a coluna da faixa")
+    void faixaDeveOrdenarPelaColunaDaFaixa() {
+        FiltroProjetoDTO porData = FiltroProjetoDTO.builder().dataInicioDe(LocalDate.of(2025, 1, 1)).build();
+        FiltroProjetoDTO porRiscoEOrcamento = FiltroProjetoDTO.builder()
+                .risco(ClassificacaoRiscoEnum.ALTO_RISCO)
+                .orcamentoMin(new BigDecimal("100000"))
+                .build();
+        FiltroProjetoDTO porStatusEOrcamento = FiltroProjetoDTO.builder()
+                .status(StatusProjetoEnum.EM_ANDAMENTO)
+                .orcamentoMax(new BigDecimal("100000"))
+                .build();
+
+        assertEquals(Sort.by("dataInicio", "id"), FiltrosProjeto.ordenacaoAceita(porData, Sort.unsorted()));
+        assertThrows(PortfolioException.class, () -> FiltrosProjeto.ordenacaoAceita(porData, Sort.by("id")));
+        assertDoesNotThrow(() -> FiltrosProjeto.ordenacaoAceita(porRiscoEOrcamento, Sort.by("orcamentoTotal")));
+        assertThrows(PortfolioException.class, () -> FiltrosProjeto.ordenacaoAceita(porRiscoEOrcamento, Sort.by("id")));
+        assertThrows(PortfolioException.class, () -> FiltrosProjeto.ordenacaoAceita(porStatusEOrcamento, Sort.unsorted()));
+    }
+
+    @Test
+    @DisplayName("Filtro por gerente ou membro deve aceitar qualquer ordenação")
+    void filtroSeletivoDeveAceitarQualquerOrdenacao() {
+        FiltroProjetoDTO porGerente = FiltroProjetoDTO.builder().gerenteId(1L).build();
+        FiltroProjetoDTO porMembro = FiltroProjetoDTO.builder().membroId(1L).status(StatusProjetoEnum.EM_ANALISE).build();
+
+        assertEquals(Sort.by("nome", "id"), FiltrosProjeto.ordenacaoAceita(porGerente, Sort.by("nome")));
+        assertDoesNotThrow(() -> FiltrosProjeto.ordenacaoAceita(porMembro, Sort.by("previsaoFim")));
+    }
+
+    @Test
+    @DisplayName("Deve recusar faixas invertidas")
+    void deveRecusarFaixasInvertidas() {
+        FiltroProjetoDTO datas = FiltroProjetoDTO.builder()
+                .dataInicioDe(LocalDate.of(2025, 6, 1))
+                .dataInicioAte(LocalDate.of(2025, 1, 1))
+                .build();
+
+        assertThrows(PortfolioException.class, () -> FiltrosProjeto.validar(datas));
+        assertTrue(FiltrosProjeto.semFiltros(SEM_FILTROS));
+        assertFalse(FiltrosProjeto.semFiltros(datas));
+    }
+}
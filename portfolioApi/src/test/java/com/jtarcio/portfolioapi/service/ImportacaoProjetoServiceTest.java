@@ -0,0 +1,128 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jtarcio.portfolioapi.dto.response.ResultadoImportacaoDTO;
+import com.jtarcio.portfolioapi.mapper.ProjetoMapper;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do ImportacaoProjetoService")
+class ImportacaoProjetoServiceTest {
+
+    private static final String PROJETO_VALIDO = """
+            {"nome":"Projeto %d","dataInicio":"01/01/2025","previsaoFim":"01/03/2025",
+             "orcamentoTotal":50000,"gerenteId":1,"status":"EM_ANALISE","membrosIds":[1]}
+            """;
+
+    @Mock
+    private ProjetoService projetoService;
+
+    @Mock
+    private MembroService membroService;
+
+    @Mock
+    private ProjetoMapper projetoMapper;
+
+    private ImportacaoProjetoService importacaoService;
+
+    private Membro membro;
+
+    @BeforeEach
+    void setUp() {
+        importacaoService = new ImportacaoProjetoService(projetoService, membroService, projetoMapper,
+                new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2);
+
+        membro = Membro.builder().id(1L).nome("João Silva").atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO).build();
+        when(membroService.buscarPorIds(anyCollection())).thenReturn(Map.of(1L, membro));
+        when(projetoMapper.toEntity(any(), anyMap())).thenAnswer(inv -> Projeto.builder()
+                .nome("Projeto importado")
+                .dataInicio(LocalDate.of(2025, 1, 1))
+                .previsaoFim(LocalDate.of(2025, 3, 1))
+                .orcamentoTotal(new BigDecimal("50000"))
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Deve importar projetos válidos e reportar os inválidos sem interromper")
+    void deveImportarValidosEReportarInvalidos() {
+        String corpo = "[" + PROJETO_VALIDO.formatted(1) + ",{\"nome\":\"\"}," + PROJETO_VALIDO.formatted(2) + "]";
+        when(projetoService.createAll(anyList())).thenAnswer(inv -> {
+            List<Projeto> projetos = inv.getArgument(0);
+            for (int i = 0; i < projetos.size(); i++) {
+                projetos.get(i).setId(10L + i);
+            }
+            return projetos;
+        });
+
+        ResultadoImportacaoDTO resultado = importar(corpo);
+
+        assertEquals(3, resultado.getTotal());
+        assertEquals(2, resultado.getImportados());
+        assertEquals(1, resultado.getFalhas());
+        assertTrue(resultado.getItens().get(0).isSucesso());
+        assertFalse(resultado.getItens().get(1).isSucesso());
+        assertTrue(resultado.getItens().get(1).getErro().contains("nome"));
+        verify(projetoService, times(1)).createAll(anyList());
+        verify(membroService, times(1)).buscarPorIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve gravar um a um quando o lote falhar")
+    void deveGravarIndividualmenteQuandoLoteFalhar() {
+        String corpo = "[" + PROJETO_VALIDO.formatted(1) + "," + PROJETO_VALIDO.formatted(2) + "]";
+        when(projetoService.createAll(anyList())).thenAnswer(inv -> {
+            List<Projeto> projetos = inv.getArgument(0);
+            if (projetos.size() > 1) {
+                throw new DataIntegrityViolationException("lote");
+            }
+            projetos.get(0).setId(20L);
+            return projetos;
+        });
+
+        ResultadoImportacaoDTO resultado = importar(corpo);
+
+        assertEquals(2, resultado.getImportados());
+        assertEquals(0, resultado.getFalhas());
+        verify(projetoService, times(3)).createAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve interromper e reportar JSON malformado")
+    void deveReportarJsonMalformado() {
+        when(projetoService.createAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        ResultadoImportacaoDTO resultado = importar("[" + PROJETO_VALIDO.formatted(1) + ",{\"nome\":");
+
+        assertEquals(1, resultado.getImportados());
+        assertEquals(1, resultado.getFalhas());
+        assertTrue(resultado.getItens().get(1).getErro().startsWith("JSON inválido"));
+    }
+
+    private ResultadoImportacaoDTO importar(String corpo) {
+        return importacaoService.importar(new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import com.jtarcio.portfolioapi.repository.projection.TextoProjetoProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do IndiceBuscaProjetos")
+class IndiceBuscaProjetosTest {
+
+    @Mock
+    private ProjetoRepository projetoRepository;
+
+    private IndiceBuscaProjetos indiceBusca;
+
+    @BeforeEach
+    void setUp() {
+        //executor síncrono: a atualização termina antes de o evento retornar
+        indiceBusca = new IndiceBuscaProjetos(projetoRepository, Runnable::run);
+        when(projetoRepository.findTextoApos(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(texto(100L, "Portal do Cliente")));
+        indiceBusca.reconstruir();
+    }
+
+    @Test
+    @DisplayName("Criação em lote deve indexar os ids do evento, mesmo abaixo do último varrido")
+    void loteDeveIndexarIdsDoEvento() {
+        //lote que commitou depois de outro, com ids de um bloco de sequência anterior
+        when(projetoRepository.findTextoByIdIn(List.of(60L))).thenReturn(List.of(texto(60L, "Gestão de Contratos")));
+
+        indiceBusca.aoAlterarProjeto(new ProjetoAlteradoEvent(null, ProjetoAlteradoEvent.Operacao.LOTE, List.of(60L)));
+
+        assertEquals(List.of(60L), indiceBusca.buscar("contratos", PageRequest.of(0, 10)).getContent());
+        verify(projetoRepository, never()).findTextoApos(eq(100L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Lote sem ids deve varrer os projetos acima do último varrido")
+    void loteSemIdsDeveVarrerNovos() {
+        when(projetoRepository.findTextoApos(eq(100L), any(Pageable.class)))
+                .thenReturn(List.of(texto(150L, "Migração ERP")));
+
+        indiceBusca.aoAlterarProjeto(new ProjetoAlteradoEvent(null, ProjetoAlteradoEvent.Operacao.LOTE));
+
+        assertEquals(List.of(150L), indiceBusca.buscar("migracao", PageRequest.of(0, 10)).getContent());
+    }
+
+    private static TextoProjetoProjection texto(Long id, String nome) {
+        return new TextoProjetoProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getNome() {
+                return nome;
+            }
+
+            @Override
+            public String getDescricao() {
+                return null;
+            }
+        };
+    }
+}
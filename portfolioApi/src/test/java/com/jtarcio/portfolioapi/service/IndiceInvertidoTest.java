@@ -0,0 +1,85 @@
+package com.jtarcio.portfolioapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do IndiceInvertido")
+class IndiceInvertidoTest {
+
+    private IndiceInvertido indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceInvertido();
+        indice.indexar(1, "Gestão de Contratos", "Controle de contratos de fornecedores");
+        indice.indexar(2, "Portal do Cliente", "Atendimento e gestão de chamados");
+        indice.indexar(3, "Migração ERP", "Migração do sistema financeiro");
+        indice.indexar(4, "Aplicativo Financeiro", "Controle de despesas");
+    }
+
+    @Test
+    @DisplayName("Deve ignorar acentos e maiúsculas e pôr acertos no nome antes da descrição")
+    void deveOrdenarNomeAntesDaDescricao() {
+        IndiceInvertido.Resultado resultado = indice.buscar("GESTAO", 0, 10);
+
+        assertEquals(List.of(1L, 2L), resultado.ids());
+        assertEquals(2, resultado.total());
+    }
+
+    @Test
+    @DisplayName("Deve completar a última palavra como prefixo")
+    void deveCompletarPrefixo() {
+        assertEquals(List.of(1L, 4L), indice.buscar("contr", 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("Deve tolerar erro de digitação")
+    void deveTolerarErroDeDigitacao() {
+        assertEquals(List.of(4L, 3L), indice.buscar("finaceiro", 0, 10).ids());
+        assertEquals(List.of(3L), indice.buscar("sitsema", 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("Deve exigir todas as palavras da consulta")
+    void deveExigirTodasAsPalavras() {
+        assertEquals(List.of(3L), indice.buscar("migracao financeiro", 0, 10).ids());
+        assertTrue(indice.buscar("portal financeiro", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve refletir alteração e remoção de projetos")
+    void deveRefletirAlteracaoERemocao() {
+        indice.indexar(2, "Portal do Fornecedor", "Cadastro de fornecedores");
+        indice.remover(1);
+
+        assertTrue(indice.buscar("cliente", 0, 10).ids().isEmpty());
+        assertEquals(List.of(2L), indice.buscar("fornecedores", 0, 10).ids());
+        assertEquals(3, indice.quantidade());
+    }
+
+    @Test
+    @DisplayName("Deve paginar em ordem de relevância e id mais recente")
+    void devePaginarResultados() {
+        indice.limpar();
+        LongStream.rangeClosed(1, 25).forEach(id -> indice.indexar(id, "Projeto " + id, "teste de carga"));
+
+        IndiceInvertido.Resultado resultado = indice.buscar("teste", 1, 10);
+
+        assertEquals(LongStream.rangeClosed(6, 15).map(id -> 21 - id).boxed().toList(), resultado.ids());
+        assertEquals(25, resultado.total());
+    }
+
+    @Test
+    @DisplayName("Distância de edição deve contar transposição e parar no limite")
+    void distanciaDeveContarTransposicao() {
+        assertEquals(1, IndiceInvertido.distancia("gestao", "gestoa", 2));
+        assertEquals(2, IndiceInvertido.distancia("abc", "xyz", 1));
+        assertEquals(0, IndiceInvertido.distancia("erp", "erp", 1));
+    }
+}
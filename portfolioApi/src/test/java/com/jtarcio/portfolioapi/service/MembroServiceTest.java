@@ -1,5 +1,6 @@
 package com.jtarcio.portfolioapi.service;
 
+import com.jtarcio.portfolioapi.cache.MembroCache;
 import com.jtarcio.portfolioapi.exception.PortfolioException;
 import com.jtarcio.portfolioapi.model.entity.Membro;
 import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
@@ -10,13 +11,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +32,9 @@ class MembroServiceTest {
     @Mock
     private MembroRepository membroRepository;
 
+    @Spy
+    private MembroCache membroCache = new MembroCache(100, Duration.ofMinutes(1));
+
     @InjectMocks
     private MembroService membroService;
 
@@ -53,6 +62,31 @@ class MembroServiceTest {
         verify(membroRepository, times(1)).findById(1L);
     }
 
+    @Test
+    @DisplayName("Deve reaproveitar membro do cache na segunda busca")
+    void deveReaproveitarMembroDoCache() {
+        when(membroRepository.findById(1L)).thenReturn(Optional.of(membro));
+
+        membroService.findById(1L);
+        Membro resultado = membroService.findById(1L);
+
+        assertEquals("João Silva", resultado.getNome());
+        verify(membroRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar cache ao salvar membro")
+    void deveInvalidarCacheAoSalvarMembro() {
+        when(membroRepository.findById(1L)).thenReturn(Optional.of(membro));
+        when(membroRepository.save(any(Membro.class))).thenReturn(membro);
+
+        membroService.findById(1L);
+        membroService.save(membro);
+        membroService.findById(1L);
+
+        verify(membroRepository, times(2)).findById(1L);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao buscar membro inexistente")
     void deveLancarExcecaoAoBuscarMembroInexistente() {
@@ -66,6 +100,36 @@ class MembroServiceTest {
         assertTrue(exception.getMessage().contains("Não encontramos esse ID"));
     }
 
+    @Test
+    @DisplayName("Deve buscar vários membros em uma única consulta")
+    void deveBuscarVariosMembrosEmUmaConsulta() {
+        Membro membro2 = Membro.builder()
+                .id(2L)
+                .nome("Maria Santos")
+                .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                .build();
+        when(membroRepository.findAllById(anyCollection())).thenReturn(List.of(membro, membro2));
+
+        Map<Long, Membro> resultado = membroService.findAllById(List.of(1L, 2L, 1L));
+
+        assertEquals(2, resultado.size());
+        assertEquals("Maria Santos", resultado.get(2L).getNome());
+        verify(membroRepository, times(1)).findAllById(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve listar todos os ids inexistentes na busca em lote")
+    void deveListarIdsInexistentesNaBuscaEmLote() {
+        when(membroRepository.findAllById(anyCollection())).thenReturn(List.of(membro));
+
+        PortfolioException exception = assertThrows(
+                PortfolioException.class,
+                () -> membroService.findAllById(List.of(1L, 7L, 8L))
+        );
+
+        assertEquals("Membros não localizados no banco de dados: [7, 8]", exception.getMessage());
+    }
+
     @Test
     @DisplayName("Deve listar todos os membros")
     void deveListarTodosMembros() {
@@ -108,6 +172,22 @@ class MembroServiceTest {
         verify(membroRepository, times(1)).delete(membro);
     }
 
+    @Test
+    @DisplayName("Deve permitir alocação com menos de 3 projetos ativos")
+    void devePermitirAlocacaoComMenosDeTresProjetosAtivos() {
+        when(membroRepository.contarProjetosDoMembro(eq(1L), anyCollection())).thenReturn(2L);
+
+        assertTrue(membroService.podeAlocarEmNovoProjeto(membro));
+    }
+
+    @Test
+    @DisplayName("Deve bloquear alocação com 3 projetos ativos")
+    void deveBloquearAlocacaoComTresProjetosAtivos() {
+        when(membroRepository.contarProjetosDoMembro(eq(1L), anyCollection())).thenReturn(3L);
+
+        assertFalse(membroService.podeAlocarEmNovoProjeto(membro));
+    }
+
     @Test
     @DisplayName("Deve verificar se membro é FUNCIONARIO")
     void deveVerificarSeMembroEhFuncionario() {
@@ -1,25 +1,41 @@
 package com.jtarcio.portfolioapi.service;
 
+import com.jtarcio.portfolioapi.dto.request.FiltroProjetoDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoStatusLoteDTO;
 import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.exception.VersaoDesatualizadaException;
 import com.jtarcio.portfolioapi.model.entity.Membro;
 import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.RegraRisco;
 import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
 import com.jtarcio.portfolioapi.model.entity.enums.ClassificacaoRiscoEnum;
 import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
 import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import com.jtarcio.portfolioapi.repository.RegraRiscoRepository;
+import com.jtarcio.portfolioapi.repository.projection.RiscoProjetoProjection;
+import com.jtarcio.portfolioapi.repository.projection.StatusProjetoProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalTransicaoProjection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +43,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +57,24 @@ class ProjetoServiceTest {
     @Mock
     private MembroService membroService;
 
+    @Mock
+    private RelatorioPortfolioAgregador relatorioAgregador;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BuscaProjetos buscaProjetos;
+
+    @Mock
+    private RegraRiscoRepository regraRiscoRepository;
+
+    @Spy
+    private ClassificadorRisco classificadorRisco = new ClassificadorRisco(ClassificadorRisco.REGRAS_PADRAO);
+
     @InjectMocks
     private ProjetoService projetoService;
 
@@ -94,16 +130,91 @@ class ProjetoServiceTest {
     @Test
     @DisplayName("Deve listar todos os projetos com paginação")
     void deveListarTodosProjetosComPaginacao() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Projeto> page = new PageImpl<>(List.of(projeto));
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+        Page<Long> ids = new PageImpl<>(List.of(1L), pageable, 1);
 
-        when(projetoRepository.findAll(pageable)).thenReturn(page);
+        when(projetoRepository.findPaginaDeIds(pageable)).thenReturn(ids);
+        when(projetoRepository.findByIdIn(List.of(1L))).thenReturn(List.of(projeto));
 
         Page<Projeto> resultado = projetoService.findAll(pageable);
 
         assertNotNull(resultado);
         assertEquals(1, resultado.getTotalElements());
-        verify(projetoRepository, times(1)).findAll(pageable);
+        assertEquals(projeto, resultado.getContent().get(0));
+        verify(projetoRepository, times(1)).findPaginaDeIds(pageable);
+        verify(projetoRepository, times(1)).findByIdIn(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Deve listar com filtros pela Specification, com o id como desempate")
+    void deveListarProjetosFiltrados() {
+        FiltroProjetoDTO filtro = FiltroProjetoDTO.builder().gerenteId(1L).status(StatusProjetoEnum.EM_ANALISE).build();
+        Pageable esperado = PageRequest.of(0, 10, Sort.by("nome").and(Sort.by("id")));
+
+        when(projetoRepository.findPaginaDeIdsPorFiltro(any(), eq(esperado)))
+                .thenReturn(new PageImpl<>(List.of(1L), esperado, 1));
+        when(projetoRepository.findByIdIn(List.of(1L))).thenReturn(List.of(projeto));
+
+        Page<Projeto> resultado = projetoService.findAll(PageRequest.of(0, 10, Sort.by("nome")), filtro);
+
+        assertEquals(List.of(projeto), resultado.getContent());
+        verify(projetoRepository, never()).findPaginaDeIds(any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar ordenação sem índice e faixa invertida")
+    void deveRecusarListagemSemIndice() {
+        FiltroProjetoDTO porStatus = FiltroProjetoDTO.builder().status(StatusProjetoEnum.EM_ANALISE).build();
+        FiltroProjetoDTO faixaInvertida = FiltroProjetoDTO.builder()
+                .orcamentoMin(new BigDecimal("200000"))
+                .orcamentoMax(new BigDecimal("100000"))
+                .build();
+
+        assertThrows(PortfolioException.class,
+                () -> projetoService.findAll(PageRequest.of(0, 10, Sort.by("orcamentoTotal")), porStatus));
+        assertThrows(PortfolioException.class, () -> projetoService.findAll(PageRequest.of(0, 10), faixaInvertida));
+        verifyNoInteractions(projetoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve recusar página por cursor vazia ou acima do máximo")
+    void deveRecusarTamanhoInvalidoNoCursor() {
+        assertThrows(PortfolioException.class, () -> projetoService.findAllApos(null, 0));
+        assertThrows(PortfolioException.class, () -> projetoService.findAllApos(null, 101));
+        assertThrows(PortfolioException.class, () -> projetoService.findAllApos(10L, Integer.MAX_VALUE));
+        verifyNoInteractions(projetoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a busca na ordem de relevância")
+    void deveBuscarProjetosNaOrdemDeRelevancia() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Projeto outro = Projeto.builder()
+                .id(2L)
+                .nome("Gestão de contratos")
+                .dataInicio(LocalDate.of(2025, 1, 1))
+                .previsaoFim(LocalDate.of(2025, 3, 1))
+                .orcamentoTotal(new BigDecimal("50000"))
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .membros(new ArrayList<>())
+                .build();
+
+        when(buscaProjetos.buscar("gestao", pageable)).thenReturn(new PageImpl<>(List.of(2L, 1L), pageable, 2));
+        when(projetoRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(projeto, outro));
+
+        Page<Projeto> resultado = projetoService.buscar("gestao", pageable);
+
+        assertEquals(2, resultado.getTotalElements());
+        assertEquals(List.of(outro, projeto), resultado.getContent());
+    }
+
+    @Test
+    @DisplayName("Deve recusar busca vazia ou além dos resultados mais relevantes")
+    void deveRecusarBuscaInvalida() {
+        assertThrows(PortfolioException.class, () -> projetoService.buscar("  ", PageRequest.of(0, 10)));
+        assertThrows(PortfolioException.class, () -> projetoService.buscar("a".repeat(101), PageRequest.of(0, 10)));
+        assertThrows(PortfolioException.class, () -> projetoService.buscar("gestao", PageRequest.of(100, 10)));
+        verifyNoInteractions(buscaProjetos);
     }
 
     @Test
@@ -116,6 +227,7 @@ class ProjetoServiceTest {
         assertNotNull(resultado);
         assertEquals("Projeto Teste", resultado.getNome());
         verify(projetoRepository, times(1)).save(any(Projeto.class));
+        verify(eventPublisher).publishEvent(new ProjetoAlteradoEvent(1L, ProjetoAlteradoEvent.Operacao.CRIACAO));
     }
 
     @Test
@@ -163,6 +275,202 @@ class ProjetoServiceTest {
         assertEquals(StatusProjetoEnum.ANALISE_REALIZADA, resultado.getStatus());
     }
 
+    @Test
+    @DisplayName("Deve avançar status carregando o projeto uma única vez")
+    void deveAvancarStatusCarregandoProjetoUmaVez() {
+        when(projetoRepository.findById(1L)).thenReturn(Optional.of(projeto));
+        when(projetoRepository.save(any(Projeto.class))).thenReturn(projeto);
+
+        Projeto resultado = projetoService.avancarProximoStatus(1L);
+
+        assertEquals(StatusProjetoEnum.ANALISE_REALIZADA, resultado.getStatus());
+        verify(projetoRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve alterar status em lote com um UPDATE por status de origem e rejeitar os inválidos")
+    void deveAlterarStatusEmLote() {
+        StatusProjetoProjection realizada = statusDe(1L, StatusProjetoEnum.ANALISE_REALIZADA);
+        StatusProjetoProjection emAnalise = statusDe(2L, StatusProjetoEnum.EM_ANALISE);
+        when(projetoRepository.findStatusByIdIn(any())).thenReturn(List.of(realizada, emAnalise));
+        when(projetoRepository.alterarStatusPorIds(eq(StatusProjetoEnum.ANALISE_REALIZADA),
+                eq(StatusProjetoEnum.ANALISE_APROVADA), isNull(), any(Instant.class), eq(List.of(1L)))).thenReturn(1);
+        TotalTransicaoProjection total = mock(TotalTransicaoProjection.class);
+        when(total.getQuantidade()).thenReturn(1L);
+        when(projetoRepository.totalizarTransicaoPorIds(eq(StatusProjetoEnum.ANALISE_APROVADA), any(Instant.class),
+                eq(List.of(1L)))).thenReturn(total);
+
+        ResultadoStatusLoteDTO resultado = projetoService.alterarStatusEmLote(
+                List.of(1L, 2L, 3L), null, StatusProjetoEnum.ANALISE_APROVADA);
+
+        assertEquals(1, resultado.getAlterados());
+        assertEquals(List.of(1L), resultado.getIdsAlterados());
+        assertEquals(2, resultado.getRejeitados().size());
+        assertEquals(StatusProjetoEnum.EM_ANALISE, resultado.getRejeitados().get(0).getStatusAtual());
+        assertNull(resultado.getRejeitados().get(1).getStatusAtual());
+        //totais dos alterados lidos na mesma transação: o relatório recebe um delta, sem reconstrução
+        verify(relatorioAgregador).registrarTransicao(StatusProjetoEnum.ANALISE_REALIZADA,
+                StatusProjetoEnum.ANALISE_APROVADA, total);
+        verify(relatorioAgregador, never()).registrarAlteracaoEmMassa();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar filtro de status com transição inválida")
+    void deveRejeitarFiltroComTransicaoInvalida() {
+        assertThrows(PortfolioException.class, () -> projetoService.alterarStatusEmLote(
+                null, StatusProjetoEnum.EM_ANALISE, StatusProjetoEnum.ENCERRADO));
+
+        verify(projetoRepository, never()).alterarStatusPorOrigem(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve reclassificar só os projetos cuja classificação mudou")
+    void deveReclassificarPortfolio() {
+        LocalDate inicio = LocalDate.of(2025, 1, 10);
+        RiscoProjetoProjection mudou = riscoDe(1L, "80000", inicio, inicio.plusMonths(2), ClassificacaoRiscoEnum.MEDIO_RISCO);
+        RiscoProjetoProjection igual = riscoDe(2L, "600000", inicio, inicio.plusMonths(8), ClassificacaoRiscoEnum.ALTO_RISCO);
+        when(projetoRepository.findRiscoApos(eq(0L), any(Pageable.class))).thenReturn(List.of(mudou, igual));
+        when(projetoRepository.findRiscoApos(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(projetoRepository.alterarClassificacaoRisco(eq(ClassificacaoRiscoEnum.BAIXO_RISCO), any(Instant.class), eq(List.of(1L))))
+                .thenReturn(1);
+
+        int alterados = projetoService.reclassificarPortfolio();
+
+        assertEquals(1, alterados);
+        verify(projetoRepository, times(1)).alterarClassificacaoRisco(any(), any(), any());
+        verify(eventPublisher).publishEvent(new ProjetoAlteradoEvent(null, ProjetoAlteradoEvent.Operacao.LOTE));
+    }
+
+    @Test
+    @DisplayName("Deve manter as regras de risco se a reclassificação falhar")
+    void deveRestaurarRegrasQuandoReclassificacaoFalha() {
+        when(projetoRepository.findRiscoApos(eq(0L), any(Pageable.class))).thenThrow(new IllegalStateException("falha"));
+        ClassificadorRisco.RegrasRisco novas =
+                new ClassificadorRisco.RegrasRisco(new BigDecimal("200000"), new BigDecimal("900000"), 4, 12);
+
+        assertThrows(IllegalStateException.class, () -> projetoService.alterarRegrasRisco(novas));
+
+        assertEquals(ClassificadorRisco.REGRAS_PADRAO, projetoService.regrasRisco());
+    }
+
+    @Test
+    @DisplayName("Deve gravar as regras de risco, reclassificar com elas e só trocá-las depois do commit")
+    void deveTrocarRegrasDepoisDoCommit() {
+        LocalDate inicio = LocalDate.of(2025, 1, 10);
+        RiscoProjetoProjection linha = riscoDe(1L, "250000", inicio, inicio.plusMonths(4), ClassificacaoRiscoEnum.MEDIO_RISCO);
+        when(projetoRepository.findRiscoApos(eq(0L), any(Pageable.class))).thenReturn(List.of(linha));
+        when(projetoRepository.findRiscoApos(eq(1L), any(Pageable.class))).thenReturn(List.of());
+        when(projetoRepository.alterarClassificacaoRisco(eq(ClassificacaoRiscoEnum.BAIXO_RISCO), any(Instant.class), eq(List.of(1L))))
+                .thenReturn(1);
+        ClassificadorRisco.RegrasRisco novas =
+                new ClassificadorRisco.RegrasRisco(new BigDecimal("300000"), new BigDecimal("900000"), 6, 12);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(1, projetoService.alterarRegrasRisco(novas));
+            assertEquals(ClassificadorRisco.REGRAS_PADRAO, projetoService.regrasRisco(), "antes do commit");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(novas, projetoService.regrasRisco());
+        verify(regraRiscoRepository).save(argThat(regra -> RegraRisco.VIGENTE.equals(regra.getId())
+                && regra.getMesesBaixo() == 6 && new BigDecimal("300000").equals(regra.getOrcamentoBaixo())));
+    }
+
+    private static RiscoProjetoProjection riscoDe(Long id, String orcamento, LocalDate inicio, LocalDate fim,
+                                                  ClassificacaoRiscoEnum atual) {
+        RiscoProjetoProjection linha = mock(RiscoProjetoProjection.class);
+        when(linha.getId()).thenReturn(id);
+        when(linha.getOrcamentoTotal()).thenReturn(new BigDecimal(orcamento));
+        when(linha.getDataInicio()).thenReturn(inicio);
+        when(linha.getPrevisaoFim()).thenReturn(fim);
+        when(linha.getClassificacaoRiscoEnum()).thenReturn(atual);
+        return linha;
+    }
+
+    private static StatusProjetoProjection statusDe(Long id, StatusProjetoEnum status) {
+        StatusProjetoProjection linha = mock(StatusProjetoProjection.class);
+        when(linha.getId()).thenReturn(id);
+        when(linha.getStatus()).thenReturn(status);
+        return linha;
+    }
+
+    @Test
+    @DisplayName("Deve recusar atualização sobre versão desatualizada")
+    void deveRecusarAtualizacaoComVersaoDesatualizada() {
+        projeto.setVersao(4L);
+        when(projetoRepository.findById(1L)).thenReturn(Optional.of(projeto));
+
+        assertThrows(VersaoDesatualizadaException.class, () -> projetoService.update(1L, projeto, 3L));
+
+        verify(projetoRepository, never()).save(any(Projeto.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar membro inativo em projeto novo")
+    void deveRecusarMembroInativoNaCriacao() {
+        Membro inativo = Membro.builder()
+                .id(2L)
+                .nome("Maria Souza")
+                .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                .ativo(false)
+                .build();
+        projeto.getMembros().add(inativo);
+
+        PortfolioException exception = assertThrows(
+                PortfolioException.class,
+                () -> projetoService.create(projeto)
+        );
+
+        assertEquals("Membro 2 está inativo e não pode ser alocado", exception.getMessage());
+        verify(projetoRepository, never()).save(any(Projeto.class));
+    }
+
+    @Test
+    @DisplayName("Deve manter membro inativo que já estava no projeto, mas não incluir um novo")
+    void deveAceitarMembroInativoSoSeJaEstavaNoProjeto() {
+        Membro inativo = Membro.builder()
+                .id(2L)
+                .nome("Maria Souza")
+                .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                .ativo(false)
+                .build();
+        projeto.getMembros().add(inativo);
+        when(projetoRepository.findById(1L)).thenReturn(Optional.of(projeto));
+        when(projetoRepository.save(any(Projeto.class))).thenAnswer(i -> i.getArgument(0));
+
+        Projeto mantendo = comMembros(membro, inativo);
+        assertDoesNotThrow(() -> projetoService.update(1L, mantendo));
+
+        Membro outroInativo = Membro.builder()
+                .id(3L)
+                .nome("Pedro Lima")
+                .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                .ativo(false)
+                .build();
+        Projeto incluindo = comMembros(membro, outroInativo);
+        PortfolioException exception = assertThrows(
+                PortfolioException.class,
+                () -> projetoService.update(1L, incluindo)
+        );
+        assertEquals("Membro 3 está inativo e não pode ser alocado", exception.getMessage());
+    }
+
+    private Projeto comMembros(Membro... membros) {
+        return Projeto.builder()
+                .nome(projeto.getNome())
+                .dataInicio(projeto.getDataInicio())
+                .previsaoFim(projeto.getPrevisaoFim())
+                .orcamentoTotal(projeto.getOrcamentoTotal())
+                .gerente(membro)
+                .status(projeto.getStatus())
+                .membros(new ArrayList<>(List.of(membros)))
+                .build();
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao deletar projeto com status INICIADO")
     void deveLancarExcecaoAoDeletarProjetoIniciado() {
@@ -187,7 +495,7 @@ class ProjetoServiceTest {
                 .build();
 
         when(projetoRepository.findById(1L)).thenReturn(Optional.of(projeto));
-        when(membroService.findById(2L)).thenReturn(novoMembro);
+        when(membroService.buscarParaAlocacao(2L)).thenReturn(novoMembro);
         when(membroService.podeAlocarEmNovoProjeto(novoMembro)).thenReturn(true);
         when(projetoRepository.save(any(Projeto.class))).thenReturn(projeto);
 
@@ -195,5 +503,57 @@ class ProjetoServiceTest {
 
         assertNotNull(resultado);
         verify(projetoRepository, times(1)).save(any(Projeto.class));
+        verify(membroService).invalidarCache(2L);
+    }
+
+    @Test
+    @DisplayName("Deve refazer a alocação que perdeu a disputa de versão")
+    void deveRefazerAlocacaoQuePerdeuDisputa() {
+        Membro novoMembro = Membro.builder()
+                .id(2L)
+                .nome("Maria Santos")
+                .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                .build();
+
+        when(projetoRepository.findById(1L)).thenAnswer(invocacao -> {
+            //cada tentativa relê o projeto, sem o membro da tentativa desfeita
+            projeto.getMembros().remove(novoMembro);
+            return Optional.of(projeto);
+        });
+        when(membroService.buscarParaAlocacao(2L)).thenReturn(novoMembro);
+        when(membroService.podeAlocarEmNovoProjeto(novoMembro)).thenReturn(true);
+        when(projetoRepository.save(any(Projeto.class))).thenReturn(projeto);
+        //o commit da primeira tentativa encontra a versão alterada por outra alocação
+        doThrow(new ObjectOptimisticLockingFailureException(Membro.class, 2L))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        Projeto resultado = projetoService.adicionarMembro(1L, 2L);
+
+        assertNotNull(resultado);
+        verify(membroService, times(2)).podeAlocarEmNovoProjeto(novoMembro);
+    }
+
+    @Test
+    @DisplayName("Deve desistir da alocação depois de esgotar as tentativas")
+    void deveDesistirDepoisDeEsgotarTentativas() {
+        Membro novoMembro = Membro.builder()
+                .id(2L)
+                .nome("Maria Santos")
+                .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                .build();
+
+        when(projetoRepository.findById(1L)).thenAnswer(invocacao -> {
+            //cada tentativa relê o projeto, sem o membro da tentativa desfeita
+            projeto.getMembros().remove(novoMembro);
+            return Optional.of(projeto);
+        });
+        when(membroService.buscarParaAlocacao(2L)).thenReturn(novoMembro);
+        when(membroService.podeAlocarEmNovoProjeto(novoMembro)).thenReturn(true);
+        when(projetoRepository.save(any(Projeto.class))).thenReturn(projeto);
+        doThrow(new ObjectOptimisticLockingFailureException(Membro.class, 2L)).when(transactionManager).commit(any());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> projetoService.adicionarMembro(1L, 2L));
+        verify(membroService, never()).invalidarCache(2L);
     }
 }
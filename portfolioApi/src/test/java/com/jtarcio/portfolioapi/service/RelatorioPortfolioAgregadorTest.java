@@ -0,0 +1,257 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Projeto;
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import com.jtarcio.portfolioapi.model.entity.enums.StatusProjetoEnum;
+import com.jtarcio.portfolioapi.repository.ProjetoRepository;
+import com.jtarcio.portfolioapi.repository.projection.AlocacoesMembroProjection;
+import com.jtarcio.portfolioapi.repository.projection.DuracaoProjetosProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalPorStatusProjection;
+import com.jtarcio.portfolioapi.repository.projection.TotalTransicaoProjection;
+import com.jtarcio.portfolioapi.service.RelatorioPortfolioAgregador.ContribuicaoProjeto;
+import com.jtarcio.portfolioapi.service.RelatorioPortfolioAgregador.Totais;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do RelatorioPortfolioAgregador")
+class RelatorioPortfolioAgregadorTest {
+
+    @Mock
+    private ProjetoRepository projetoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    //tarefas enviadas ao executor, executadas quando o teste quiser
+    private final List<Runnable> tarefas = new ArrayList<>();
+
+    private RelatorioPortfolioAgregador agregador;
+
+    private Membro membro1;
+    private Membro membro2;
+    private Projeto projeto;
+    private TotalPorStatusProjection totalEmAnalise;
+
+    @BeforeEach
+    void setUp() {
+        agregador = new RelatorioPortfolioAgregador(projetoRepository, tarefas::add, transactionManager);
+
+        membro1 = Membro.builder().id(1L).nome("João Silva").atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO).build();
+        membro2 = Membro.builder().id(2L).nome("Maria Santos").atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO).build();
+
+        projeto = Projeto.builder()
+                .id(1L)
+                .nome("Projeto Teste")
+                .dataInicio(LocalDate.of(2025, 1, 1))
+                .previsaoFim(LocalDate.of(2025, 3, 1))
+                .orcamentoTotal(new BigDecimal("50000"))
+                .gerente(membro1)
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .membros(new ArrayList<>(List.of(membro1)))
+                .build();
+
+        totalEmAnalise = mock(TotalPorStatusProjection.class);
+        when(totalEmAnalise.getStatus()).thenReturn(StatusProjetoEnum.EM_ANALISE);
+        when(totalEmAnalise.getQuantidade()).thenReturn(1L);
+        when(totalEmAnalise.getOrcamentoTotal()).thenReturn(new BigDecimal("50000"));
+
+        DuracaoProjetosProjection duracao = mock(DuracaoProjetosProjection.class);
+        when(duracao.getQuantidade()).thenReturn(0L);
+
+        AlocacoesMembroProjection alocacoes = mock(AlocacoesMembroProjection.class);
+        when(alocacoes.getMembroId()).thenReturn(1L);
+        when(alocacoes.getAlocacoes()).thenReturn(1L);
+
+        when(projetoRepository.totalizarPorStatus()).thenReturn(List.of(totalEmAnalise));
+        when(projetoRepository.totalizarDuracao(StatusProjetoEnum.ENCERRADO)).thenReturn(duracao);
+        when(projetoRepository.contarAlocacoesPorMembro()).thenReturn(List.of(alocacoes));
+        agregador.reconstruir();
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir os totais a partir do banco")
+    void deveReconstruirTotais() {
+        Totais totais = agregador.totais();
+
+        assertTrue(agregador.isInicializado());
+        assertEquals(1L, totais.quantidadePorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(new BigDecimal("50000"), totais.orcamentoPorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(1, totais.membrosUnicos());
+    }
+
+    @Test
+    @DisplayName("Deve somar projeto incluído")
+    void deveSomarProjetoIncluido() {
+        Projeto novo = Projeto.builder()
+                .id(2L)
+                .nome("Projeto Novo")
+                .dataInicio(LocalDate.of(2025, 1, 1))
+                .previsaoFim(LocalDate.of(2025, 6, 1))
+                .orcamentoTotal(new BigDecimal("25000"))
+                .gerente(membro2)
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .membros(new ArrayList<>(List.of(membro1, membro2)))
+                .build();
+
+        agregador.registrarInclusao(novo);
+        Totais totais = agregador.totais();
+
+        assertEquals(2L, totais.quantidadePorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(new BigDecimal("75000"), totais.orcamentoPorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(2, totais.membrosUnicos());
+    }
+
+    @Test
+    @DisplayName("Deve mover totais ao encerrar projeto")
+    void deveMoverTotaisAoEncerrarProjeto() {
+        ContribuicaoProjeto antes = ContribuicaoProjeto.de(projeto);
+        projeto.setStatus(StatusProjetoEnum.ENCERRADO);
+        projeto.setDataFim(LocalDate.of(2025, 1, 31));
+
+        agregador.registrarAlteracao(antes, projeto);
+        Totais totais = agregador.totais();
+
+        assertFalse(totais.quantidadePorStatus().containsKey(StatusProjetoEnum.EM_ANALISE));
+        assertFalse(totais.orcamentoPorStatus().containsKey(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(1L, totais.quantidadePorStatus().get(StatusProjetoEnum.ENCERRADO));
+        assertEquals(30L, totais.somaDiasEncerrados());
+        assertEquals(1L, totais.quantidadeEncerrados());
+    }
+
+    @Test
+    @DisplayName("Deve consultar totais agregados no banco")
+    void deveConsultarTotaisNoBanco() {
+        when(projetoRepository.contarMembrosUnicos()).thenReturn(1L);
+
+        Totais totais = agregador.consultarBanco();
+
+        assertEquals(1L, totais.quantidadePorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(0L, totais.quantidadeEncerrados());
+        assertEquals(1, totais.membrosUnicos());
+    }
+
+    @Test
+    @DisplayName("Deve retirar membros ao excluir projeto")
+    void deveRetirarMembrosAoExcluirProjeto() {
+        agregador.registrarExclusao(ContribuicaoProjeto.de(projeto));
+        Totais totais = agregador.totais();
+
+        assertTrue(totais.quantidadePorStatus().isEmpty());
+        assertEquals(0, totais.membrosUnicos());
+    }
+
+    @Test
+    @DisplayName("Transição em massa deve mover os totais dos projetos alterados sem reconstruir")
+    void transicaoEmMassaDeveMoverTotais() {
+        TotalTransicaoProjection total = mock(TotalTransicaoProjection.class);
+        when(total.getQuantidade()).thenReturn(1L);
+        when(total.getOrcamentoTotal()).thenReturn(new BigDecimal("50000"));
+        when(total.getSomaDias()).thenReturn(40L);
+        when(total.getComDataFim()).thenReturn(1L);
+
+        agregador.registrarTransicao(StatusProjetoEnum.EM_ANALISE, StatusProjetoEnum.ENCERRADO, total);
+        Totais totais = agregador.totais();
+
+        assertTrue(agregador.isInicializado());
+        assertTrue(tarefas.isEmpty());
+        assertFalse(totais.quantidadePorStatus().containsKey(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(1L, totais.quantidadePorStatus().get(StatusProjetoEnum.ENCERRADO));
+        assertEquals(new BigDecimal("50000"), totais.orcamentoPorStatus().get(StatusProjetoEnum.ENCERRADO));
+        assertEquals(40L, totais.somaDiasEncerrados());
+        assertEquals(1L, totais.quantidadeEncerrados());
+        assertEquals(1, totais.membrosUnicos());
+    }
+
+    @Test
+    @DisplayName("Alteração em massa deve reconstruir em segundo plano, uma vez para pedidos seguidos")
+    void alteracaoEmMassaDeveReconstruirEmSegundoPlano() {
+        agregador.registrarAlteracaoEmMassa();
+        agregador.registrarAlteracaoEmMassa();
+
+        //até a releitura o relatório vai ao banco, não usa os totais anteriores
+        assertFalse(agregador.isInicializado());
+        assertEquals(1, tarefas.size());
+        verify(projetoRepository, times(1)).totalizarPorStatus();
+
+        tarefas.get(0).run();
+
+        assertTrue(agregador.isInicializado());
+        verify(projetoRepository, times(2)).totalizarPorStatus();
+        verify(transactionManager, times(2)).getTransaction(argThat(definicao -> definicao.isReadOnly()
+                && definicao.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+    }
+
+    @Test
+    @DisplayName("Delta confirmado depois da foto da reconstrução deve ser reaplicado sobre ela")
+    void deveReaplicarDeltaConfirmadoDuranteReconstrucao() {
+        Projeto novo = projetoNovo();
+        agregador.registrarAlteracaoEmMassa();
+        //commit que acontece enquanto as consultas da reconstrução rodam
+        when(projetoRepository.totalizarPorStatus()).thenAnswer(invocacao -> {
+            agregador.registrarInclusao(novo);
+            return List.of(totalEmAnalise);
+        });
+
+        tarefas.get(0).run();
+        Totais totais = agregador.totais();
+
+        assertEquals(2L, totais.quantidadePorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(new BigDecimal("75000"), totais.orcamentoPorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(2, totais.membrosUnicos());
+    }
+
+    @Test
+    @DisplayName("Delta confirmado antes da foto não deve ser contado de novo")
+    void naoDeveContarDuasVezesDeltaAnteriorAFoto() {
+        agregador.registrarAlteracaoEmMassa();
+        //já está no banco quando a reconstrução lê: a foto (1 projeto no mock) o inclui
+        agregador.registrarExclusao(ContribuicaoProjeto.de(projeto));
+
+        tarefas.get(0).run();
+
+        assertEquals(1L, agregador.totais().quantidadePorStatus().get(StatusProjetoEnum.EM_ANALISE));
+    }
+
+    @Test
+    @DisplayName("Deltas devem comutar: exclusão que chega antes da inclusão não distorce os totais")
+    void deltasForaDeOrdemDevemComutar() {
+        Projeto novo = projetoNovo();
+
+        agregador.registrarExclusao(ContribuicaoProjeto.de(novo));
+        agregador.registrarInclusao(novo);
+        Totais totais = agregador.totais();
+
+        assertEquals(1L, totais.quantidadePorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(new BigDecimal("50000"), totais.orcamentoPorStatus().get(StatusProjetoEnum.EM_ANALISE));
+        assertEquals(1, totais.membrosUnicos());
+    }
+
+    private Projeto projetoNovo() {
+        return Projeto.builder()
+                .id(2L)
+                .nome("Projeto Novo")
+                .dataInicio(LocalDate.of(2025, 1, 1))
+                .previsaoFim(LocalDate.of(2025, 6, 1))
+                .orcamentoTotal(new BigDecimal("25000"))
+                .gerente(membro2)
+                .status(StatusProjetoEnum.EM_ANALISE)
+                .membros(new ArrayList<>(List.of(membro1, membro2)))
+                .build();
+    }
+}
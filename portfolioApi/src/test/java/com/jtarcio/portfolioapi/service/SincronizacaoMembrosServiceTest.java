@@ -0,0 +1,264 @@
+package com.jtarcio.portfolioapi.service;
+
+import com.jtarcio.portfolioapi.cache.MembroCache;
+import com.jtarcio.portfolioapi.client.MembroExternoClient;
+import com.jtarcio.portfolioapi.dto.response.MembroExternoDTO;
+import com.jtarcio.portfolioapi.dto.response.PaginaMembrosExternosDTO;
+import com.jtarcio.portfolioapi.dto.response.ResultadoSincronizacaoDTO;
+import com.jtarcio.portfolioapi.exception.PortfolioException;
+import com.jtarcio.portfolioapi.exception.ServicoExternoIndisponivelException;
+import com.jtarcio.portfolioapi.model.entity.Membro;
+import com.jtarcio.portfolioapi.model.entity.Sincronizacao;
+import com.jtarcio.portfolioapi.model.entity.enums.AtribuicaoEnum;
+import com.jtarcio.portfolioapi.repository.MembroRepository;
+import com.jtarcio.portfolioapi.repository.SincronizacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do SincronizacaoMembrosService")
+class SincronizacaoMembrosServiceTest {
+
+    private static final Instant MARCA = Instant.parse("2025-01-10T12:00:00Z");
+
+    @Mock
+    private MembroExternoClient membroExternoClient;
+
+    @Mock
+    private MembroRepository membroRepository;
+
+    @Mock
+    private SincronizacaoRepository sincronizacaoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MembroCache membroCache = new MembroCache(100, Duration.ofMinutes(1));
+
+    private SincronizacaoMembrosService sincronizacaoService;
+
+    @BeforeEach
+    void setUp() {
+        sincronizacaoService = new SincronizacaoMembrosService(membroExternoClient, membroRepository,
+                sincronizacaoRepository, membroCache, eventPublisher, transactionManager, 2, Duration.ofMinutes(1),
+                Duration.ofMinutes(10));
+        lenient().when(sincronizacaoRepository.existsById(SincronizacaoMembrosService.FONTE)).thenReturn(true);
+        lenient().when(sincronizacaoRepository.bloquear(eq(SincronizacaoMembrosService.FONTE), anyString(), any(), any()))
+                .thenReturn(1);
+        lenient().when(sincronizacaoRepository.renovarBloqueio(eq(SincronizacaoMembrosService.FONTE), anyString(), any()))
+                .thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("Primeira execução deve ser completa: inclui novos e desativa os que sumiram da fonte")
+    void primeiraExecucaoDeveSerCompleta() {
+        MembroExternoDTO novo = externo("10", "Ana Souza", MARCA);
+        MembroExternoDTO igual = externo("11", "Carlos Lima", MARCA.plusSeconds(1));
+        Membro local = local(1L, igual);
+
+        when(sincronizacaoRepository.findById(SincronizacaoMembrosService.FONTE)).thenReturn(Optional.empty());
+        when(membroExternoClient.buscarAlteracoes(null, null, 2)).thenReturn(pagina(false, novo, igual));
+        when(membroRepository.findByIdExternoIn(List.of("10", "11"))).thenReturn(List.of(local));
+        when(membroRepository.findIdsExternosAtivos()).thenReturn(List.of("11", "99"));
+        when(membroRepository.findIdsByIdExternoIn(List.of("99"))).thenReturn(List.of(7L));
+        when(membroRepository.desativarPorIdsExternos(List.of("99"))).thenReturn(1);
+
+        ResultadoSincronizacaoDTO resultado = sincronizacaoService.sincronizar(false);
+
+        assertTrue(resultado.isCompleta());
+        assertEquals(2, resultado.getLidos());
+        assertEquals(1, resultado.getIncluidos());
+        assertEquals(1, resultado.getInalterados());
+        assertEquals(1, resultado.getDesativados());
+        assertEquals(MARCA.plusSeconds(1), resultado.getAlteradoAte());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Membro>> novos = ArgumentCaptor.forClass(List.class);
+        verify(membroRepository).saveAll(novos.capture());
+        assertEquals(1, novos.getValue().size());
+        assertEquals("10", novos.getValue().get(0).getIdExterno());
+        assertNotNull(novos.getValue().get(0).getHashConteudo());
+        verify(membroRepository).marcarProjetosDosMembrosAlterados(eq(List.of(7L)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Sincronização incremental deve gravar só os membros com conteúdo alterado")
+    void incrementalDeveGravarSomenteAlterados() {
+        MembroExternoDTO renomeado = externo("11", "Carlos Lima Junior", MARCA.plusSeconds(5));
+        Membro local = local(1L, externo("11", "Carlos Lima", MARCA));
+
+        when(sincronizacaoRepository.findById(SincronizacaoMembrosService.FONTE)).thenReturn(Optional.of(marca()));
+        when(membroExternoClient.buscarAlteracoes(MARCA.minus(Duration.ofMinutes(1)), null, 2))
+                .thenReturn(pagina(false, renomeado));
+        when(membroRepository.findByIdExternoIn(List.of("11"))).thenReturn(List.of(local));
+
+        ResultadoSincronizacaoDTO resultado = sincronizacaoService.sincronizar(false);
+
+        assertFalse(resultado.isCompleta());
+        assertEquals(1, resultado.getAlterados());
+        assertEquals("Carlos Lima Junior", local.getNome());
+        assertEquals(SincronizacaoMembrosService.hashConteudo(renomeado), local.getHashConteudo());
+        assertEquals(MARCA.plusSeconds(5), resultado.getAlteradoAte());
+        verify(membroRepository).marcarProjetosDosMembrosAlterados(eq(List.of(1L)), any(Instant.class));
+        verify(membroRepository, never()).findIdsExternosAtivos();
+    }
+
+    @Test
+    @DisplayName("Releitura sem mudança de conteúdo não deve gerar escrita nem recuar a marca d'água")
+    void releituraSemMudancaNaoDeveGerarEscrita() {
+        MembroExternoDTO republicado = externo("11", "Carlos Lima", MARCA.minusSeconds(30));
+        Membro local = local(1L, republicado);
+
+        when(sincronizacaoRepository.findById(SincronizacaoMembrosService.FONTE)).thenReturn(Optional.of(marca()));
+        when(membroExternoClient.buscarAlteracoes(any(), any(), eq(2))).thenReturn(pagina(false, republicado));
+        when(membroRepository.findByIdExternoIn(List.of("11"))).thenReturn(List.of(local));
+
+        ResultadoSincronizacaoDTO resultado = sincronizacaoService.sincronizar(false);
+
+        assertEquals(1, resultado.getInalterados());
+        assertEquals(0, resultado.getAlterados());
+        assertEquals(MARCA, resultado.getAlteradoAte());
+        verify(membroRepository, never()).marcarProjetosDosMembrosAlterados(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Deve seguir as páginas do feed a partir do último item lido")
+    void deveSeguirPaginasDoFeed() {
+        MembroExternoDTO primeiro = externo("10", "Ana Souza", MARCA.plusSeconds(1));
+        MembroExternoDTO segundo = externo("11", "Carlos Lima", MARCA.plusSeconds(2));
+        MembroExternoDTO terceiro = externo("12", "Rita Alves", MARCA.plusSeconds(3));
+
+        when(sincronizacaoRepository.findById(SincronizacaoMembrosService.FONTE)).thenReturn(Optional.of(marca()));
+        when(membroExternoClient.buscarAlteracoes(MARCA.minus(Duration.ofMinutes(1)), null, 2))
+                .thenReturn(pagina(true, primeiro, segundo));
+        when(membroExternoClient.buscarAlteracoes(segundo.getAlteradoEm(), "11", 2)).thenReturn(pagina(false, terceiro));
+
+        ResultadoSincronizacaoDTO resultado = sincronizacaoService.sincronizar(false);
+
+        assertEquals(2, resultado.getPaginas());
+        assertEquals(3, resultado.getIncluidos());
+        assertEquals(MARCA.plusSeconds(3), resultado.getAlteradoAte());
+        //marca d'água gravada a cada página e no final
+        verify(sincronizacaoRepository, times(3)).save(any(Sincronizacao.class));
+    }
+
+    @Test
+    @DisplayName("Membro removido na fonte deve ser desativado")
+    void membroRemovidoNaFonteDeveSerDesativado() {
+        MembroExternoDTO removido = externo("11", "Carlos Lima", MARCA.plusSeconds(5)).toBuilder().ativo(false).build();
+        Membro local = local(1L, externo("11", "Carlos Lima", MARCA));
+
+        when(sincronizacaoRepository.findById(SincronizacaoMembrosService.FONTE)).thenReturn(Optional.of(marca()));
+        when(membroExternoClient.buscarAlteracoes(any(), any(), eq(2))).thenReturn(pagina(false, removido));
+        when(membroRepository.findByIdExternoIn(List.of("11"))).thenReturn(List.of(local));
+
+        ResultadoSincronizacaoDTO resultado = sincronizacaoService.sincronizar(false);
+
+        assertEquals(1, resultado.getDesativados());
+        assertFalse(local.isAtivo());
+    }
+
+    @Test
+    @DisplayName("Fonte indisponível deve interromper a sincronização sem avançar a marca d'água")
+    void fonteIndisponivelDeveInterromper() {
+        when(sincronizacaoRepository.findById(SincronizacaoMembrosService.FONTE)).thenReturn(Optional.of(marca()));
+        when(membroExternoClient.buscarAlteracoes(any(), any(), eq(2)))
+                .thenThrow(new ServicoExternoIndisponivelException("fora do ar", null));
+
+        assertThrows(ServicoExternoIndisponivelException.class, () -> sincronizacaoService.sincronizar(false));
+        verify(sincronizacaoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a execução enquanto outra instância detém o bloqueio")
+    void deveRecusarComBloqueioDeOutraInstancia() {
+        when(sincronizacaoRepository.bloquear(eq(SincronizacaoMembrosService.FONTE), anyString(), any(), any()))
+                .thenReturn(0);
+
+        PortfolioException exception = assertThrows(PortfolioException.class, () -> sincronizacaoService.sincronizar(false));
+
+        assertEquals("Sincronização de membros já está em andamento", exception.getMessage());
+        verifyNoInteractions(membroExternoClient);
+        verify(sincronizacaoRepository, never()).liberar(any(), any());
+    }
+
+    @Test
+    @DisplayName("Primeira execução deve criar a linha do bloqueio e liberá-lo ao terminar, mesmo com falha")
+    void deveCriarLinhaELiberarBloqueio() {
+        when(sincronizacaoRepository.existsById(SincronizacaoMembrosService.FONTE)).thenReturn(false);
+        when(membroExternoClient.buscarAlteracoes(any(), any(), eq(2)))
+                .thenThrow(new ServicoExternoIndisponivelException("fora do ar", null));
+
+        assertThrows(ServicoExternoIndisponivelException.class, () -> sincronizacaoService.sincronizar(false));
+
+        ArgumentCaptor<Sincronizacao> criada = ArgumentCaptor.forClass(Sincronizacao.class);
+        verify(sincronizacaoRepository).saveAndFlush(criada.capture());
+        //sem marca d'água: a primeira execução continua sendo completa
+        assertNull(criada.getValue().getAlteradoAte());
+        ArgumentCaptor<String> dono = ArgumentCaptor.forClass(String.class);
+        verify(sincronizacaoRepository).bloquear(eq(SincronizacaoMembrosService.FONTE), dono.capture(), any(), any());
+        verify(sincronizacaoRepository).liberar(SincronizacaoMembrosService.FONTE, dono.getValue());
+    }
+
+    @Test
+    @DisplayName("Página deve ser desfeita se o bloqueio venceu e outra execução o tomou")
+    void devePararAoPerderBloqueio() {
+        when(sincronizacaoRepository.findById(SincronizacaoMembrosService.FONTE)).thenReturn(Optional.of(marca()));
+        when(sincronizacaoRepository.renovarBloqueio(eq(SincronizacaoMembrosService.FONTE), anyString(), any()))
+                .thenReturn(0);
+        when(membroExternoClient.buscarAlteracoes(any(), any(), eq(2)))
+                .thenReturn(pagina(false, externo("10", "Ana Souza", MARCA.plusSeconds(1))));
+
+        assertThrows(PortfolioException.class, () -> sincronizacaoService.sincronizar(false));
+
+        verify(membroRepository, never()).saveAll(anyList());
+        verify(sincronizacaoRepository, never()).save(any());
+    }
+
+    private static Sincronizacao marca() {
+        return Sincronizacao.builder().fonte(SincronizacaoMembrosService.FONTE).alteradoAte(MARCA).ultimoIdExterno("11").build();
+    }
+
+    private static MembroExternoDTO externo(String id, String nome, Instant alteradoEm) {
+        return MembroExternoDTO.builder()
+                .idExterno(id)
+                .nome(nome)
+                .atribuicaoEnum(AtribuicaoEnum.FUNCIONARIO)
+                .ativo(true)
+                .alteradoEm(alteradoEm)
+                .build();
+    }
+
+    private static Membro local(Long id, MembroExternoDTO origem) {
+        return Membro.builder()
+                .id(id)
+                .idExterno(origem.getIdExterno())
+                .nome(origem.getNome())
+                .atribuicaoEnum(origem.getAtribuicaoEnum())
+                .hashConteudo(SincronizacaoMembrosService.hashConteudo(origem))
+                .build();
+    }
+
+    private static PaginaMembrosExternosDTO pagina(boolean temMais, MembroExternoDTO... itens) {
+        return PaginaMembrosExternosDTO.builder().itens(List.of(itens)).temMais(temMais).build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.jtarcio.portfolioapi.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Falha o teste se o método de teste executar mais que {@code maximo} comandos SQL
+ * (contados pelo ContadorConsultas; o @BeforeEach fica de fora).
+ * Na classe vale para todos os testes; no método, substitui o da classe.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(OrcamentoConsultasExtension.class)
+public @interface OrcamentoConsultas {
+
+    int maximo();
+}
@@ -0,0 +1,57 @@
+package com.jtarcio.portfolioapi.support;
+
+import com.jtarcio.portfolioapi.config.ContadorConsultas;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.List;
+
+/**
+ * Abre um escopo do ContadorConsultas em volta do método de teste e confere o orçamento no fim.
+ * Requisições do MockMvc rodam na thread do teste, então os comandos delas entram na contagem.
+ * O contador guarda o estado em ThreadLocal: qualquer instância enxerga o que o Hibernate registrou.
+ */
+public class OrcamentoConsultasExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final int COMANDOS_NA_MENSAGEM = 30;
+
+    private final ContadorConsultas contador = new ContadorConsultas();
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        contador.iniciar(ContadorConsultas.SEM_LIMITE, true);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        List<String> comandos = contador.comandos();
+        int executados = contador.encerrar();
+        int maximo = orcamento(context);
+
+        //teste que já falhou por outro motivo mantém a falha original
+        if (context.getExecutionException().isEmpty() && executados > maximo) {
+            throw new AssertionFailedError(context.getDisplayName() + " executou " + executados
+                    + " comandos SQL (orçamento: " + maximo + ")\n" + listar(comandos));
+        }
+    }
+
+    private static int orcamento(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), OrcamentoConsultas.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), OrcamentoConsultas.class))
+                .map(OrcamentoConsultas::maximo)
+                .orElseThrow(() -> new IllegalStateException("@OrcamentoConsultas não encontrado em " + context.getDisplayName()));
+    }
+
+    //comandos repetidos em sequência são o sinal típico de N+1
+    private static String listar(List<String> comandos) {
+        StringBuilder lista = new StringBuilder();
+        comandos.stream().limit(COMANDOS_NA_MENSAGEM).forEach(sql -> lista.append("  ").append(sql).append('\n'));
+        if (comandos.size() > COMANDOS_NA_MENSAGEM) {
+            lista.append("  ... mais ").append(comandos.size() - COMANDOS_NA_MENSAGEM).append(" comandos\n");
+        }
+        return lista.toString();
+    }
+}